@@ -0,0 +1,43 @@
+package com.efrei.easybooking.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caches Caffeine en mémoire, propres à chaque instance. Chaque cache a sa taille et sa durée de vie,
+ * et enregistre ses statistiques : Actuator les exporte en cache.gets (result=hit|miss), cache.puts,
+ * cache.evictions et cache.size, étiquetées par nom de cache.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SALLES = "salles";
+    public static final String CATALOGUE_SALLES = "catalogueSalles";
+
+    @Bean
+    public CaffeineCacheManager cacheManager(
+            @Value("${easybooking.cache.salles.taille-max:10000}") long tailleMaxSalles,
+            @Value("${easybooking.cache.salles.expiration:10m}") Duration expiration) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(SALLES, Caffeine.newBuilder()
+                .maximumSize(tailleMaxSalles)
+                .expireAfterWrite(expiration)
+                .recordStats()
+                .build());
+        // une seule entrée : la liste complète des salles
+        cacheManager.registerCustomCache(CATALOGUE_SALLES, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expiration)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
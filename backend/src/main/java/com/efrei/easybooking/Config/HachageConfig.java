@@ -0,0 +1,46 @@
+package com.efrei.easybooking.Config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@Configuration
+public class HachageConfig {
+
+    /**
+     * BCrypt avec un coût configurable (10 par défaut, environ 60 ms par hachage).
+     * Augmenter le coût ne casse rien : les anciens hachages sont recalculés à la connexion suivante.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${easybooking.auth.bcrypt-cout:10}") int cout) {
+        return new BCryptPasswordEncoder(cout);
+    }
+
+    /**
+     * Pool dédié au hachage des mots de passe, pour qu'une vague de connexions ne consomme pas
+     * tout le CPU des threads Tomcat au détriment des réservations. La file est bornée : une fois
+     * pleine, les demandes sont refusées immédiatement (AbortPolicy) plutôt que mises en attente.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor executeurHachage(
+            @Value("${easybooking.auth.hachage.threads:0}") int threads,
+            @Value("${easybooking.auth.hachage.file:32}") int capaciteFile) {
+        int nombreThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger compteur = new AtomicInteger();
+        return new ThreadPoolExecutor(nombreThreads, nombreThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capaciteFile),
+                tache -> {
+                    Thread thread = new Thread(tache, "hachage-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
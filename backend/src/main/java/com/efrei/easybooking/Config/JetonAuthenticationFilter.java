@@ -0,0 +1,53 @@
+package com.efrei.easybooking.Config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.efrei.easybooking.Service.JetonService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * En mode jeton, vérifie l'en-tête {@code Authorization: Bearer ...} et expose l'id de l'utilisateur
+ * dans l'attribut de requête {@link #ATTRIBUT_UTILISATEUR}. Sans en-tête, la requête passe telle quelle
+ * (les contrôleurs répondent 401 si besoin) ; avec un jeton invalide ou expiré, on répond 401 tout de suite
+ * pour que le client sache qu'il doit rafraîchir.
+ */
+public class JetonAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUT_UTILISATEUR = JetonAuthenticationFilter.class.getName() + ".userId";
+
+    private static final String PREFIXE = "Bearer ";
+
+    private final JetonService jetonService;
+
+    public JetonAuthenticationFilter(JetonService jetonService) {
+        this.jetonService = jetonService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String entete = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (entete == null || !entete.startsWith(PREFIXE)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            request.setAttribute(ATTRIBUT_UTILISATEUR, jetonService.verifierAcces(entete.substring(PREFIXE.length())));
+        } catch (RuntimeException e) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,93 @@
+package com.efrei.easybooking.Config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class JpaConfig {
+
+    // régions du cache de second niveau, référencées par @Cache sur les entités et par les requêtes en cache
+    public static final String REGION_SALLES = "salle";
+    public static final String REGION_UTILISATEURS = "utilisateur";
+    public static final String REGION_UTILISATEURS_PAR_EMAIL = "utilisateurParEmail";
+
+    // lignes lues par aller-retour avec la base par les méthodes Stream des repositories. Sur MySQL, ajouter
+    // useCursorFetch=true à l'URL : sans lui le driver charge tout le résultat en mémoire avant la première ligne
+    public static final String TAILLE_LOT_LECTURE = "1000";
+
+    /**
+     * Active le regroupement des INSERT en lots JDBC (utilisé par POST /reservations/batch).
+     * Les valeurs posées via spring.jpa.properties restent prioritaires. Sur MySQL, penser à
+     * ajouter rewriteBatchedStatements=true à l'URL pour que le driver envoie un seul INSERT multi-lignes.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer batchJdbcCustomizer(@Value("${easybooking.jpa.batch-size:50}") int tailleLot) {
+        return proprietes -> {
+            proprietes.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, tailleLot);
+            proprietes.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+        };
+    }
+
+    /**
+     * Cache de second niveau d'Hibernate pour Salle et Utilisateur, et cache de requêtes pour
+     * findByEmail : les associations salle/utilisateur d'une réservation se résolvent sans SQL. Une région
+     * absente de {@link #cacheManagerHibernate} fait échouer le démarrage plutôt que d'être créée sans borne.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSecondNiveauCustomizer(CacheManager cacheManagerHibernate) {
+        return proprietes -> {
+            proprietes.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            proprietes.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            proprietes.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            proprietes.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            proprietes.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Régions JCache (Caffeine, en mémoire, par instance), chacune bornée en nombre d'entrées. L'expiration
+     * borne l'écart avec une modification faite par une autre instance ou directement en base.
+     */
+    @Bean
+    public CacheManager cacheManagerHibernate(
+            @Value("${easybooking.cache.hibernate.salles:10000}") long tailleSalles,
+            @Value("${easybooking.cache.hibernate.utilisateurs:50000}") long tailleUtilisateurs,
+            @Value("${easybooking.cache.hibernate.requetes:50000}") long tailleRequetes,
+            @Value("${easybooking.cache.hibernate.expiration:10m}") Duration expiration) {
+        // un gestionnaire par contexte Spring : plusieurs instances de l'application peuvent partager la JVM (tests)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("easybooking:hibernate:" + UUID.randomUUID()), JpaConfig.class.getClassLoader());
+        cacheManager.createCache(REGION_SALLES, region(tailleSalles, expiration));
+        cacheManager.createCache(REGION_UTILISATEURS, region(tailleUtilisateurs, expiration));
+        cacheManager.createCache(REGION_UTILISATEURS_PAR_EMAIL, region(tailleRequetes, expiration));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(tailleRequetes, expiration));
+        // dates de dernière modification de chaque table : une entrée perdue ferait servir des résultats
+        // de requête périmés, cette région n'est donc ni bornée ni expirée (une entrée par table)
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long tailleMax, Duration expiration) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(tailleMax))
+                .setExpireAfterWrite(OptionalLong.of(expiration.toNanos()))
+                .setStatisticsEnabled(true);
+    }
+}
@@ -0,0 +1,46 @@
+package com.efrei.easybooking.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import com.efrei.easybooking.Service.LimiteurDebit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+@Configuration
+public class LimitationConfig {
+
+    /**
+     * Limitation de débit sur /login et /register. Placée juste après la chaîne Spring Security pour que
+     * les réponses 429 portent les en-têtes CORS, mais avant les contrôleurs et donc avant toute requête JPA.
+     * Derrière un proxy, activer server.forward-headers-strategy pour que getRemoteAddr soit l'IP du client.
+     */
+    @Bean
+    public FilterRegistrationBean<LimitationDebitFilter> limitationDebitFilter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${easybooking.limitation.ip.capacite:20}") int capaciteIp,
+            @Value("${easybooking.limitation.ip.recharge:1m}") Duration rechargeIp,
+            @Value("${easybooking.limitation.email.capacite:5}") int capaciteEmail,
+            @Value("${easybooking.limitation.email.recharge:5m}") Duration rechargeEmail,
+            @Value("${easybooking.limitation.bandes:64}") int bandes,
+            @Value("${easybooking.limitation.cles-par-bande:1024}") int clesParBande,
+            @Value("${easybooking.limitation.inactivite:10m}") Duration inactivite,
+            @Value("${easybooking.limitation.corps-max:4KB}") DataSize corpsMax) {
+        LimitationDebitFilter filtre = new LimitationDebitFilter(
+                new LimiteurDebit(capaciteIp, rechargeIp, bandes, clesParBande, inactivite),
+                new LimiteurDebit(capaciteEmail, rechargeEmail, bandes, clesParBande, inactivite),
+                objectMapper, (int) corpsMax.toBytes(), meterRegistry);
+
+        FilterRegistrationBean<LimitationDebitFilter> enregistrement = new FilterRegistrationBean<>(filtre);
+        enregistrement.addUrlPatterns("/login", "/register");
+        enregistrement.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER + 1);
+        return enregistrement;
+    }
+}
@@ -0,0 +1,180 @@
+package com.efrei.easybooking.Config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.efrei.easybooking.Service.AuthService;
+import com.efrei.easybooking.Service.LimiteurDebit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Limite les POST /login et /register par adresse IP puis par email, avant que la requête n'atteigne
+ * le contrôleur : une demande refusée (429 + Retry-After) ne déclenche aucune requête en base.
+ * Le corps JSON est lu ici pour en extraire l'email, puis rejoué tel quel pour le contrôleur ; il est gardé
+ * en mémoire, donc borné : au-delà de {@code tailleMaxCorps} octets la demande est refusée en 413.
+ */
+public class LimitationDebitFilter extends OncePerRequestFilter {
+
+    private final LimiteurDebit limiteurIp;
+    private final LimiteurDebit limiteurEmail;
+    private final ObjectMapper objectMapper;
+    private final int tailleMaxCorps;
+    private final Counter rejetsIp;
+    private final Counter rejetsEmail;
+
+    public LimitationDebitFilter(LimiteurDebit limiteurIp, LimiteurDebit limiteurEmail, ObjectMapper objectMapper,
+                                 int tailleMaxCorps, MeterRegistry meterRegistry) {
+        this.limiteurIp = limiteurIp;
+        this.limiteurEmail = limiteurEmail;
+        this.objectMapper = objectMapper;
+        this.tailleMaxCorps = tailleMaxCorps;
+        this.rejetsIp = rejets(meterRegistry, "ip");
+        this.rejetsEmail = rejets(meterRegistry, "email");
+    }
+
+    private static Counter rejets(MeterRegistry meterRegistry, String cle) {
+        return Counter.builder("easybooking.auth.limitation.rejets")
+                .description("Demandes de connexion ou d'inscription refusées par la limitation de débit")
+                .tag("cle", cle)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long attente = limiteurIp.consommer(request.getRemoteAddr());
+        if (attente > 0) {
+            rejetsIp.increment();
+            refuser(response, attente);
+            return;
+        }
+
+        // un octet de plus que la limite suffit à savoir qu'elle est dépassée, sans lire le reste
+        byte[] corps = request.getContentLengthLong() > tailleMaxCorps
+                ? null
+                : request.getInputStream().readNBytes(tailleMaxCorps + 1);
+        if (corps == null || corps.length > tailleMaxCorps) {
+            response.setStatus(HttpStatus.CONTENT_TOO_LARGE.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Requête trop volumineuse");
+            return;
+        }
+        String email = email(corps);
+        if (email != null) {
+            attente = limiteurEmail.consommer(email);
+            if (attente > 0) {
+                rejetsEmail.increment();
+                refuser(response, attente);
+                return;
+            }
+        }
+        filterChain.doFilter(new CorpsRelu(request, corps), response);
+    }
+
+    private String email(byte[] corps) {
+        try {
+            JsonNode email = objectMapper.readTree(corps).get("email");
+            return email != null && email.isString() ? AuthService.normaliserEmail(email.asString()) : null;
+        } catch (JacksonException e) {
+            // corps illisible : seule la limite par IP s'applique, le contrôleur répondra 400
+            return null;
+        }
+    }
+
+    private static void refuser(HttpServletResponse response, long attenteSecondes) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(attenteSecondes));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Trop de tentatives, veuillez réessayer plus tard");
+    }
+
+    private static final class CorpsRelu extends HttpServletRequestWrapper {
+
+        private final byte[] corps;
+
+        private CorpsRelu(HttpServletRequest request, byte[] corps) {
+            super(request);
+            this.corps = corps;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream source = new ByteArrayInputStream(corps);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return source.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return source.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return source.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // corps déjà entièrement en mémoire : tout est disponible dès maintenant
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corps.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corps.length;
+        }
+    }
+}
@@ -2,31 +2,73 @@ package com.efrei.easybooking.Config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.efrei.easybooking.Service.JetonService;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String ROLE_SUPERVISION = "SUPERVISION";
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JetonService jetonService) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            // POST /logout est géré par AuthController, pas par la redirection par défaut de Spring Security
+            .logout(logout -> logout.disable())
+            // les utilisateurs de l'application sont vérifiés par les contrôleurs (session ou jeton) ; Spring
+            // Security n'authentifie que le collecteur de métriques, en HTTP Basic, sur /actuator
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole(ROLE_SUPERVISION)
                 .anyRequest().permitAll()
-            );
+            )
+            .httpBasic(basic -> basic.realmName("supervision"));
+
+        // Mode jeton : aucune session côté serveur, l'utilisateur est lu dans le jeton à chaque requête
+        if (jetonService.isActif()) {
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JetonAuthenticationFilter(jetonService), UsernamePasswordAuthenticationFilter.class);
+        }
 
         return http.build();
     }
 
+    /**
+     * Seul compte connu de Spring Security : celui du collecteur Prometheus (basic_auth), déclaré par
+     * configuration. Sans mot de passe, les points de supervision autres que health sont refusés à tous.
+     */
+    @Bean
+    public UserDetailsService supervision(PasswordEncoder passwordEncoder,
+                                          @Value("${easybooking.supervision.utilisateur:prometheus}") String utilisateur,
+                                          @Value("${easybooking.supervision.mot-de-passe:}") String motDePasse) {
+        if (motDePasse.isBlank()) {
+            return new InMemoryUserDetailsManager();
+        }
+        return new InMemoryUserDetailsManager(User.withUsername(utilisateur)
+                .password(passwordEncoder.encode(motDePasse))
+                .roles(ROLE_SUPERVISION)
+                .build());
+    }
+
     /**
      * Configuration CORS pour autoriser le front (localhost:5173) à appeler l'API.
      */
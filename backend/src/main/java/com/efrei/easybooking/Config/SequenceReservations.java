@@ -0,0 +1,60 @@
+package com.efrei.easybooking.Config;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.efrei.easybooking.Entity.Reservation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Place la séquence des réservations au-dessus du plus grand identifiant existant. Une base remplie avant
+ * le passage de IDENTITY à {@link Reservation#SEQUENCE} garde ses identifiants, alors que la séquence créée
+ * par Hibernate repart de 1 : sans ce rattrapage, les premiers INSERT entreraient en collision avec eux.
+ * <p>
+ * Exécuté à la création du bean, avant que le serveur n'accepte des requêtes. La séquence n'est jamais
+ * reculée : une fois rattrapée, un redémarrage ne la modifie plus. Hibernate réserve les identifiants
+ * par blocs qui se terminent à la valeur lue, d'où la marge de {@link Reservation#TAILLE_BLOC_IDENTIFIANTS}.
+ */
+@Component
+public class SequenceReservations {
+
+    private static final Log logger = LogFactory.getLog(SequenceReservations.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public SequenceReservations(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void rattraper() {
+        Long idMax = jdbcTemplate.queryForObject("select max(id) from reservation", Long.class);
+        if (idMax == null) {
+            return;
+        }
+        long minimum = idMax + Reservation.TAILLE_BLOC_IDENTIFIANTS;
+
+        SequenceSupport sequences = dialect.getSequenceSupport();
+        if (sequences.supportsSequences()) {
+            // consomme une valeur (un bloc perdu par démarrage) : c'est la seule lecture portable d'une séquence
+            Long suivante = jdbcTemplate.queryForObject(sequences.getSequenceNextValString(Reservation.SEQUENCE), Long.class);
+            if (suivante != null && suivante < minimum) {
+                jdbcTemplate.execute("alter sequence " + Reservation.SEQUENCE + " restart with " + minimum);
+                logger.info("Séquence " + Reservation.SEQUENCE + " placée à " + minimum);
+            }
+        } else if (jdbcTemplate.update("update " + Reservation.SEQUENCE + " set next_val = ? where next_val < ?",
+                minimum, minimum) > 0) {
+            // table d'émulation (MySQL) : une ligne, la prochaine valeur rendue par Hibernate
+            logger.info("Séquence " + Reservation.SEQUENCE + " placée à " + minimum);
+        }
+    }
+}
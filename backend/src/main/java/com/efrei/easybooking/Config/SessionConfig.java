@@ -0,0 +1,59 @@
+package com.efrei.easybooking.Config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.session.jdbc.autoconfigure.JdbcSessionDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.session.jdbc.autoconfigure.JdbcSessionProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sessions HTTP stockées en base (même datasource que JPA) pour que plusieurs instances du backend
+ * partagent les connexions en mode session. Déclarer notre propre SessionRepository désactive la
+ * configuration automatique de Spring Boot : on reprend ici ses propriétés spring.session.jdbc.*.
+ */
+@Configuration
+@EnableSpringHttpSession
+@EnableConfigurationProperties(JdbcSessionProperties.class)
+public class SessionConfig {
+
+    @Bean
+    public JdbcSessionDataSourceScriptDatabaseInitializer jdbcSessionDataSourceScriptDatabaseInitializer(
+            DataSource dataSource, JdbcSessionProperties proprietes) {
+        return new JdbcSessionDataSourceScriptDatabaseInitializer(dataSource, proprietes);
+    }
+
+    @Bean(initMethod = "demarrer", destroyMethod = "arreter")
+    public SessionJdbcDifferee sessionRepository(
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, JdbcSessionProperties proprietes,
+            @Value("${server.servlet.session.timeout:30m}") Duration inactiviteMax,
+            @Value("${easybooking.session.ecriture-differee:10s}") Duration intervalleEcriture,
+            @Value("${easybooking.session.nettoyage:1m}") Duration intervalleNettoyage,
+            @Value("${easybooking.session.nettoyage-taille-lot:500}") int tailleLot) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        JdbcIndexedSessionRepository jdbc = new JdbcIndexedSessionRepository(jdbcTemplate, transactionTemplate);
+        jdbc.setTableName(proprietes.getTableName());
+        jdbc.setDefaultMaxInactiveInterval(inactiviteMax);
+        jdbc.setFlushMode(proprietes.getFlushMode());
+        jdbc.setSaveMode(proprietes.getSaveMode());
+        // le nettoyage par lots de SessionJdbcDifferee remplace le DELETE unique planifié par Spring Session
+        jdbc.setCleanupCron(Scheduled.CRON_DISABLED);
+        jdbc.afterPropertiesSet();
+
+        return new SessionJdbcDifferee(jdbc, jdbcTemplate, transactionTemplate, proprietes.getTableName(),
+                intervalleEcriture, intervalleNettoyage, tailleLot);
+    }
+}
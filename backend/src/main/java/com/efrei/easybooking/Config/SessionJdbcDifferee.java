@@ -0,0 +1,272 @@
+package com.efrei.easybooking.Config;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Sessions HTTP partagées entre instances dans la table SPRING_SESSION, par-dessus
+ * JdbcIndexedSessionRepository (qui ne désérialise déjà un attribut qu'au premier getAttribute).
+ *
+ * <p>Ce qui s'ajoute ici :
+ * <ul>
+ *   <li>écriture différée de la date de dernier accès : une requête qui ne modifie pas la session ne fait
+ *   plus d'UPDATE, l'accès est gardé en mémoire et écrit par lots toutes les {@code intervalleEcriture}.
+ *   Il est écrit tout de suite si la copie en base a plus de la moitié du délai d'inactivité, pour
+ *   qu'une autre instance ne la croie jamais expirée ;</li>
+ *   <li>suppression des sessions expirées par lots de {@code tailleLot}, chacun dans sa transaction,
+ *   au lieu d'un seul DELETE qui verrouille toute la table.</li>
+ * </ul>
+ */
+public class SessionJdbcDifferee implements SessionRepository<SessionJdbcDifferee.SessionDifferee> {
+
+    private static final Log logger = LogFactory.getLog(SessionJdbcDifferee.class);
+
+    private final FindByIndexNameSessionRepository<? extends Session> delegue;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final String table;
+    private final Duration intervalleEcriture;
+    private final Duration intervalleNettoyage;
+    private final int tailleLot;
+
+    private final Map<String, Acces> accesEnAttente = new ConcurrentHashMap<>();
+    private ScheduledExecutorService planificateur;
+
+    public SessionJdbcDifferee(FindByIndexNameSessionRepository<? extends Session> delegue, JdbcTemplate jdbcTemplate,
+                               TransactionOperations transactionOperations, String table,
+                               Duration intervalleEcriture, Duration intervalleNettoyage, int tailleLot) {
+        this.delegue = delegue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.table = table;
+        this.intervalleEcriture = intervalleEcriture;
+        this.intervalleNettoyage = intervalleNettoyage;
+        this.tailleLot = tailleLot;
+    }
+
+    public void demarrer() {
+        planificateur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "sessions-jdbc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleWithFixedDelay(() -> executerSansPropager(this::ecrireAccesEnAttente),
+                intervalleEcriture.toMillis(), intervalleEcriture.toMillis(), TimeUnit.MILLISECONDS);
+        planificateur.scheduleWithFixedDelay(() -> executerSansPropager(this::supprimerSessionsExpirees),
+                intervalleNettoyage.toMillis(), intervalleNettoyage.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void arreter() {
+        if (planificateur != null) {
+            planificateur.shutdownNow();
+        }
+        executerSansPropager(this::ecrireAccesEnAttente);
+    }
+
+    @Override
+    public SessionDifferee createSession() {
+        return new SessionDifferee(delegue.createSession(), true);
+    }
+
+    @Override
+    public SessionDifferee findById(String id) {
+        Session session = delegue.findById(id);
+        if (session == null) {
+            accesEnAttente.remove(id);
+            return null;
+        }
+        SessionDifferee differee = new SessionDifferee(session, false);
+        Acces enAttente = accesEnAttente.get(id);
+        if (enAttente != null && enAttente.instant().isAfter(differee.dernierAcces)) {
+            differee.dernierAcces = enAttente.instant();
+        }
+        return differee;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void save(SessionDifferee session) {
+        Session stockee = session.delegue;
+        Duration ageEnBase = Duration.between(stockee.getLastAccessedTime(), session.dernierAcces);
+        boolean aEcrire = session.nouvelle || session.modifiee
+                || ageEnBase.compareTo(stockee.getMaxInactiveInterval().dividedBy(2)) > 0;
+
+        if (!aEcrire) {
+            accesEnAttente.merge(session.getId(), new Acces(session.dernierAcces, stockee.getMaxInactiveInterval()),
+                    (ancien, nouveau) -> nouveau.instant().isAfter(ancien.instant()) ? nouveau : ancien);
+            return;
+        }
+
+        stockee.setLastAccessedTime(session.dernierAcces);
+        ((SessionRepository) delegue).save(stockee);
+        accesEnAttente.remove(session.getId());
+        session.nouvelle = false;
+        session.modifiee = false;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        accesEnAttente.remove(id);
+        delegue.deleteById(id);
+    }
+
+    /**
+     * Écrit en un seul lot JDBC les dates d'accès gardées en mémoire. Retourne le nombre de sessions mises à jour.
+     */
+    public int ecrireAccesEnAttente() {
+        if (accesEnAttente.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> lignes = new ArrayList<>();
+        for (String id : Set.copyOf(accesEnAttente.keySet())) {
+            Acces acces = accesEnAttente.remove(id);
+            if (acces != null) {
+                long instant = acces.instant().toEpochMilli();
+                lignes.add(new Object[]{instant, instant + acces.inactiviteMax().toMillis(), id, instant});
+            }
+        }
+        transactionOperations.executeWithoutResult(statut -> jdbcTemplate.batchUpdate(
+                "UPDATE " + table + " SET LAST_ACCESS_TIME = ?, EXPIRY_TIME = ? WHERE SESSION_ID = ? AND LAST_ACCESS_TIME < ?",
+                lignes));
+        return lignes.size();
+    }
+
+    /**
+     * Supprime les sessions expirées par lots (les attributs suivent par ON DELETE CASCADE).
+     * Retourne le nombre de sessions supprimées.
+     */
+    public int supprimerSessionsExpirees() {
+        long maintenant = Instant.now().toEpochMilli();
+        int total = 0;
+        int supprimees;
+        do {
+            supprimees = transactionOperations.execute(statut -> {
+                List<String> ids = jdbcTemplate.query(
+                        "SELECT PRIMARY_ID FROM " + table + " WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME",
+                        ps -> {
+                            ps.setLong(1, maintenant);
+                            ps.setMaxRows(tailleLot);
+                        },
+                        (rs, ligne) -> rs.getString(1));
+                if (!ids.isEmpty()) {
+                    jdbcTemplate.batchUpdate("DELETE FROM " + table + " WHERE PRIMARY_ID = ?",
+                            ids.stream().map(id -> new Object[]{id}).toList());
+                }
+                return ids.size();
+            });
+            total += supprimees;
+        } while (supprimees == tailleLot);
+        return total;
+    }
+
+    private static void executerSansPropager(Runnable tache) {
+        try {
+            tache.run();
+        } catch (RuntimeException e) {
+            logger.warn("Maintenance des sessions JDBC en échec", e);
+        }
+    }
+
+    private record Acces(Instant instant, Duration inactiviteMax) {
+    }
+
+    /**
+     * Session vue par la requête : les lectures vont directement à la session JDBC (désérialisation
+     * paresseuse), seules les modifications et la date d'accès sont suivies ici.
+     */
+    public static final class SessionDifferee implements Session {
+
+        private final Session delegue;
+        private boolean nouvelle;
+        private boolean modifiee;
+        private Instant dernierAcces;
+
+        private SessionDifferee(Session delegue, boolean nouvelle) {
+            this.delegue = delegue;
+            this.nouvelle = nouvelle;
+            this.dernierAcces = delegue.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return delegue.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            modifiee = true;
+            return delegue.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegue.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegue.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            modifiee = true;
+            delegue.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            modifiee = true;
+            delegue.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegue.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            dernierAcces = lastAccessedTime;
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return dernierAcces;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            modifiee = true;
+            delegue.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegue.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            Duration inactiviteMax = getMaxInactiveInterval();
+            return !inactiviteMax.isNegative() && Instant.now().minus(inactiviteMax).isAfter(dernierAcces);
+        }
+    }
+}
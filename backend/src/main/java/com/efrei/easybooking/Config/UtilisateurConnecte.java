@@ -0,0 +1,15 @@
+package com.efrei.easybooking.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injecte l'id de l'utilisateur connecté dans un paramètre {@code Long} de contrôleur, qu'il vienne
+ * d'un jeton (mode jeton) ou de la session (mode session). Vaut {@code null} si personne n'est connecté.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UtilisateurConnecte {
+}
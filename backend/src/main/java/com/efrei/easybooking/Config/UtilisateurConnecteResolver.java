@@ -0,0 +1,31 @@
+package com.efrei.easybooking.Config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Résout {@link UtilisateurConnecte} : d'abord l'attribut de requête posé par {@link JetonAuthenticationFilter},
+ * sinon l'attribut "userId" de la session existante. Ne crée jamais de session.
+ */
+public class UtilisateurConnecteResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(UtilisateurConnecte.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object userId = webRequest.getAttribute(JetonAuthenticationFilter.ATTRIBUT_UTILISATEUR, RequestAttributes.SCOPE_REQUEST);
+        if (userId == null) {
+            userId = webRequest.getAttribute("userId", RequestAttributes.SCOPE_SESSION);
+        }
+        return userId;
+    }
+}
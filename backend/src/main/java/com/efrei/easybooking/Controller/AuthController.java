@@ -1,5 +1,6 @@
 package com.efrei.easybooking.Controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -7,19 +8,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.efrei.easybooking.DTO.LoginDTO;
+import com.efrei.easybooking.DTO.RafraichissementDTO;
 import com.efrei.easybooking.DTO.RegisterDTO;
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Service.AuthService;
+import com.efrei.easybooking.Service.HachageSatureException;
+import com.efrei.easybooking.Service.JetonService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 @RestController
 public class AuthController {
 
     private final AuthService authService;
+    private final JetonService jetonService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, JetonService jetonService) {
         this.authService = authService;
+        this.jetonService = jetonService;
     }
 
     @PostMapping("/register")
@@ -27,27 +34,59 @@ public class AuthController {
         try {
             authService.register(registerDTO.email(), registerDTO.password());
             return ResponseEntity.status(HttpStatus.CREATED).body("Compte créé avec succès");
+        } catch (HachageSatureException e) {
+            return surcharge(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginDTO loginDTO, HttpSession session) {
+    public ResponseEntity<?> login(@RequestBody LoginDTO loginDTO, HttpServletRequest request) {
         try {
             Utilisateur user = authService.login(loginDTO.email(), loginDTO.password());
-            
+
+            if (jetonService.isActif()) {
+                return ResponseEntity.ok(jetonService.emettre(user));
+            }
+
+            // HttpSession n'est pas injectée en paramètre pour ne pas créer de session en mode jeton
+            HttpSession session = request.getSession();
             session.setAttribute("userId", user.getId());
             session.setAttribute("email", user.getEmail());
             return ResponseEntity.ok("Connexion réussie");
+        } catch (HachageSatureException e) {
+            return surcharge(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RafraichissementDTO rafraichissementDTO) {
+        if (!jetonService.isActif()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("L'authentification par jeton n'est pas activée");
+        }
+        try {
+            return ResponseEntity.ok(jetonService.rafraichir(rafraichissementDTO.jetonRafraichissement()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<String> logout(HttpServletRequest request) {
+        // En mode jeton il n'y a rien à invalider côté serveur : le client oublie ses jetons
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         return ResponseEntity.ok("Déconnexion réussie");
     }
+
+    private ResponseEntity<String> surcharge(HachageSatureException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSecondes()))
+                .body(e.getMessage());
+    }
 }
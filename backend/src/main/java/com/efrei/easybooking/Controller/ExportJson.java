@@ -0,0 +1,50 @@
+package com.efrei.easybooking.Controller;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * Écrit un flux de lignes en tableau JSON directement dans la réponse, au fur et à mesure de leur lecture
+ * en base : la mémoire utilisée ne dépend pas du nombre de lignes. La réponse est envoyée après la première
+ * ligne puis toutes les {@link #LIGNES_PAR_ENVOI} lignes, le client n'attend pas la fin de la lecture.
+ */
+@Component
+class ExportJson {
+
+    static final int LIGNES_PAR_ENVOI = 1000;
+
+    private final ObjectWriter writer;
+
+    public ExportJson(ObjectMapper objectMapper) {
+        // le flux de sortie appartient au conteneur de servlets : on ne le ferme pas avec le générateur
+        this.writer = objectMapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Consomme et ferme {@code lignes} (le curseur JDBC est libéré même en cas d'erreur d'écriture).
+     * Retourne le nombre de lignes écrites.
+     */
+    public long ecrire(Stream<?> lignes, OutputStream sortie) {
+        long nombre = 0;
+        try (lignes; JsonGenerator generateur = writer.createGenerator(sortie)) {
+            generateur.writeStartArray();
+            Iterator<?> iterateur = lignes.iterator();
+            while (iterateur.hasNext()) {
+                generateur.writePOJO(iterateur.next());
+                if (++nombre % LIGNES_PAR_ENVOI == 1) {
+                    generateur.flush();
+                }
+            }
+            generateur.writeEndArray();
+        }
+        return nombre;
+    }
+}
@@ -0,0 +1,44 @@
+package com.efrei.easybooking.Controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * GET conditionnel : l'en-tête If-None-Match est comparé à l'ETag de la représentation courante
+ * avant de la calculer. Les réponses portent "Cache-Control: no-cache" : le navigateur les garde
+ * mais revalide à chaque appel (sinon Spring Security ajouterait no-store).
+ */
+final class ReponseConditionnelle {
+
+    private ReponseConditionnelle() {
+    }
+
+    /**
+     * Vrai si l'un des ETags de If-None-Match désigne la représentation courante. La comparaison est
+     * faible, comme le veut la RFC 9110 pour If-None-Match : un préfixe W/ est ignoré.
+     */
+    public static boolean estAJour(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidat : ifNoneMatch.split(",")) {
+            String valeur = candidat.trim();
+            if (valeur.startsWith("W/")) {
+                valeur = valeur.substring(2);
+            }
+            if (valeur.equals("*") || valeur.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static ResponseEntity<Void> nonModifiee(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    public static <T> ResponseEntity<T> ok(String etag, T corps) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(corps);
+    }
+}
@@ -3,34 +3,48 @@ package com.efrei.easybooking.Controller;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.efrei.easybooking.Config.UtilisateurConnecte;
+import com.efrei.easybooking.DTO.CreneauxJourDTO;
+import com.efrei.easybooking.DTO.PageDTO;
 import com.efrei.easybooking.DTO.ReservationDTO;
-import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.DTO.ReservationSerieDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.DTO.ResultatReservationDTO;
+import com.efrei.easybooking.DTO.SerieCreeeDTO;
+import com.efrei.easybooking.Service.JourCreneaux;
 import com.efrei.easybooking.Service.ReservationService;
-
-import jakarta.servlet.http.HttpSession;
+import com.efrei.easybooking.Service.VersionsSalles;
 
 @RestController
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final VersionsSalles versionsSalles;
+    private final ExportJson exportJson;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, VersionsSalles versionsSalles,
+                                 ExportJson exportJson) {
         this.reservationService = reservationService;
+        this.versionsSalles = versionsSalles;
+        this.exportJson = exportJson;
     }
 
     @PostMapping("/reservations")
-    public ResponseEntity<String> creerReservation(@RequestBody ReservationDTO reservationDTO, HttpSession session) {
-        Long userId = (Long) session.getAttribute("userId");
+    public ResponseEntity<String> creerReservation(@RequestBody ReservationDTO reservationDTO, @UtilisateurConnecte Long userId) {
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
         }
@@ -48,20 +62,83 @@ public class ReservationController {
         }
     }
 
+    @PostMapping("/reservations/batch")
+    public ResponseEntity<?> creerReservations(@RequestBody List<ReservationDTO> reservationsDTO, @UtilisateurConnecte Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
+        }
+
+        try {
+            List<ResultatReservationDTO> resultats = reservationService.creerReservations(userId, reservationsDTO);
+            return ResponseEntity.ok(resultats);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/reservations/series")
+    public ResponseEntity<?> creerSerie(@RequestBody ReservationSerieDTO serieDTO, @UtilisateurConnecte Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
+        }
+
+        try {
+            SerieCreeeDTO serie = reservationService.creerSerie(userId, serieDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(serie);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/reservations/series/{id}")
+    public ResponseEntity<String> supprimerSerie(@PathVariable("id") Long serieId, @UtilisateurConnecte Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
+        }
+
+        try {
+            int supprimees = reservationService.supprimerSeriePourUtilisateur(serieId, userId);
+            return ResponseEntity.ok("Série supprimée avec succès (" + supprimees + " réservations)");
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/reservations")
-    public ResponseEntity<?> getMesReservations(HttpSession session) {
-        Long userId = (Long) session.getAttribute("userId");
+    public ResponseEntity<?> getMesReservations(
+            @RequestParam(value = "next", required = false) String curseur,
+            @RequestParam(value = "limit", required = false) Integer limite,
+            @UtilisateurConnecte Long userId) {
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
         }
 
-        List<Reservation> reservations = reservationService.getReservationsByUser(userId);
-        return ResponseEntity.ok(reservations);
+        try {
+            PageDTO<ReservationVueDTO> reservations = reservationService.getReservationsByUser(userId, curseur, limite);
+            return ResponseEntity.ok(reservations);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Toutes les réservations de l'utilisateur connecté en un seul tableau JSON, écrit au fil de la lecture
+     * en base. La réponse est engagée dès la première ligne : pas de corps d'erreur, seulement le statut.
+     */
+    @GetMapping("/reservations/export")
+    public ResponseEntity<StreamingResponseBody> exporterMesReservations(@UtilisateurConnecte Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(sortie -> reservationService.lireReservationsParUtilisateur(userId,
+                        lignes -> exportJson.ecrire(lignes, sortie)));
     }
 
     @DeleteMapping("/reservations/{id}")
-    public ResponseEntity<String> supprimerReservation(@PathVariable("id") Long reservationId, HttpSession session) {
-        Long userId = (Long) session.getAttribute("userId");
+    public ResponseEntity<String> supprimerReservation(@PathVariable("id") Long reservationId, @UtilisateurConnecte Long userId) {
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Vous devez être connecté");
         }
@@ -77,9 +154,34 @@ public class ReservationController {
     @GetMapping("/reservations/salle/{salleId}")
     public ResponseEntity<?> getReservationsParSalleEtDate(
             @PathVariable("salleId") Long salleId,
-            @RequestParam("date") String dateIso) {
+            @RequestParam("date") String dateIso,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // version lue avant les données : une modification concurrente changera l'ETag du prochain appel
+        String etag = versionsSalles.etagSalle(salleId);
+        if (ReponseConditionnelle.estAJour(ifNoneMatch, etag)) {
+            return ReponseConditionnelle.nonModifiee(etag);
+        }
+        LocalDate date = LocalDate.parse(dateIso);
+        List<ReservationVueDTO> reservations = reservationService.getReservationsBySalleAndDate(salleId, date);
+        return ReponseConditionnelle.ok(etag, reservations);
+    }
+
+    @GetMapping("/reservations/salle/{salleId}/creneaux")
+    public ResponseEntity<?> getCreneauxParSalleEtDate(
+            @PathVariable("salleId") Long salleId,
+            @RequestParam("date") String dateIso,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versionsSalles.etagSalle(salleId);
+        if (ReponseConditionnelle.estAJour(ifNoneMatch, etag)) {
+            return ReponseConditionnelle.nonModifiee(etag);
+        }
         LocalDate date = LocalDate.parse(dateIso);
-        List<Reservation> reservations = reservationService.getReservationsBySalleAndDate(salleId, date);
-        return ResponseEntity.ok(reservations);
+        try {
+            JourCreneaux jour = reservationService.getCreneauxBySalleAndDate(salleId, date);
+            return ReponseConditionnelle.ok(etag,
+                    new CreneauxJourDTO(date, JourCreneaux.DUREE_CRENEAU_MINUTES, jour.occupation()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 }
@@ -1,24 +1,100 @@
 package com.efrei.easybooking.Controller;
 
-import java.util.List;
-
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Service.AbonnementsSaturesException;
+import com.efrei.easybooking.Service.CatalogueSalles;
+import com.efrei.easybooking.Service.EvenementsSalles;
 import com.efrei.easybooking.Service.SalleService;
+import com.efrei.easybooking.Service.VersionsSalles;
 
 @RestController
 public class SalleController {
 
     private final SalleService salleService;
+    private final CatalogueSalles catalogueSalles;
+    private final VersionsSalles versionsSalles;
+    private final EvenementsSalles evenementsSalles;
 
-    public SalleController(SalleService salleService) {
+    public SalleController(SalleService salleService, CatalogueSalles catalogueSalles, VersionsSalles versionsSalles,
+                           EvenementsSalles evenementsSalles) {
         this.salleService = salleService;
+        this.catalogueSalles = catalogueSalles;
+        this.versionsSalles = versionsSalles;
+        this.evenementsSalles = evenementsSalles;
     }
 
     @GetMapping("/salles")
-    public List<Salle> getAllSalles() {
-        return salleService.findAll();
+    public ResponseEntity<?> getAllSalles(
+            @RequestParam(value = "next", required = false) String curseur,
+            @RequestParam(value = "limit", required = false) Integer limite,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // catalogue lu avant l'ETag (sans requête tant qu'il est en cache) : un cache expiré est relu en base
+        // et fait avancer la version, une salle modifiée sur une autre instance ne reste donc pas en 304
+        catalogueSalles.toutes();
+        String etag = versionsSalles.etagCatalogue();
+        if (ReponseConditionnelle.estAJour(ifNoneMatch, etag)) {
+            return ReponseConditionnelle.nonModifiee(etag);
+        }
+        try {
+            return ReponseConditionnelle.ok(etag, salleService.findPage(curseur, limite));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Flux Server-Sent Events des réservations créées et supprimées dans la salle. Un EventSource ne lit
+     * pas le corps d'une réponse en erreur : seuls le statut et l'en-tête Retry-After sont renvoyés.
+     */
+    @GetMapping(value = "/salles/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getEvenements(@PathVariable("id") Long salleId) {
+        try {
+            return ResponseEntity.ok()
+                    // un proxy nginx ne doit pas retenir les événements dans son tampon
+                    .header("X-Accel-Buffering", "no")
+                    .body(evenementsSalles.abonner(salleId));
+        } catch (AbonnementsSaturesException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSecondes()))
+                    .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/salles/disponibles")
+    public ResponseEntity<?> getSallesDisponibles(
+            @RequestParam("debut") String debutIso,
+            @RequestParam("fin") String finIso) {
+        try {
+            return ResponseEntity.ok(salleService.findDisponibles(LocalDateTime.parse(debutIso), LocalDateTime.parse(finIso)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/salles/disponibles/premier-creneau")
+    public ResponseEntity<?> getPremiersCreneauxLibres(
+            @RequestParam("debut") String debutIso,
+            @RequestParam("fin") String finIso,
+            @RequestParam("dureeMinutes") long dureeMinutes) {
+        try {
+            return ResponseEntity.ok(salleService.findPremiersCreneauxLibres(
+                    LocalDateTime.parse(debutIso), LocalDateTime.parse(finIso), Duration.ofMinutes(dureeMinutes)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
     }
 }
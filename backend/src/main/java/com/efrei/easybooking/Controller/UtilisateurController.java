@@ -2,18 +2,23 @@ package com.efrei.easybooking.Controller;
 
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Service.UtilisateurService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class UtilisateurController {
 
     private final UtilisateurService utilisateurService;
+    private final ExportJson exportJson;
 
-    public UtilisateurController(UtilisateurService utilisateurService) {
+    public UtilisateurController(UtilisateurService utilisateurService, ExportJson exportJson) {
         this.utilisateurService = utilisateurService;
+        this.exportJson = exportJson;
     }
 
     @GetMapping ("/user")
@@ -22,8 +27,24 @@ public class UtilisateurController {
     }
 
     @GetMapping("/allusers")
-    public List<Utilisateur> GetAllUsers() {
-        return utilisateurService.getAllUsers();
+    public ResponseEntity<?> GetAllUsers(
+            @RequestParam(value = "next", required = false) String curseur,
+            @RequestParam(value = "limit", required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(utilisateurService.getAllUsers(curseur, limite));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Tous les utilisateurs (identifiant et email) en un seul tableau JSON, écrit au fil de la lecture en base.
+     */
+    @GetMapping("/allusers/export")
+    public ResponseEntity<StreamingResponseBody> exporterUtilisateurs() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(sortie -> utilisateurService.lireUtilisateurs(lignes -> exportJson.ecrire(lignes, sortie)));
     }
 
 }
@@ -0,0 +1,12 @@
+package com.efrei.easybooking.DTO;
+
+import java.time.LocalDateTime;
+
+public record CreneauLibreDTO(
+        Long salleId,
+        String salleNom,
+        LocalDateTime dateDebut,
+        LocalDateTime dateFin
+)
+{
+}
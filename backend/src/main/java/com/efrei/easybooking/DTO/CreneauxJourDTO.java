@@ -0,0 +1,15 @@
+package com.efrei.easybooking.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * Occupation d'une salle sur une journée : un caractère par créneau, '1' si le créneau est
+ * touché par une réservation, '0' s'il est libre.
+ */
+public record CreneauxJourDTO(
+        LocalDate date,
+        int dureeCreneauMinutes,
+        String occupation
+)
+{
+}
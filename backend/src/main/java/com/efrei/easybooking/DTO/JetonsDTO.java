@@ -0,0 +1,9 @@
+package com.efrei.easybooking.DTO;
+
+public record JetonsDTO(
+        String jetonAcces,
+        String jetonRafraichissement,
+        long expireDansSecondes
+)
+{
+}
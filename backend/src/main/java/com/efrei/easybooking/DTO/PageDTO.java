@@ -0,0 +1,13 @@
+package com.efrei.easybooking.DTO;
+
+import java.util.List;
+
+/**
+ * Une page de résultats et le curseur opaque de la suivante ({@code null} sur la dernière page).
+ */
+public record PageDTO<T>(
+        List<T> elements,
+        String next
+)
+{
+}
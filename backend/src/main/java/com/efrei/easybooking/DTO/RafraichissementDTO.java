@@ -0,0 +1,7 @@
+package com.efrei.easybooking.DTO;
+
+public record RafraichissementDTO(
+        String jetonRafraichissement
+)
+{
+}
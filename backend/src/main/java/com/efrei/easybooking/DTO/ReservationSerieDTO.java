@@ -0,0 +1,16 @@
+package com.efrei.easybooking.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.efrei.easybooking.Entity.ReservationSerie;
+
+public record ReservationSerieDTO(
+        Long salleId,
+        LocalDateTime dateDebut,
+        LocalDateTime dateFin,
+        ReservationSerie.Frequence frequence,
+        LocalDate dateLimite
+)
+{
+}
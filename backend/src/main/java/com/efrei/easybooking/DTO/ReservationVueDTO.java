@@ -0,0 +1,13 @@
+package com.efrei.easybooking.DTO;
+
+import java.time.LocalDateTime;
+
+public record ReservationVueDTO(
+        Long id,
+        LocalDateTime dateDebut,
+        LocalDateTime dateFin,
+        Long salleId,
+        String salleNom
+)
+{
+}
@@ -0,0 +1,10 @@
+package com.efrei.easybooking.DTO;
+
+public record ResultatReservationDTO(
+        int index,
+        boolean succes,
+        Long reservationId,
+        String message
+)
+{
+}
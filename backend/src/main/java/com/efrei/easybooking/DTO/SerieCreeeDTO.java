@@ -0,0 +1,8 @@
+package com.efrei.easybooking.DTO;
+
+public record SerieCreeeDTO(
+        Long serieId,
+        int nombreOccurrences
+)
+{
+}
@@ -0,0 +1,8 @@
+package com.efrei.easybooking.DTO;
+
+public record UtilisateurVueDTO(
+        Long id,
+        String email
+)
+{
+}
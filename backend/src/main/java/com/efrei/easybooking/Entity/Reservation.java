@@ -2,33 +2,97 @@ package com.efrei.easybooking.Entity;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
+// plans de chargement par cas d'usage : les associations sont LAZY, chaque lecture dit ce qu'elle joint
+@NamedEntityGraphs({
+        // planning d'une salle et listes affichées : le nom de la salle est lu hors transaction
+        @NamedEntityGraph(name = Reservation.GRAPHE_VUE, attributeNodes = @NamedAttributeNode("salle")),
+        // détection de conflits : seules les dates servent, aucune association n'est chargée
+        @NamedEntityGraph(name = Reservation.GRAPHE_CONFLIT),
+        // suppression : la salle sert à l'index, aux ETags et à l'événement diffusé ; l'utilisateur n'est comparé
+        // que par son identifiant, lu sans requête sur le proxy
+        @NamedEntityGraph(name = Reservation.GRAPHE_SUPPRESSION, attributeNodes = @NamedAttributeNode("salle"))
+})
+@Table(indexes = {
+        // index composite utilisé par la détection de conflits. date_fin est placée avant date_debut :
+        // la condition "date_fin > debut" ne parcourt alors que les réservations qui se terminent après
+        // le créneau demandé (le futur), et non tout l'historique de la salle comme le ferait "date_debut < fin"
+        @Index(name = "idx_reservation_salle_dates", columnList = "salle_id, date_fin, date_debut"),
+        // pagination par clé des réservations d'un utilisateur : chaque page est une lecture d'intervalle
+        @Index(name = "idx_reservation_utilisateur_debut", columnList = "utilisateur_id, date_debut, id")
+})
 @Data
 public class Reservation {
+    public static final String GRAPHE_VUE = "Reservation.vue";
+    public static final String GRAPHE_CONFLIT = "Reservation.conflit";
+    public static final String GRAPHE_SUPPRESSION = "Reservation.suppression";
+    public static final String SEQUENCE = "reservation_seq";
+    public static final int TAILLE_BLOC_IDENTIFIANTS = 50;
+
+    // une séquence (et non IDENTITY) laisse Hibernate regrouper les INSERT en lots JDBC : les identifiants
+    // sont connus avant l'insertion, réservés par blocs de 50 (table d'émulation sur les bases sans séquence).
+    // Sur une base déjà remplie, SequenceReservations la place au-dessus du plus grand identifiant au démarrage.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE)
+    @SequenceGenerator(name = SEQUENCE, sequenceName = SEQUENCE, allocationSize = TAILLE_BLOC_IDENTIFIANTS)
     private Long id;
 
+    @Column(name = "date_debut")
     private LocalDateTime dateDebut;
+
+    @Column(name = "date_fin")
     private LocalDateTime dateFin;
 
-    @ManyToOne
+    // souvent un proxy non chargé (getReferenceById) : le JSON n'en expose que l'identifiant, via
+    // getUtilisateurId, ce qui évite aussi d'y faire apparaître l'email et le mot de passe haché
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "utilisateur_id", nullable = false)
-    @JsonIgnoreProperties("reservations") // on ignore la liste des réservations côté JSON
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Utilisateur utilisateur;
 
-    @ManyToOne
+    // LAZY comme les autres associations : un proxy non initialisé ne doit pas être comparé ni affiché
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "salle_id", nullable = false)
-    @JsonIgnoreProperties("reservations")
+    @JsonIgnoreProperties({"reservations", "hibernateLazyInitializer"})
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Salle salle;
+
+    // null pour une réservation ponctuelle
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "serie_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ReservationSerie serie;
+
+    /**
+     * Lire l'identifiant d'un proxy Hibernate ne déclenche pas de requête.
+     */
+    public Long getUtilisateurId() {
+        return utilisateur == null ? null : utilisateur.getId();
+    }
 }
@@ -0,0 +1,77 @@
+package com.efrei.easybooking.Entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Réservation récurrente : le premier créneau [dateDebut, dateFin[ est répété selon la fréquence
+ * jusqu'à la date limite incluse. Chaque occurrence est une {@link Reservation} rattachée à la série.
+ */
+@Entity
+@Data
+public class ReservationSerie {
+
+    public enum Frequence {
+        QUOTIDIENNE(ChronoUnit.DAYS),
+        HEBDOMADAIRE(ChronoUnit.WEEKS),
+        MENSUELLE(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unite;
+
+        Frequence(ChronoUnit unite) {
+            this.unite = unite;
+        }
+
+        /**
+         * Début de la n-ième occurrence, calculé depuis le premier créneau (et non de proche en proche)
+         * pour qu'une série mensuelle commencée un 31 retombe sur le 31 quand le mois le permet.
+         */
+        public LocalDateTime occurrence(LocalDateTime premierDebut, int rang) {
+            return premierDebut.plus(rang, unite);
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "date_debut")
+    private LocalDateTime dateDebut;
+
+    @Column(name = "date_fin")
+    private LocalDateTime dateFin;
+
+    @Enumerated(EnumType.STRING)
+    private Frequence frequence;
+
+    @Column(name = "date_limite")
+    private LocalDate dateLimite;
+
+    // la suppression d'une série ne lit que les identifiants, disponibles sur les proxys sans requête
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Utilisateur utilisateur;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "salle_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Salle salle;
+}
@@ -2,9 +2,15 @@ package com.efrei.easybooking.Entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.efrei.easybooking.Config.JpaConfig;
+import com.efrei.easybooking.Service.SuiviCatalogueSalles;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -12,6 +18,9 @@ import jakarta.persistence.OneToMany;
 import lombok.Data;
 
 @Entity
+@EntityListeners(SuiviCatalogueSalles.class)
+// cache de second niveau : la salle d'une réservation chargée se résout sans requête
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaConfig.REGION_SALLES)
 @Data
 public class Salle {
     @Id
@@ -2,6 +2,10 @@ package com.efrei.easybooking.Entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.efrei.easybooking.Config.JpaConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Entity;
@@ -9,9 +13,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 @Entity
+@Table(uniqueConstraints = {
+        // garantit l'unicité même quand deux inscriptions arrivent en même temps, et sert d'index à findByEmail.
+        // Les emails sont enregistrés en minuscules (AuthService.normaliserEmail) : l'unicité ne dépend pas de la casse
+        @UniqueConstraint(name = "uk_utilisateur_email", columnNames = "email")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaConfig.REGION_UTILISATEURS)
 @Data
 public class Utilisateur {
     @Id
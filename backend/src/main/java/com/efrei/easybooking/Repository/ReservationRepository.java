@@ -1,16 +1,151 @@
 package com.efrei.easybooking.Repository;
 
+import com.efrei.easybooking.Config.JpaConfig;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
 import com.efrei.easybooking.Entity.Reservation;
-import com.efrei.easybooking.Entity.Utilisateur;
-import com.efrei.easybooking.Entity.Salle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
-    List<Reservation> findByUtilisateur(Utilisateur utilisateur);
 
-    List<Reservation> findBySalle(Salle salle);
+    /**
+     * Première page des réservations d'un utilisateur en lecture seule : seules les cinq colonnes
+     * affichées sont sélectionnées, sans entité gérée ni jointure vers la table utilisateur.
+     * Triées par (date_debut, id), l'ordre de l'index idx_reservation_utilisateur_debut.
+     */
+    @Query("select new com.efrei.easybooking.DTO.ReservationVueDTO(r.id, r.dateDebut, r.dateFin, s.id, s.nom)"
+            + " from Reservation r join r.salle s where r.utilisateur.id = :utilisateurId order by r.dateDebut, r.id")
+    List<ReservationVueDTO> findVuesByUtilisateurId(@Param("utilisateurId") Long utilisateurId, Limit limite);
+
+    /**
+     * Page suivante de {@link #findVuesByUtilisateurId} : reprend strictement après la clé
+     * (dateDebut, id) de la dernière réservation lue, sans OFFSET.
+     */
+    @Query("select new com.efrei.easybooking.DTO.ReservationVueDTO(r.id, r.dateDebut, r.dateFin, s.id, s.nom)"
+            + " from Reservation r join r.salle s where r.utilisateur.id = :utilisateurId"
+            + " and (r.dateDebut > :dateDebut or (r.dateDebut = :dateDebut and r.id > :id))"
+            + " order by r.dateDebut, r.id")
+    List<ReservationVueDTO> findVuesByUtilisateurIdApres(@Param("utilisateurId") Long utilisateurId,
+                                                        @Param("dateDebut") LocalDateTime dateDebut,
+                                                        @Param("id") Long id,
+                                                        Limit limite);
+
+    /**
+     * Toutes les réservations d'un utilisateur dans l'ordre de {@link #findVuesByUtilisateurId}, lues par lots
+     * sur un curseur JDBC pour l'export (à consommer dans une transaction, puis fermer).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaConfig.TAILLE_LOT_LECTURE))
+    @Query("select new com.efrei.easybooking.DTO.ReservationVueDTO(r.id, r.dateDebut, r.dateFin, s.id, s.nom)"
+            + " from Reservation r join r.salle s where r.utilisateur.id = :utilisateurId order by r.dateDebut, r.id")
+    Stream<ReservationVueDTO> streamVuesByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+
+    /**
+     * Tout le planning d'une salle, avec la salle jointe dans la même requête (chargement de {@code DisponibiliteIndex}).
+     */
+    @EntityGraph(Reservation.GRAPHE_VUE)
+    List<Reservation> findBySalleId(Long salleId);
+
+    /**
+     * Toutes les réservations avec leur salle jointe (chargement de {@code DisponibiliteIndex} au démarrage) :
+     * l'index les garde hors transaction, une salle restée proxy n'y serait plus lisible.
+     */
+    @EntityGraph(Reservation.GRAPHE_VUE)
+    @Query("select r from Reservation r")
+    List<Reservation> findAllAvecSalle();
+
+    /**
+     * Réservation à supprimer, avec sa salle, en une requête.
+     */
+    @EntityGraph(Reservation.GRAPHE_SUPPRESSION)
+    Optional<Reservation> findPourSuppressionById(Long id);
+
+    /**
+     * Indique si une réservation de la salle chevauche le créneau demandé,
+     * c'est-à-dire s'il existe r tel que r.dateDebut < fin et r.dateFin > debut.
+     * <p>
+     * Les réservations d'une salle ne se chevauchent jamais (chaque création vérifie sous le verrou de la
+     * salle) : triées par date de fin, elles le sont aussi par date de début. Seule la première qui se termine
+     * après {@code debut} peut donc commencer avant {@code fin}, et c'est la seule entrée lue sur l'index
+     * (salle_id, date_fin, date_debut) déclaré sur {@link Reservation}. Un "exists" sur les deux conditions
+     * parcourait toutes les réservations à venir quand le créneau est libre, soit tout le futur de la salle
+     * pour un trou au milieu de son planning.
+     */
+    default boolean chevauche(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        List<LocalDateTime> premierDebut = findDebutsParFinApres(salleId, debut, Limit.of(1));
+        return !premierDebut.isEmpty() && premierDebut.get(0).isBefore(fin);
+    }
+
+    /**
+     * Dates de début des réservations de la salle qui se terminent après {@code debut}, par date de fin.
+     * Le tri reprend salle_id, première colonne de l'index : sans elle, H2 trie toute la plage lue au lieu
+     * de s'arrêter aux premières entrées de l'index.
+     */
+    @Query("select r.dateDebut from Reservation r where r.salle.id = :salleId and r.dateFin > :debut"
+            + " order by r.salle.id, r.dateFin")
+    List<LocalDateTime> findDebutsParFinApres(@Param("salleId") Long salleId, @Param("debut") LocalDateTime debut,
+                                              Limit limite);
+
+    /**
+     * Réservations de la salle qui chevauchent [debut, fin[, triées par date de début, avec le même
+     * prédicat et le même index que {@link #chevauche} :
+     * le coût dépend du nombre de réservations de la période, pas de l'historique de la salle.
+     * Seules les dates sont lues : ni la salle (déjà verrouillée) ni les utilisateurs.
+     */
+    @EntityGraph(Reservation.GRAPHE_CONFLIT)
+    List<Reservation> findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(Long salleId, LocalDateTime fin, LocalDateTime debut);
+
+    /**
+     * Parmi {@code salleIds}, celles qui ont une réservation chevauchant [debut, fin[ : une seule requête pour
+     * toutes les salles, chacune cherchée sur l'index (salle_id, date_fin, date_debut).
+     */
+    @Query("select distinct r.salle.id from Reservation r"
+            + " where r.salle.id in :salleIds and r.dateDebut < :fin and r.dateFin > :debut")
+    List<Long> findSalleIdsOccupees(@Param("salleIds") Collection<Long> salleIds,
+                                    @Param("debut") LocalDateTime debut,
+                                    @Param("fin") LocalDateTime fin);
+
+    /**
+     * Réservations de {@code salleIds} qui chevauchent [debut, fin[, triées par salle puis par date de début,
+     * en une seule requête. Seules les dates et l'identifiant de la salle sont lus.
+     */
+    @EntityGraph(Reservation.GRAPHE_CONFLIT)
+    @Query("select r from Reservation r"
+            + " where r.salle.id in :salleIds and r.dateDebut < :fin and r.dateFin > :debut"
+            + " order by r.salle.id, r.dateDebut")
+    List<Reservation> findBySalleIdInSurPeriode(@Param("salleIds") Collection<Long> salleIds,
+                                                @Param("debut") LocalDateTime debut,
+                                                @Param("fin") LocalDateTime fin);
+
+    /**
+     * Même prédicat que {@link #findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc},
+     * projeté en lecture seule sur les colonnes affichées.
+     */
+    @Query("select new com.efrei.easybooking.DTO.ReservationVueDTO(r.id, r.dateDebut, r.dateFin, s.id, s.nom)"
+            + " from Reservation r join r.salle s where s.id = :salleId and r.dateDebut < :fin and r.dateFin > :debut"
+            + " order by r.dateDebut")
+    List<ReservationVueDTO> findVuesBySalleIdSurPeriode(@Param("salleId") Long salleId,
+                                                       @Param("debut") LocalDateTime debut,
+                                                       @Param("fin") LocalDateTime fin);
+
+    /**
+     * Supprime toutes les occurrences d'une série en une seule requête, sans les charger.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Reservation r where r.serie.id = :serieId")
+    int deleteBySerieId(@Param("serieId") Long serieId);
 }
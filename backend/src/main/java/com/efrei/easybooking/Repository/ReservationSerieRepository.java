@@ -0,0 +1,20 @@
+package com.efrei.easybooking.Repository;
+
+import com.efrei.easybooking.Entity.ReservationSerie;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationSerieRepository extends JpaRepository<ReservationSerie, Long> {
+
+    /**
+     * Supprime la série sans la relire : après {@link ReservationRepository#deleteBySerieId}, qui vide le
+     * contexte de persistance, un delete(serie) la chargerait de nouveau.
+     */
+    @Modifying
+    @Query("delete from ReservationSerie s where s.id = :serieId")
+    int deleteSerieById(@Param("serieId") Long serieId);
+}
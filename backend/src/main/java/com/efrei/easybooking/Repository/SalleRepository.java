@@ -1,9 +1,30 @@
 package com.efrei.easybooking.Repository;
 
 import com.efrei.easybooking.Entity.Salle;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SalleRepository extends JpaRepository<Salle, Long> {
+
+    /**
+     * Lit la salle en posant un verrou exclusif sur sa ligne (SELECT ... FOR UPDATE) jusqu'à la fin
+     * de la transaction : les réservations d'une même salle sont sérialisées, celles de salles
+     * différentes ne se bloquent jamais.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Salle> findForUpdateById(Long id);
+
+    /**
+     * Verrouille plusieurs salles en une seule requête. Les lignes sont prises dans l'ordre des
+     * identifiants, le même pour toutes les transactions, ce qui évite les interblocages entre lots.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Salle> findForUpdateByIdInOrderByIdAsc(Collection<Long> ids);
 }
@@ -1,13 +1,47 @@
 package com.efrei.easybooking.Repository;
 
+import com.efrei.easybooking.Config.JpaConfig;
+import com.efrei.easybooking.DTO.UtilisateurVueDTO;
 import com.efrei.easybooking.Entity.Utilisateur;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>{
 
+    /**
+     * Résultat gardé dans le cache de requêtes d'Hibernate : seul l'identifiant y est stocké, l'utilisateur
+     * vient ensuite de sa région. Toute écriture sur la table utilisateur invalide ces résultats.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = JpaConfig.REGION_UTILISATEURS_PAR_EMAIL)
+    })
     Optional<Utilisateur> findByEmail(String email);
+
+    /**
+     * Page d'utilisateurs par clé : ceux d'identifiant supérieur à {@code id}, parcourus sur la clé primaire,
+     * sans mot de passe.
+     */
+    @Query("select new com.efrei.easybooking.DTO.UtilisateurVueDTO(u.id, u.email) from Utilisateur u "
+            + "where u.id > :id order by u.id")
+    List<UtilisateurVueDTO> findVuesByIdGreaterThan(@Param("id") Long id, Limit limite);
+
+    /**
+     * Tous les utilisateurs par ordre d'identifiant, sans mot de passe, lus par lots sur un curseur JDBC
+     * pour l'export (à consommer dans une transaction, puis fermer).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = JpaConfig.TAILLE_LOT_LECTURE))
+    @Query("select new com.efrei.easybooking.DTO.UtilisateurVueDTO(u.id, u.email) from Utilisateur u order by u.id")
+    Stream<UtilisateurVueDTO> streamVues();
 }
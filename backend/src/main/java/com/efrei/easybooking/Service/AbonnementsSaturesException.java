@@ -0,0 +1,19 @@
+package com.efrei.easybooking.Service;
+
+/**
+ * Levée quand l'instance a atteint son nombre maximal d'abonnés aux événements des salles. Le contrôleur
+ * la traduit en 503 avec un en-tête Retry-After.
+ */
+public class AbonnementsSaturesException extends RuntimeException {
+
+    private final long retryAfterSecondes;
+
+    public AbonnementsSaturesException(long retryAfterSecondes) {
+        super("Trop d'abonnements aux disponibilités, veuillez réessayer plus tard");
+        this.retryAfterSecondes = retryAfterSecondes;
+    }
+
+    public long getRetryAfterSecondes() {
+        return retryAfterSecondes;
+    }
+}
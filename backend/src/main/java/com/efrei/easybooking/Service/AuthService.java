@@ -2,32 +2,111 @@ package com.efrei.easybooking.Service;
 
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.UtilisateurRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.Optional;
+
 @Service
 public class AuthService {
 
     private final UtilisateurRepository utilisateurRepository;
+    private final HachageMotDePasse hachageMotDePasse;
+    private final EmailsInscrits emailsInscrits;
+    private final MeterRegistry meterRegistry;
 
-    public AuthService(UtilisateurRepository utilisateurRepository) {
+    public AuthService(UtilisateurRepository utilisateurRepository, HachageMotDePasse hachageMotDePasse,
+                       EmailsInscrits emailsInscrits, MeterRegistry meterRegistry) {
         this.utilisateurRepository = utilisateurRepository;
+        this.hachageMotDePasse = hachageMotDePasse;
+        this.emailsInscrits = emailsInscrits;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Forme sous laquelle les emails sont enregistrés et recherchés : sans espaces autour, en minuscules.
+     */
+    public static String normaliserEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 
     public Utilisateur login(String email, String password) {
-        return utilisateurRepository.findByEmail(email)
-                .filter(user -> user.getPassword().equals(password))
-                .orElseThrow(() -> new RuntimeException("Identifiants incorrects"));
+        Timer.Sample chrono = Timer.start(meterRegistry);
+        String resultat = "echec";
+        try {
+            String emailNormalise = normaliserEmail(email);
+            // Email sans compte (faute de frappe, attaque par dictionnaire) : refusé sans requête en base.
+            // Le hachage BCrypt est payé quand même, sinon la réponse plus rapide dirait quels comptes existent ;
+            // l'écart restant se limite à une requête sur l'index de l'email, négligeable devant BCrypt.
+            if (!emailsInscrits.peutExister(emailNormalise)) {
+                hachageMotDePasse.verifierSansCompte(password);
+                throw new RuntimeException("Identifiants incorrects");
+            }
+            Optional<Utilisateur> trouve = utilisateurRepository.findByEmail(emailNormalise);
+            boolean valide = trouve.isPresent()
+                    ? hachageMotDePasse.verifier(password, trouve.get().getPassword())
+                    : hachageMotDePasse.verifierSansCompte(password);
+            if (!valide) {
+                throw new RuntimeException("Identifiants incorrects");
+            }
+            Utilisateur utilisateur = trouve.get();
+
+            // Mot de passe encore en clair ou haché avec un ancien coût : on en profite pour le rehacher
+            if (hachageMotDePasse.doitEtreRehache(utilisateur.getPassword())) {
+                try {
+                    utilisateur.setPassword(hachageMotDePasse.hacher(password));
+                    utilisateurRepository.save(utilisateur);
+                } catch (HachageSatureException e) {
+                    // le mot de passe est vérifié, le rehachage sera retenté à la prochaine connexion
+                }
+            }
+            resultat = "succes";
+            return utilisateur;
+        } catch (HachageSatureException e) {
+            resultat = "sature";
+            throw e;
+        } finally {
+            chrono.stop(chronometre("easybooking.auth.login", resultat));
+            Counter.builder("easybooking.auth.connexions")
+                    .description("Tentatives de connexion")
+                    .tag("resultat", resultat)
+                    .register(meterRegistry)
+                    .increment();
+        }
     }
 
     public Utilisateur register(String email, String password) {
-        if (utilisateurRepository.findByEmail(email).isPresent()) {
-            throw new RuntimeException("Utilisateur déjà existant");
-        }
+        Timer.Sample chrono = Timer.start(meterRegistry);
+        String resultat = "echec";
+        try {
+            Utilisateur user = new Utilisateur();
+            user.setEmail(normaliserEmail(email));
+            user.setPassword(hachageMotDePasse.hacher(password));
 
-        Utilisateur user = new Utilisateur();
-        user.setEmail(email);
-        user.setPassword(password);
+            // un seul aller-retour : pas de findByEmail préalable, c'est la contrainte uk_utilisateur_email
+            // qui refuse le doublon (seule contrainte que cet INSERT peut violer)
+            Utilisateur enregistre;
+            try {
+                enregistre = utilisateurRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("Utilisateur déjà existant");
+            }
+            emailsInscrits.ajouter(user.getEmail());
+            resultat = "succes";
+            return enregistre;
+        } catch (HachageSatureException e) {
+            resultat = "sature";
+            throw e;
+        } finally {
+            chrono.stop(chronometre("easybooking.auth.register", resultat));
+        }
+    }
 
-        return utilisateurRepository.save(user);
+    private Timer chronometre(String nom, String resultat) {
+        return Timer.builder(nom).tag("resultat", resultat).publishPercentileHistogram().register(meterRegistry);
     }
 }
\ No newline at end of file
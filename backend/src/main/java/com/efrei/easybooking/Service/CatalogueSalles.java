@@ -0,0 +1,67 @@
+package com.efrei.easybooking.Service;
+
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.efrei.easybooking.Config.CacheConfig;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.SalleRepository;
+
+/**
+ * Salles lues à travers les caches Caffeine de {@link CacheConfig} : elles changent quelques fois par an,
+ * alors que chaque page du catalogue, chaque recherche de disponibilité et chaque lecture de planning
+ * les relisait en base. Les caches sont vidés par {@link SuiviCatalogueSalles} à la fin de toute
+ * transaction qui crée, modifie ou supprime une salle. Les salles en cache sont partagées : ne pas les modifier.
+ * Chaque relecture du catalogue en base fait avancer sa version ({@link VersionsSalles#catalogueRelu}).
+ */
+@Component
+public class CatalogueSalles {
+
+    static final String CLE_CATALOGUE = "toutes";
+
+    private final SalleRepository salleRepository;
+    private final VersionsSalles versionsSalles;
+
+    public CatalogueSalles(SalleRepository salleRepository, VersionsSalles versionsSalles) {
+        this.salleRepository = salleRepository;
+        this.versionsSalles = versionsSalles;
+    }
+
+    /**
+     * Toutes les salles, triées par identifiant.
+     */
+    @Cacheable(cacheNames = CacheConfig.CATALOGUE_SALLES, key = "'" + CLE_CATALOGUE + "'", sync = true)
+    public List<Salle> toutes() {
+        List<Salle> salles = List.copyOf(salleRepository.findAll(Sort.by("id")));
+        versionsSalles.catalogueRelu();
+        return salles;
+    }
+
+    /**
+     * La salle, ou {@code null} si elle n'existe pas (l'absence est gardée en cache elle aussi).
+     */
+    @Cacheable(cacheNames = CacheConfig.SALLES, sync = true)
+    public Salle trouver(Long id) {
+        return salleRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Retire la salle et le catalogue des caches. Une lecture en cours sur la même clé termine d'abord :
+     * elle ne peut pas remettre en cache une valeur lue avant l'invalidation.
+     */
+    static void invalider(CacheManager cacheManager, Long salleId) {
+        Cache salles = cacheManager.getCache(CacheConfig.SALLES);
+        if (salles != null && salleId != null) {
+            salles.evict(salleId);
+        }
+        Cache catalogue = cacheManager.getCache(CacheConfig.CATALOGUE_SALLES);
+        if (catalogue != null) {
+            catalogue.evict(CLE_CATALOGUE);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.efrei.easybooking.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Repository.ReservationRepository;
+
+/**
+ * Index en mémoire des réservations, avec un planning trié par salle.
+ * Permet de répondre aux questions de chevauchement et aux vues par jour en O(log n + k)
+ * sans aller-retour en base. Il est chargé au démarrage, puis salle par salle à la demande,
+ * et tenu à jour par {@link ReservationService} à chaque création ou suppression.
+ * <p>
+ * L'index est propre à l'instance : il ne voit pas les écritures des autres instances. Un planning est
+ * donc relu depuis la base quand il a plus de {@code easybooking.disponibilite.expiration}, ce qui borne
+ * le retard des lectures (vue par jour, créneaux, recherche de salles libres). Les créations, elles, ne
+ * se fient pas à l'index : la base décide sous le verrou de la salle.
+ * <p>
+ * Optionnellement (easybooking.disponibilite.creneaux-actifs, activé par défaut), chaque planning garde
+ * aussi une grille de créneaux de 15 minutes par jour ({@link JourCreneaux}) qui répond à la plupart
+ * des vérifications par opérations bit à bit, et retombe sur la vérification exacte sinon.
+ */
+@Component
+public class DisponibiliteIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate lecture;
+    private final boolean creneauxActifs;
+    private final long expirationNanos;
+    private final LongSupplier horloge;
+    private final ConcurrentHashMap<Long, Planning> plannings = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DisponibiliteIndex(ReservationRepository reservationRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${easybooking.disponibilite.creneaux-actifs:true}") boolean creneauxActifs,
+                              @Value("${easybooking.disponibilite.expiration:30s}") Duration expiration) {
+        this(reservationRepository, transactionManager, creneauxActifs, expiration, System::nanoTime);
+    }
+
+    public DisponibiliteIndex(ReservationRepository reservationRepository,
+                              PlatformTransactionManager transactionManager,
+                              boolean creneauxActifs, Duration expiration, LongSupplier horloge) {
+        this.reservationRepository = reservationRepository;
+        this.creneauxActifs = creneauxActifs;
+        this.expirationNanos = expiration.toNanos();
+        this.horloge = horloge;
+        // les plannings sont lus dans leur propre transaction : l'index ne contient que des données
+        // validées, et les entités chargées n'encombrent pas le contexte de persistance de l'appelant
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lecture.setReadOnly(true);
+    }
+
+    /**
+     * Charge toutes les réservations existantes au démarrage de l'application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void chargerAuDemarrage() {
+        ConcurrentHashMap<Long, Planning> charges = new ConcurrentHashMap<>();
+        long chargeA = horloge.getAsLong();
+        for (Reservation r : lecture.execute(status -> reservationRepository.findAllAvecSalle())) {
+            charges.computeIfAbsent(r.getSalle().getId(), id -> new Planning(chargeA)).ajouter(r);
+        }
+        charges.forEach(plannings::putIfAbsent);
+    }
+
+    public boolean contientSalle(Long salleId) {
+        Planning planning = plannings.get(salleId);
+        return planning != null && !expire(planning);
+    }
+
+    /**
+     * Indique si une réservation de la salle chevauche le créneau [debut, fin[.
+     */
+    public boolean chevauche(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        return planning(salleId).chevauche(debut, fin, creneauxActifs);
+    }
+
+    /**
+     * Comme {@link #chevauche}, mais seulement d'après un planning déjà en mémoire et pas expiré : vide sinon.
+     * Ne lit jamais la base, et peut donc être appelé en tenant un verrou sans demander une seconde connexion.
+     */
+    public Optional<Boolean> chevaucheSiCharge(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        Planning planning = plannings.get(salleId);
+        if (planning == null || expire(planning)) {
+            return Optional.empty();
+        }
+        return Optional.of(planning.chevauche(debut, fin, creneauxActifs));
+    }
+
+    /**
+     * Occupation de la salle sur la journée, créneau de 15 minutes par créneau de 15 minutes. C'est une
+     * copie : la grille du planning continue d'être modifiée par les réservations suivantes.
+     */
+    public JourCreneaux occupation(Long salleId, LocalDate date) {
+        return planning(salleId).occupation(date, creneauxActifs);
+    }
+
+    /**
+     * Retourne, triées par date de début, les réservations de la salle susceptibles de toucher
+     * l'intervalle [debut, fin] : toutes celles qui le touchent y sont, l'appelant affine le filtre.
+     */
+    public List<Reservation> candidats(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        return planning(salleId).candidats(debut, fin);
+    }
+
+    /**
+     * Comme {@link #candidats}, mais seulement d'après un planning déjà en mémoire et pas expiré : vide sinon.
+     * Ne lit jamais la base.
+     */
+    public Optional<List<Reservation>> candidatsSiCharge(Long salleId, LocalDateTime debut, LocalDateTime fin) {
+        Planning planning = plannings.get(salleId);
+        if (planning == null || expire(planning)) {
+            return Optional.empty();
+        }
+        return Optional.of(planning.candidats(debut, fin));
+    }
+
+    /**
+     * Nombre de réservations d'après le planning déjà en mémoire, même expiré, ou -1 si la salle n'est pas
+     * chargée : ne lit jamais la base (collecte des métriques).
+     */
+    public int nombreReservationsCharges(Long salleId) {
+        Planning planning = plannings.get(salleId);
+        return planning == null ? -1 : planning.taille();
+    }
+
+    int joursEnCache(Long salleId) {
+        return planning(salleId).joursEnCache();
+    }
+
+    /**
+     * Début du premier créneau libre d'au moins {@code duree} contenu dans [debut, fin], parmi des réservations
+     * triées par date de début qui comprennent toutes celles touchant [debut, fin] (d'autres sont ignorées).
+     * Balaye les réservations en avançant un curseur : le parcours s'arrête au premier trou assez long.
+     */
+    public static Optional<LocalDateTime> premierCreneauLibre(Iterable<Reservation> triees, LocalDateTime debut,
+                                                              LocalDateTime fin, Duration duree) {
+        LocalDateTime curseur = debut;
+        for (Reservation r : triees) {
+            if (!r.getDateFin().isAfter(curseur)) {
+                continue;
+            }
+            if (!curseur.plus(duree).isAfter(r.getDateDebut())) {
+                return Optional.of(curseur);
+            }
+            curseur = r.getDateFin();
+            if (curseur.plus(duree).isAfter(fin)) {
+                return Optional.empty();
+            }
+        }
+        return curseur.plus(duree).isAfter(fin) ? Optional.empty() : Optional.of(curseur);
+    }
+
+    public void ajouter(Reservation reservation) {
+        Long salleId = reservation.getSalle().getId();
+        // computeIfPresent attend la fin d'un éventuel chargement en cours de la même salle
+        Planning modifie = plannings.computeIfPresent(salleId, (id, planning) -> {
+            planning.ajouter(reservation);
+            return planning;
+        });
+        synchroniserAvecTransaction(salleId, modifie);
+    }
+
+    public void retirer(Reservation reservation) {
+        Long salleId = reservation.getSalle().getId();
+        Planning modifie = plannings.computeIfPresent(salleId, (id, planning) -> {
+            planning.retirer(reservation);
+            return planning;
+        });
+        synchroniserAvecTransaction(salleId, modifie);
+    }
+
+    /**
+     * Oublie le planning d'une salle : il sera rechargé depuis la base au prochain accès.
+     */
+    public void invalider(Long salleId) {
+        plannings.remove(salleId);
+    }
+
+    /**
+     * Pour une modification faite directement en base (suppression en masse...) : le planning est
+     * oublié tout de suite, puis de nouveau en fin de transaction au cas où un autre thread l'aurait
+     * rechargé entre-temps sans voir la modification, pas encore validée.
+     */
+    public void invaliderApresModification(Long salleId) {
+        invalider(salleId);
+        synchroniserAvecTransaction(salleId, null);
+    }
+
+    private Planning planning(Long salleId) {
+        Planning existant = plannings.get(salleId);
+        if (existant != null && expire(existant)) {
+            // peut avoir manqué des écritures d'autres instances : relu en base
+            plannings.remove(salleId, existant);
+        }
+        return plannings.computeIfAbsent(salleId, id -> {
+            Planning planning = new Planning(horloge.getAsLong());
+            lecture.execute(status -> reservationRepository.findBySalleId(id)).forEach(planning::ajouter);
+            return planning;
+        });
+    }
+
+    private boolean expire(Planning planning) {
+        return horloge.getAsLong() - planning.chargeA > expirationNanos;
+    }
+
+    /**
+     * L'index est modifié avant la validation de la transaction pour que les appels suivants,
+     * dans la même transaction, voient la modification. Si la transaction est annulée, si la salle
+     * n'était pas encore chargée, ou si son planning a été relu entre-temps (sans voir la modification,
+     * pas encore validée), on invalide son planning une fois la transaction terminée.
+     */
+    private void synchroniserAvecTransaction(Long salleId, Planning planningAJour) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED || planningAJour == null || plannings.get(salleId) != planningAJour) {
+                    invalider(salleId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Réservations d'une salle triées par date de début. La durée de la plus longue réservation
+     * borne la recherche : une réservation qui touche [debut, fin] commence forcément entre
+     * debut - dureeMax et fin, ce qui évite un arbre d'intervalles complet.
+     * Les grilles de créneaux sont calculées jour par jour à la demande, puis tenues à jour. Au plus
+     * {@link #JOURS_EN_CACHE_MAX} jours sont gardés par salle, les moins récemment consultés sont oubliés :
+     * les dates demandées viennent des clients, elles ne doivent pas faire grossir le planning sans fin.
+     */
+    private static final class Planning {
+        // au-delà, une vérification par grille coûterait plus cher que le parcours exact
+        private static final int JOURS_MAX_PAR_GRILLE = 31;
+        // deux recherches de 31 jours, soit environ 13 Ko par salle au plus
+        private static final int JOURS_EN_CACHE_MAX = 64;
+
+        private final long chargeA;
+        private final TreeMap<Cle, Reservation> parDebut = new TreeMap<>();
+        private final LinkedHashMap<LocalDate, JourCreneaux> jours = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, JourCreneaux> plusAncien) {
+                return size() > JOURS_EN_CACHE_MAX;
+            }
+        };
+        private Duration dureeMax = Duration.ZERO;
+
+        Planning(long chargeA) {
+            this.chargeA = chargeA;
+        }
+
+        synchronized void ajouter(Reservation r) {
+            if (r.getId() == null || r.getDateDebut() == null || r.getDateFin() == null) {
+                return;
+            }
+            parDebut.put(new Cle(r.getDateDebut(), r.getId()), r);
+            Duration duree = Duration.between(r.getDateDebut(), r.getDateFin());
+            if (duree.compareTo(dureeMax) > 0) {
+                dureeMax = duree;
+            }
+            for (LocalDate date : joursTouches(r)) {
+                jours.get(date).marquer(r.getDateDebut(), r.getDateFin());
+            }
+        }
+
+        synchronized void retirer(Reservation r) {
+            if (r.getId() != null && r.getDateDebut() != null) {
+                parDebut.remove(new Cle(r.getDateDebut(), r.getId()));
+                // un créneau peut être partagé par plusieurs réservations : on recalculera ces jours
+                jours.keySet().removeAll(joursTouches(r));
+            }
+        }
+
+        synchronized boolean chevauche(LocalDateTime debut, LocalDateTime fin, boolean avecCreneaux) {
+            if (avecCreneaux) {
+                JourCreneaux.Verdict verdict = verdictCreneaux(debut, fin);
+                if (verdict != JourCreneaux.Verdict.INCERTAIN) {
+                    return verdict == JourCreneaux.Verdict.OCCUPE;
+                }
+            }
+            return candidats(debut, fin).stream()
+                    .anyMatch(r -> r.getDateDebut().isBefore(fin) && r.getDateFin().isAfter(debut));
+        }
+
+        synchronized JourCreneaux occupation(LocalDate date, boolean avecCreneaux) {
+            return avecCreneaux ? jour(date).copie() : calculerJour(date);
+        }
+
+        private JourCreneaux.Verdict verdictCreneaux(LocalDateTime debut, LocalDateTime fin) {
+            LocalDate premier = debut.toLocalDate();
+            LocalDate dernier = fin.minusNanos(1).toLocalDate();
+            if (ChronoUnit.DAYS.between(premier, dernier) > JOURS_MAX_PAR_GRILLE) {
+                return JourCreneaux.Verdict.INCERTAIN;
+            }
+            boolean incertain = false;
+            for (LocalDate date = premier; !date.isAfter(dernier); date = date.plusDays(1)) {
+                JourCreneaux.Verdict verdict = jour(date).verifier(debut, fin);
+                if (verdict == JourCreneaux.Verdict.OCCUPE) {
+                    return verdict;
+                }
+                incertain |= verdict == JourCreneaux.Verdict.INCERTAIN;
+            }
+            return incertain ? JourCreneaux.Verdict.INCERTAIN : JourCreneaux.Verdict.LIBRE;
+        }
+
+        private JourCreneaux jour(LocalDate date) {
+            return jours.computeIfAbsent(date, this::calculerJour);
+        }
+
+        private JourCreneaux calculerJour(LocalDate date) {
+            JourCreneaux jour = new JourCreneaux(date);
+            LocalDateTime debutJour = date.atStartOfDay();
+            for (Reservation r : candidats(debutJour, debutJour.plusDays(1))) {
+                jour.marquer(r.getDateDebut(), r.getDateFin());
+            }
+            return jour;
+        }
+
+        // jours en cache touchés par la réservation
+        private List<LocalDate> joursTouches(Reservation r) {
+            LocalDate premier = r.getDateDebut().toLocalDate();
+            LocalDate dernier = r.getDateFin().toLocalDate();
+            List<LocalDate> touches = new ArrayList<>();
+            if (ChronoUnit.DAYS.between(premier, dernier) < jours.size()) {
+                for (LocalDate date = premier; !date.isAfter(dernier); date = date.plusDays(1)) {
+                    if (jours.containsKey(date)) {
+                        touches.add(date);
+                    }
+                }
+            } else {
+                // réservation plus longue que le cache : on parcourt le cache plutôt que chaque jour
+                for (LocalDate date : jours.keySet()) {
+                    if (!date.isBefore(premier) && !date.isAfter(dernier)) {
+                        touches.add(date);
+                    }
+                }
+            }
+            return touches;
+        }
+
+        synchronized int taille() {
+            return parDebut.size();
+        }
+
+        synchronized int joursEnCache() {
+            return jours.size();
+        }
+
+        synchronized List<Reservation> candidats(LocalDateTime debut, LocalDateTime fin) {
+            return new ArrayList<>(touchant(debut, fin).values());
+        }
+
+        private NavigableMap<Cle, Reservation> touchant(LocalDateTime debut, LocalDateTime fin) {
+            return parDebut.subMap(
+                    new Cle(debut.minus(dureeMax), Long.MIN_VALUE), true,
+                    new Cle(fin, Long.MAX_VALUE), true);
+        }
+    }
+
+    private record Cle(LocalDateTime debut, long id) implements Comparable<Cle> {
+        @Override
+        public int compareTo(Cle autre) {
+            int parDate = debut.compareTo(autre.debut);
+            return parDate != 0 ? parDate : Long.compare(id, autre.id);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.efrei.easybooking.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Emails de tous les comptes, dans un {@link FiltreBloom} : un email dont le filtre est sûr qu'il est absent
+ * n'a pas de compte, et {@link AuthService#login} le refuse sans requête en base.
+ * <p>
+ * Le filtre est rempli au démarrage par pages de {@code tailleLot} (par identifiant croissant), puis
+ * complété toutes les {@code intervalle} avec les comptes créés depuis, y compris sur d'autres instances.
+ * Un compte créé sur une autre instance peut donc être refusé ici pendant au plus {@code intervalle}.
+ * Tant que le premier chargement n'est pas terminé, tous les emails sont considérés comme possibles.
+ * Un compte supprimé reste dans le filtre : ce n'est qu'un faux positif de plus.
+ */
+@Component
+public class EmailsInscrits {
+
+    private static final Log logger = LogFactory.getLog(EmailsInscrits.class);
+
+    // relit les derniers identifiants à chaque passage : un INSERT validé après un identifiant plus grand
+    // (deux inscriptions simultanées) n'est pas manqué
+    private static final int FENETRE_RELECTURE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FiltreBloom filtre;
+    private final Duration intervalle;
+    private final int tailleLot;
+
+    private volatile boolean charge;
+    private long dernierId;
+    private ScheduledExecutorService planificateur;
+
+    @Autowired
+    public EmailsInscrits(JdbcTemplate jdbcTemplate,
+                          @Value("${easybooking.auth.bloom.capacite:10000000}") long capacite,
+                          @Value("${easybooking.auth.bloom.taux-faux-positifs:0.01}") double tauxFauxPositifs,
+                          @Value("${easybooking.auth.bloom.rafraichissement:5s}") Duration intervalle) {
+        this(jdbcTemplate, new FiltreBloom(capacite, tauxFauxPositifs), intervalle, 10_000);
+    }
+
+    public EmailsInscrits(JdbcTemplate jdbcTemplate, FiltreBloom filtre, Duration intervalle, int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.filtre = filtre;
+        this.intervalle = intervalle;
+        this.tailleLot = tailleLot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void chargerAuDemarrage() {
+        planificateur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "emails-inscrits");
+            thread.setDaemon(true);
+            return thread;
+        });
+        planificateur.scheduleWithFixedDelay(() -> {
+            try {
+                rafraichir();
+            } catch (RuntimeException e) {
+                logger.warn("Mise à jour du filtre des emails en échec", e);
+            }
+        }, 0, intervalle.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        if (planificateur != null) {
+            planificateur.shutdownNow();
+        }
+    }
+
+    /**
+     * Faux seulement si l'email n'a certainement pas de compte.
+     */
+    public boolean peutExister(String email) {
+        return !charge || (email != null && filtre.peutContenir(email));
+    }
+
+    public void ajouter(String email) {
+        if (email != null) {
+            filtre.ajouter(email);
+        }
+    }
+
+    /**
+     * Ajoute au filtre les comptes créés depuis le dernier passage. Retourne le nombre de lignes lues.
+     */
+    public synchronized int rafraichir() {
+        long depuis = Math.max(0, dernierId - FENETRE_RELECTURE);
+        int total = 0;
+        int lues;
+        do {
+            List<Long> ids = lirePage(depuis);
+            lues = ids.size();
+            total += lues;
+            if (lues > 0) {
+                depuis = ids.get(lues - 1);
+                dernierId = Math.max(dernierId, depuis);
+            }
+        } while (lues == tailleLot);
+        charge = true;
+        return total;
+    }
+
+    private List<Long> lirePage(long depuis) {
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, email FROM utilisateur WHERE id > ? ORDER BY id",
+                ps -> {
+                    ps.setLong(1, depuis);
+                    ps.setMaxRows(tailleLot);
+                },
+                (RowCallbackHandler) rs -> {
+                    ids.add(rs.getLong(1));
+                    ajouter(AuthService.normaliserEmail(rs.getString(2)));
+                });
+        return ids;
+    }
+}
@@ -0,0 +1,243 @@
+package com.efrei.easybooking.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Diffusion en Server-Sent Events des modifications du planning de chaque salle (GET /salles/{id}/events).
+ *
+ * <p>Un abonné inactif ne coûte qu'une requête asynchrone en attente (SseEmitter) et une file bornée de
+ * {@code tampon} événements : aucun thread ne lui est réservé. Publier ne bloque jamais : l'événement est
+ * sérialisé une seule fois, déposé dans la file de chaque abonné de la salle, et écrit sur la connexion
+ * depuis un thread virtuel. Un abonné dont la file déborde (client trop lent, connexion bloquée) est
+ * déconnecté : son EventSource se reconnecte. Les événements ne sont pas rejoués, c'est le client qui
+ * relit le planning à chaque reconnexion (frontend/src/api.js).
+ *
+ * <p>Les événements partent à la validation de la transaction, jamais pour une transaction annulée. Ils
+ * sont propres à l'instance, comme {@link DisponibiliteIndex} : une réservation faite sur une autre
+ * instance n'est pas diffusée ici.
+ */
+@Component
+public class EvenementsSalles {
+
+    private static final Log logger = LogFactory.getLog(EvenementsSalles.class);
+
+    public static final String RESERVATIONS_CREEES = "reservations-creees";
+    public static final String RESERVATIONS_SUPPRIMEES = "reservations-supprimees";
+    // modification en masse (suppression d'une série) : le client relit le planning
+    public static final String PLANNING_MODIFIE = "planning-modifie";
+
+    // délai de reconnexion demandé aux clients (champ "retry"), après une déconnexion ou une expiration
+    static final long RECONNEXION_MS = 5_000;
+
+    private static final Set<DataWithMediaType> BATTEMENT = SseEmitter.event().comment("").build();
+
+    private final CatalogueSalles catalogueSalles;
+    private final ObjectMapper objectMapper;
+    private final int tampon;
+    private final int abonnesMax;
+    private final Duration delai;
+
+    private final Map<Long, Set<Abonne>> abonnesParSalle = new ConcurrentHashMap<>();
+    private final AtomicInteger nombreAbonnes = new AtomicInteger();
+    private final ExecutorService envois = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService planificateur;
+
+    @Autowired
+    public EvenementsSalles(CatalogueSalles catalogueSalles, ObjectMapper objectMapper,
+                            @Value("${easybooking.sse.tampon:32}") int tampon,
+                            @Value("${easybooking.sse.abonnes-max:25000}") int abonnesMax,
+                            @Value("${easybooking.sse.delai:30m}") Duration delai,
+                            @Value("${easybooking.sse.battement:30s}") Duration battement) {
+        this.catalogueSalles = catalogueSalles;
+        this.objectMapper = objectMapper;
+        this.tampon = tampon;
+        this.abonnesMax = abonnesMax;
+        this.delai = delai;
+        this.planificateur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "evenements-salles");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // un commentaire vide régulier garde la connexion ouverte à travers les proxys et révèle les
+        // clients partis sans fermer proprement, dont l'écriture échoue
+        planificateur.scheduleWithFixedDelay(() -> abonnesParSalle.values().forEach(abonnes ->
+                abonnes.forEach(abonne -> abonne.deposer(BATTEMENT))),
+                battement.toMillis(), battement.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        planificateur.shutdownNow();
+        abonnesParSalle.values().forEach(abonnes -> abonnes.forEach(Abonne::deconnecter));
+        envois.shutdown();
+    }
+
+    /**
+     * Ouvre un flux d'événements pour une salle existante. Le premier événement indique au client le délai
+     * de reconnexion.
+     */
+    public SseEmitter abonner(Long salleId) {
+        if (catalogueSalles.trouver(salleId) == null) {
+            throw new RuntimeException("Salle non trouvée");
+        }
+        return abonner(salleId, new SseEmitter(delai.toMillis()));
+    }
+
+    SseEmitter abonner(Long salleId, SseEmitter emitter) {
+        if (nombreAbonnes.incrementAndGet() > abonnesMax) {
+            nombreAbonnes.decrementAndGet();
+            throw new AbonnementsSaturesException(RECONNEXION_MS / 1000);
+        }
+        Abonne abonne = new Abonne(salleId, emitter);
+        abonnesParSalle.compute(salleId, (id, abonnes) -> {
+            Set<Abonne> ensemble = abonnes == null ? ConcurrentHashMap.newKeySet() : abonnes;
+            ensemble.add(abonne);
+            return ensemble;
+        });
+        emitter.onCompletion(abonne::retirer);
+        emitter.onTimeout(abonne::retirer);
+        emitter.onError(erreur -> abonne.retirer());
+        abonne.deposer(SseEmitter.event().reconnectTime(RECONNEXION_MS).build());
+        return emitter;
+    }
+
+    public int nombreAbonnes() {
+        return nombreAbonnes.get();
+    }
+
+    public void reservationsCreees(Long salleId, List<ReservationVueDTO> reservations) {
+        publierApresValidation(salleId, RESERVATIONS_CREEES, reservations);
+    }
+
+    public void reservationsSupprimees(Long salleId, List<ReservationVueDTO> reservations) {
+        publierApresValidation(salleId, RESERVATIONS_SUPPRIMEES, reservations);
+    }
+
+    public void planningModifie(Long salleId) {
+        publierApresValidation(salleId, PLANNING_MODIFIE, Map.of("salleId", salleId));
+    }
+
+    private void publierApresValidation(Long salleId, String type, Object donnees) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publier(salleId, type, donnees);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publier(salleId, type, donnees);
+            }
+        });
+    }
+
+    // appelé après la validation : une erreur ici ne doit pas faire échouer la requête qui a réservé
+    private void publier(Long salleId, String type, Object donnees) {
+        Set<Abonne> abonnes = abonnesParSalle.get(salleId);
+        if (abonnes == null) {
+            return;
+        }
+        try {
+            Set<DataWithMediaType> evenement = SseEmitter.event()
+                    .name(type)
+                    .data(objectMapper.writeValueAsString(donnees))
+                    .build();
+            abonnes.forEach(abonne -> abonne.deposer(evenement));
+        } catch (RuntimeException e) {
+            logger.warn("Diffusion de l'événement " + type + " de la salle " + salleId + " en échec", e);
+        }
+    }
+
+    private final class Abonne {
+
+        private final Long salleId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> file;
+        private final AtomicBoolean envoiEnCours = new AtomicBoolean();
+        private final AtomicBoolean retire = new AtomicBoolean();
+
+        private Abonne(Long salleId, SseEmitter emitter) {
+            this.salleId = salleId;
+            this.emitter = emitter;
+            this.file = new ArrayBlockingQueue<>(tampon);
+        }
+
+        private void deposer(Set<DataWithMediaType> evenement) {
+            if (retire.get()) {
+                return;
+            }
+            if (!file.offer(evenement)) {
+                deconnecter();
+                return;
+            }
+            if (envoiEnCours.compareAndSet(false, true)) {
+                envois.execute(this::vider);
+            }
+        }
+
+        // un seul vidage à la fois par abonné : les événements partent dans l'ordre
+        private void vider() {
+            try {
+                Set<DataWithMediaType> evenement;
+                while (!retire.get() && (evenement = file.poll()) != null) {
+                    emitter.send(evenement);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client parti : Spring termine aussi la requête de son côté
+                retirer();
+            } finally {
+                envoiEnCours.set(false);
+            }
+            // un événement déposé pendant que le vidage se terminait ne doit pas attendre le suivant
+            if (!retire.get() && !file.isEmpty() && envoiEnCours.compareAndSet(false, true)) {
+                envois.execute(this::vider);
+            }
+        }
+
+        // la fermeture peut attendre la fin d'une écriture bloquée : elle ne se fait pas dans le thread qui publie
+        private void deconnecter() {
+            if (retirer()) {
+                envois.execute(emitter::complete);
+            }
+        }
+
+        private boolean retirer() {
+            if (!retire.compareAndSet(false, true)) {
+                return false;
+            }
+            file.clear();
+            abonnesParSalle.computeIfPresent(salleId, (id, abonnes) -> {
+                abonnes.remove(this);
+                return abonnes.isEmpty() ? null : abonnes;
+            });
+            nombreAbonnes.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.efrei.easybooking.Service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes : {@link #peutContenir} ne se trompe jamais sur une chaîne ajoutée
+ * (pas de faux négatif), et répond « peut-être » à tort pour une fraction {@code tauxFauxPositifs} des autres
+ * tant que le nombre de chaînes ajoutées reste sous {@code capaciteAttendue}.
+ * <p>
+ * Dimensionnement classique : m = -n·ln(p) / ln(2)² bits et k = m/n·ln(2) fonctions de hachage.
+ * Pour 10 millions d'emails à 1 % de faux positifs : 95,9 millions de bits (11,4 Mo) et 7 hachages ;
+ * à 0,1 % : 17,1 Mo et 10 hachages. Les bits sont dans un AtomicLongArray : ajouts et lectures concurrents
+ * sans verrou.
+ */
+public class FiltreBloom {
+
+    private final AtomicLongArray bits;
+    private final long nombreBits;
+    private final int nombreHachages;
+
+    public FiltreBloom(long capaciteAttendue, double tauxFauxPositifs) {
+        if (capaciteAttendue < 1 || tauxFauxPositifs <= 0 || tauxFauxPositifs >= 1) {
+            throw new IllegalArgumentException("Capacité ou taux de faux positifs invalide");
+        }
+        long m = (long) Math.ceil(-capaciteAttendue * Math.log(tauxFauxPositifs) / (Math.log(2) * Math.log(2)));
+        this.nombreBits = Math.max(64, m);
+        this.nombreHachages = Math.max(1, (int) Math.round((double) nombreBits / capaciteAttendue * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((nombreBits + 63) / 64));
+    }
+
+    public void ajouter(String valeur) {
+        long h1 = hacher(valeur);
+        long h2 = melanger(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nombreBits);
+            long masque = 1L << bit;
+            int mot = (int) (bit >>> 6);
+            if ((bits.get(mot) & masque) == 0) {
+                bits.getAndAccumulate(mot, masque, (courant, m) -> courant | m);
+            }
+        }
+    }
+
+    public boolean peutContenir(String valeur) {
+        long h1 = hacher(valeur);
+        long h2 = melanger(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < nombreHachages; i++) {
+            long bit = Math.floorMod(h1 + i * h2, nombreBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getNombreBits() {
+        return nombreBits;
+    }
+
+    public int getNombreHachages() {
+        return nombreHachages;
+    }
+
+    public long getTailleOctets() {
+        return bits.length() * 8L;
+    }
+
+    // FNV-1a 64 bits sur les caractères, puis mélange final de MurmurHash3 : String.hashCode n'a que 32 bits,
+    // trop peu pour répartir 10 millions d'emails sur une centaine de millions de bits
+    private static long hacher(String valeur) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valeur.length(); i++) {
+            h ^= valeur.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return melanger(h);
+    }
+
+    private static long melanger(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,111 @@
+package com.efrei.easybooking.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hachage et vérification des mots de passe sur le pool borné {@code executeurHachage}.
+ * Le thread appelant attend le résultat sans consommer de CPU ; si la file est pleine,
+ * {@link HachageSatureException} est levée tout de suite.
+ */
+@Component
+public class HachageMotDePasse {
+
+    private static final String PREFIXE_BCRYPT = "$2";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executeurHachage;
+    private final long retryAfterSecondes;
+    private final Counter rejets;
+    private final String leurre;
+
+    public HachageMotDePasse(PasswordEncoder passwordEncoder, ThreadPoolExecutor executeurHachage,
+                             MeterRegistry meterRegistry,
+                             @Value("${easybooking.auth.hachage.retry-after-secondes:1}") long retryAfterSecondes) {
+        this.passwordEncoder = passwordEncoder;
+        this.executeurHachage = executeurHachage;
+        this.retryAfterSecondes = retryAfterSecondes;
+        this.rejets = Counter.builder("easybooking.auth.hachage.rejets")
+                .description("Demandes refusées car la file de hachage est pleine")
+                .register(meterRegistry);
+        Gauge.builder("easybooking.auth.hachage.file", executeurHachage, pool -> pool.getQueue().size())
+                .description("Hachages en attente d'un thread")
+                .register(meterRegistry);
+        // hachage d'un secret jeté, au coût courant : comparé à la place d'un compte qui n'existe pas
+        this.leurre = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    public String hacher(String motDePasse) {
+        return executer(() -> passwordEncoder.encode(motDePasse));
+    }
+
+    /**
+     * Compare un mot de passe saisi à la valeur stockée. Les comptes créés avant le hachage
+     * contiennent encore le mot de passe en clair : ils sont comparés en temps constant.
+     */
+    public boolean verifier(String motDePasse, String stocke) {
+        if (stocke == null || motDePasse == null) {
+            return false;
+        }
+        if (!estHache(stocke)) {
+            return MessageDigest.isEqual(motDePasse.getBytes(StandardCharsets.UTF_8),
+                    stocke.getBytes(StandardCharsets.UTF_8));
+        }
+        return executer(() -> passwordEncoder.matches(motDePasse, stocke));
+    }
+
+    /**
+     * Vérification pour un email sans compte : le mot de passe est comparé à un hachage factice,
+     * avec le même coût qu'une vraie vérification, pour que la durée de la réponse ne révèle pas
+     * quels comptes existent. Toujours faux.
+     */
+    public boolean verifierSansCompte(String motDePasse) {
+        String saisi = motDePasse == null ? "" : motDePasse;
+        executer(() -> passwordEncoder.matches(saisi, leurre));
+        return false;
+    }
+
+    /**
+     * Vrai si la valeur stockée est en clair ou a été hachée avec un coût différent du coût actuel.
+     */
+    public boolean doitEtreRehache(String stocke) {
+        return !estHache(stocke) || passwordEncoder.upgradeEncoding(stocke);
+    }
+
+    private boolean estHache(String stocke) {
+        return stocke.startsWith(PREFIXE_BCRYPT);
+    }
+
+    private <T> T executer(Callable<T> calcul) {
+        Future<T> resultat;
+        try {
+            resultat = executeurHachage.submit(calcul);
+        } catch (RejectedExecutionException e) {
+            rejets.increment();
+            throw new HachageSatureException(retryAfterSecondes);
+        }
+        try {
+            return resultat.get();
+        } catch (InterruptedException e) {
+            resultat.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+}
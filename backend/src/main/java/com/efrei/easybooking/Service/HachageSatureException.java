@@ -0,0 +1,19 @@
+package com.efrei.easybooking.Service;
+
+/**
+ * Levée quand la file du pool de hachage est pleine. Le contrôleur la traduit en 503 avec un
+ * en-tête Retry-After.
+ */
+public class HachageSatureException extends RuntimeException {
+
+    private final long retryAfterSecondes;
+
+    public HachageSatureException(long retryAfterSecondes) {
+        super("Service d'authentification surchargé, veuillez réessayer plus tard");
+        this.retryAfterSecondes = retryAfterSecondes;
+    }
+
+    public long getRetryAfterSecondes() {
+        return retryAfterSecondes;
+    }
+}
@@ -0,0 +1,140 @@
+package com.efrei.easybooking.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.efrei.easybooking.DTO.JetonsDTO;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+
+/**
+ * Jetons signés HMAC-SHA256 pour le mode d'authentification sans état (easybooking.auth.mode=jeton).
+ * Un jeton a la forme {@code base64url(type.userId.expiration).base64url(signature)} : toute instance
+ * qui connaît le secret peut le vérifier, sans session ni accès à la base.
+ */
+@Service
+public class JetonService {
+
+    public static final String MODE_JETON = "jeton";
+
+    private static final String TYPE_ACCES = "a";
+    private static final String TYPE_RAFRAICHISSEMENT = "r";
+    private static final String ALGORITHME = "HmacSHA256";
+    private static final int TAILLE_MIN_SECRET = 32;
+
+    private static final Base64.Encoder ENCODEUR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODEUR = Base64.getUrlDecoder();
+
+    private final UtilisateurRepository utilisateurRepository;
+    private final boolean actif;
+    private final Duration dureeAcces;
+    private final Duration dureeRafraichissement;
+    private final Clock clock;
+    private final ThreadLocal<Mac> mac;
+
+    @Autowired
+    public JetonService(UtilisateurRepository utilisateurRepository,
+                        @Value("${easybooking.auth.mode:session}") String mode,
+                        @Value("${easybooking.auth.jeton.secret:}") String secret,
+                        @Value("${easybooking.auth.jeton.duree-acces:15m}") Duration dureeAcces,
+                        @Value("${easybooking.auth.jeton.duree-rafraichissement:7d}") Duration dureeRafraichissement) {
+        this(utilisateurRepository, mode, secret, dureeAcces, dureeRafraichissement, Clock.systemUTC());
+    }
+
+    public JetonService(UtilisateurRepository utilisateurRepository, String mode, String secret,
+                        Duration dureeAcces, Duration dureeRafraichissement, Clock clock) {
+        this.utilisateurRepository = utilisateurRepository;
+        this.actif = MODE_JETON.equals(mode);
+        this.dureeAcces = dureeAcces;
+        this.dureeRafraichissement = dureeRafraichissement;
+        this.clock = clock;
+
+        byte[] cle = secret.getBytes(StandardCharsets.UTF_8);
+        if (actif && cle.length < TAILLE_MIN_SECRET) {
+            throw new IllegalStateException("easybooking.auth.jeton.secret doit faire au moins "
+                    + TAILLE_MIN_SECRET + " octets en mode jeton");
+        }
+        // Mac n'est pas thread-safe : une instance initialisée par thread évite de la recréer à chaque requête
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHME);
+                instance.init(new SecretKeySpec(cle, ALGORITHME));
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 indisponible", e);
+            }
+        });
+    }
+
+    public boolean isActif() {
+        return actif;
+    }
+
+    public JetonsDTO emettre(Utilisateur utilisateur) {
+        return new JetonsDTO(
+                signer(TYPE_ACCES, utilisateur.getId(), dureeAcces),
+                signer(TYPE_RAFRAICHISSEMENT, utilisateur.getId(), dureeRafraichissement),
+                dureeAcces.toSeconds());
+    }
+
+    /**
+     * Retourne l'id de l'utilisateur porté par un jeton d'accès valide et non expiré.
+     */
+    public Long verifierAcces(String jeton) {
+        return verifier(jeton, TYPE_ACCES);
+    }
+
+    /**
+     * Émet une nouvelle paire de jetons à partir d'un jeton de rafraîchissement valide,
+     * à condition que l'utilisateur existe toujours.
+     */
+    public JetonsDTO rafraichir(String jetonRafraichissement) {
+        Long userId = verifier(jetonRafraichissement, TYPE_RAFRAICHISSEMENT);
+        Utilisateur utilisateur = utilisateurRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Jeton invalide ou expiré"));
+        return emettre(utilisateur);
+    }
+
+    private String signer(String type, Long userId, Duration duree) {
+        long expiration = clock.instant().plus(duree).getEpochSecond();
+        String contenu = ENCODEUR.encodeToString((type + "." + userId + "." + expiration).getBytes(StandardCharsets.UTF_8));
+        return contenu + "." + ENCODEUR.encodeToString(signature(contenu));
+    }
+
+    private Long verifier(String jeton, String typeAttendu) {
+        if (jeton == null) {
+            throw new RuntimeException("Jeton invalide ou expiré");
+        }
+        int point = jeton.indexOf('.');
+        try {
+            if (point < 0 || !MessageDigest.isEqual(signature(jeton.substring(0, point)),
+                    DECODEUR.decode(jeton.substring(point + 1)))) {
+                throw new RuntimeException("Jeton invalide ou expiré");
+            }
+            String[] champs = new String(DECODEUR.decode(jeton.substring(0, point)), StandardCharsets.UTF_8).split("\\.");
+            if (champs.length != 3 || !champs[0].equals(typeAttendu)
+                    || Long.parseLong(champs[2]) <= clock.instant().getEpochSecond()) {
+                throw new RuntimeException("Jeton invalide ou expiré");
+            }
+            return Long.valueOf(champs[1]);
+        } catch (IllegalArgumentException e) {
+            // base64 ou nombre mal formé
+            throw new RuntimeException("Jeton invalide ou expiré");
+        }
+    }
+
+    private byte[] signature(String contenu) {
+        return mac.get().doFinal(contenu.getBytes(StandardCharsets.US_ASCII));
+    }
+}
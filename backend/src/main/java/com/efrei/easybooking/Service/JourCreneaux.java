@@ -0,0 +1,136 @@
+package com.efrei.easybooking.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Occupation d'une salle sur une journée, découpée en 96 créneaux de 15 minutes rangés dans deux mots
+ * de 64 bits. Deux masques sont tenus à jour :
+ * <ul>
+ *     <li>occupe : créneaux touchés, même partiellement, par au moins une réservation ;</li>
+ *     <li>plein : créneaux entièrement couverts par une réservation.</li>
+ * </ul>
+ * Un créneau libre ou plein donne une réponse certaine par simple opération bit à bit ; un créneau
+ * partiellement occupé (réservation hors grille, ex. 10h05) oblige à revenir à la vérification exacte.
+ */
+public final class JourCreneaux {
+
+    public static final int DUREE_CRENEAU_MINUTES = 15;
+    public static final int CRENEAUX_PAR_JOUR = 24 * 60 / DUREE_CRENEAU_MINUTES;
+
+    private static final long NANOS_PAR_CRENEAU = Duration.ofMinutes(DUREE_CRENEAU_MINUTES).toNanos();
+    private static final long NANOS_PAR_JOUR = CRENEAUX_PAR_JOUR * NANOS_PAR_CRENEAU;
+    private static final int MOTS = (CRENEAUX_PAR_JOUR + 63) / 64;
+
+    public enum Verdict { LIBRE, OCCUPE, INCERTAIN }
+
+    private final LocalDateTime debutJour;
+    private final LocalDateTime finJour;
+    private final long[] occupe = new long[MOTS];
+    private final long[] plein = new long[MOTS];
+
+    public JourCreneaux(LocalDate date) {
+        this.debutJour = date.atStartOfDay();
+        this.finJour = debutJour.plusDays(1);
+    }
+
+    /**
+     * Marque la partie de [debut, fin[ qui tombe dans cette journée.
+     */
+    public void marquer(LocalDateTime debut, LocalDateTime fin) {
+        long s = nanosDansLeJour(debut);
+        long e = nanosDansLeJour(fin);
+        if (s >= e) {
+            return;
+        }
+        // arrondi vers l'extérieur pour les créneaux touchés, vers l'intérieur pour les créneaux couverts
+        remplir(occupe, (int) (s / NANOS_PAR_CRENEAU), (int) plafond(e));
+        remplir(plein, (int) plafond(s), (int) (e / NANOS_PAR_CRENEAU));
+    }
+
+    /**
+     * Compare [debut, fin[ à l'occupation de la journée, sans parcourir les réservations.
+     */
+    public Verdict verifier(LocalDateTime debut, LocalDateTime fin) {
+        long s = nanosDansLeJour(debut);
+        long e = nanosDansLeJour(fin);
+        if (s >= e) {
+            return Verdict.LIBRE;
+        }
+        int de = (int) (s / NANOS_PAR_CRENEAU);
+        int a = (int) plafond(e);
+        if (!intersecte(occupe, de, a)) {
+            return Verdict.LIBRE;
+        }
+        // le créneau demandé recouvre une partie d'un créneau entièrement réservé : conflit certain
+        return intersecte(plein, de, a) ? Verdict.OCCUPE : Verdict.INCERTAIN;
+    }
+
+    /**
+     * Copie indépendante : les marquages suivants de cette journée ne la modifient pas.
+     */
+    public JourCreneaux copie() {
+        JourCreneaux copie = new JourCreneaux(debutJour.toLocalDate());
+        System.arraycopy(occupe, 0, copie.occupe, 0, MOTS);
+        System.arraycopy(plein, 0, copie.plein, 0, MOTS);
+        return copie;
+    }
+
+    public boolean estOccupe(int creneau) {
+        return (occupe[creneau >>> 6] & (1L << creneau)) != 0;
+    }
+
+    /**
+     * Occupation sous forme de 96 caractères, '1' pour un créneau touché par une réservation.
+     */
+    public String occupation() {
+        StringBuilder sb = new StringBuilder(CRENEAUX_PAR_JOUR);
+        for (int i = 0; i < CRENEAUX_PAR_JOUR; i++) {
+            sb.append(estOccupe(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+
+    private long nanosDansLeJour(LocalDateTime instant) {
+        if (!instant.isAfter(debutJour)) {
+            return 0;
+        }
+        if (!instant.isBefore(finJour)) {
+            return NANOS_PAR_JOUR;
+        }
+        return Duration.between(debutJour, instant).toNanos();
+    }
+
+    private static long plafond(long nanos) {
+        return (nanos + NANOS_PAR_CRENEAU - 1) / NANOS_PAR_CRENEAU;
+    }
+
+    private static void remplir(long[] bits, int de, int a) {
+        for (int mot = de >>> 6; de < a; mot++) {
+            int fin = Math.min(a, (mot + 1) << 6);
+            bits[mot] |= masque(de, fin);
+            de = fin;
+        }
+    }
+
+    private static boolean intersecte(long[] bits, int de, int a) {
+        for (int mot = de >>> 6; de < a; mot++) {
+            int fin = Math.min(a, (mot + 1) << 6);
+            if ((bits[mot] & masque(de, fin)) != 0) {
+                return true;
+            }
+            de = fin;
+        }
+        return false;
+    }
+
+    /**
+     * Masque des bits [de, a[ d'un même mot de 64 bits.
+     */
+    private static long masque(int de, int a) {
+        int largeur = a - de;
+        long bits = largeur == 64 ? -1L : (1L << largeur) - 1;
+        return bits << (de & 63);
+    }
+}
@@ -0,0 +1,117 @@
+package com.efrei.easybooking.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Seaux à jetons en mémoire, un par clé (adresse IP, email...). Les clés sont réparties sur des bandes
+ * verrouillées séparément : deux clés de bandes différentes ne se bloquent jamais. Chaque bande est une
+ * LinkedHashMap en ordre d'accès, bornée : au-delà de sa capacité la clé la moins récemment vue est
+ * évincée, et les clés inactives depuis plus de {@code inactiviteMax} sont retirées au passage.
+ */
+public class LimiteurDebit {
+
+    private final Bande[] bandes;
+    private final int masque;
+    private final double capacite;
+    private final double jetonsParNano;
+    private final long inactiviteMaxNanos;
+    private final LongSupplier horloge;
+
+    public LimiteurDebit(int capacite, Duration periodeRecharge, int nombreBandes, int clesParBande,
+                         Duration inactiviteMax) {
+        this(capacite, periodeRecharge, nombreBandes, clesParBande, inactiviteMax, System::nanoTime);
+    }
+
+    /**
+     * @param capacite        nombre de demandes acceptées d'affilée
+     * @param periodeRecharge temps pour regagner toute la capacité
+     * @param nombreBandes    arrondi à la puissance de 2 supérieure
+     */
+    public LimiteurDebit(int capacite, Duration periodeRecharge, int nombreBandes, int clesParBande,
+                         Duration inactiviteMax, LongSupplier horloge) {
+        int taille = nombreBandes <= 1 ? 1 : Integer.highestOneBit(nombreBandes - 1) << 1;
+        this.bandes = new Bande[taille];
+        for (int i = 0; i < taille; i++) {
+            bandes[i] = new Bande(clesParBande);
+        }
+        this.masque = taille - 1;
+        this.capacite = capacite;
+        this.jetonsParNano = capacite / (double) periodeRecharge.toNanos();
+        // un seau inactif depuis une période de recharge est plein : l'évincer plus tôt offrirait des jetons
+        this.inactiviteMaxNanos = Math.max(inactiviteMax.toNanos(), periodeRecharge.toNanos());
+        this.horloge = horloge;
+    }
+
+    /**
+     * Consomme un jeton pour la clé. Retourne 0 si la demande est acceptée, sinon le nombre de secondes
+     * (au moins 1) avant qu'un jeton soit de nouveau disponible.
+     */
+    public long consommer(String cle) {
+        int h = cle.hashCode();
+        Bande bande = bandes[(h ^ (h >>> 16)) & masque];
+        long maintenant = horloge.getAsLong();
+        synchronized (bande) {
+            bande.evincerInactives(maintenant, inactiviteMaxNanos);
+            Seau seau = bande.get(cle);
+            if (seau == null) {
+                seau = new Seau(capacite, maintenant);
+                bande.put(cle, seau);
+            } else {
+                seau.jetons = Math.min(capacite, seau.jetons + (maintenant - seau.dernierAcces) * jetonsParNano);
+                seau.dernierAcces = maintenant;
+            }
+            if (seau.jetons >= 1) {
+                seau.jetons -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - seau.jetons) / jetonsParNano / 1_000_000_000L));
+        }
+    }
+
+    public int taille() {
+        int taille = 0;
+        for (Bande bande : bandes) {
+            synchronized (bande) {
+                taille += bande.size();
+            }
+        }
+        return taille;
+    }
+
+    private static final class Seau {
+        private double jetons;
+        private long dernierAcces;
+
+        private Seau(double jetons, long dernierAcces) {
+            this.jetons = jetons;
+            this.dernierAcces = dernierAcces;
+        }
+    }
+
+    private static final class Bande extends LinkedHashMap<String, Seau> {
+
+        private final int capacite;
+
+        private Bande(int capacite) {
+            super(16, 0.75f, true);
+            this.capacite = capacite;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Seau> plusAncienne) {
+            return size() > capacite;
+        }
+
+        // en ordre d'accès, les clés les plus anciennes sont en tête : on s'arrête à la première encore active
+        private void evincerInactives(long maintenant, long inactiviteMaxNanos) {
+            Iterator<Seau> seaux = values().iterator();
+            while (seaux.hasNext() && maintenant - seaux.next().dernierAcces > inactiviteMaxNanos) {
+                seaux.remove();
+            }
+        }
+    }
+}
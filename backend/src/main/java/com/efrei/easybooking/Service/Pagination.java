@@ -0,0 +1,89 @@
+package com.efrei.easybooking.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import com.efrei.easybooking.DTO.PageDTO;
+
+/**
+ * Pagination par clé (keyset) : une page reprend juste après la dernière clé de la précédente
+ * ({@code WHERE cle > :derniere ORDER BY cle}), sans OFFSET. Le coût d'une page ne dépend que de sa
+ * taille, pas de sa profondeur. La clé est renvoyée au client dans un curseur opaque (Base64 URL).
+ */
+public final class Pagination {
+
+    public static final int LIMITE_DEFAUT = 50;
+    public static final int LIMITE_MAX = 200;
+
+    private static final String SEPARATEUR = "|";
+
+    private Pagination() {
+    }
+
+    public static int limite(Integer demandee) {
+        if (demandee == null) {
+            return LIMITE_DEFAUT;
+        }
+        if (demandee < 1 || demandee > LIMITE_MAX) {
+            throw new RuntimeException("La limite doit être comprise entre 1 et " + LIMITE_MAX);
+        }
+        return demandee;
+    }
+
+    public static String curseur(Object... cle) {
+        StringBuilder texte = new StringBuilder();
+        for (Object champ : cle) {
+            if (!texte.isEmpty()) {
+                texte.append(SEPARATEUR);
+            }
+            texte.append(champ);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texte.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Champs de la clé contenue dans le curseur, ou {@code null} pour la première page.
+     */
+    public static String[] lireCurseur(String curseur, int nombreChamps) {
+        if (curseur == null || curseur.isEmpty()) {
+            return null;
+        }
+        try {
+            String texte = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            String[] champs = texte.split("\\" + SEPARATEUR, -1);
+            if (champs.length != nombreChamps) {
+                throw new RuntimeException("Curseur invalide");
+            }
+            return champs;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Curseur invalide");
+        }
+    }
+
+    public static long lireIdentifiant(String curseur) {
+        String[] champs = lireCurseur(curseur, 1);
+        return champs == null ? 0L : identifiant(champs[0]);
+    }
+
+    static long identifiant(String champ) {
+        try {
+            return Long.parseLong(champ);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Curseur invalide");
+        }
+    }
+
+    /**
+     * Construit la page à partir de {@code limite + 1} lignes lues : la ligne en trop indique
+     * qu'une page suivante existe, sans requête de comptage.
+     */
+    public static <T> PageDTO<T> page(List<T> lues, int limite, Function<T, String> curseurDe) {
+        if (lues.size() <= limite) {
+            return new PageDTO<>(lues, null);
+        }
+        List<T> elements = lues.subList(0, limite);
+        return new PageDTO<>(List.copyOf(elements), curseurDe.apply(elements.getLast()));
+    }
+}
@@ -1,68 +1,447 @@
 package com.efrei.easybooking.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.efrei.easybooking.DTO.PageDTO;
+import com.efrei.easybooking.DTO.ReservationDTO;
+import com.efrei.easybooking.DTO.ReservationSerieDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.DTO.ResultatReservationDTO;
+import com.efrei.easybooking.DTO.SerieCreeeDTO;
 import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.ReservationSerie;
 import com.efrei.easybooking.Entity.Salle;
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.ReservationSerieRepository;
 import com.efrei.easybooking.Repository.SalleRepository;
 import com.efrei.easybooking.Repository.UtilisateurRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class ReservationService {
+    public static final int TAILLE_MAX_LOT = 200;
+    public static final int OCCURRENCES_MAX_SERIE = 366;
+
     private final ReservationRepository reservationRepository;
     private final SalleRepository salleRepository;
     private final UtilisateurRepository utilisateurRepository;
+    private final ReservationSerieRepository reservationSerieRepository;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final CatalogueSalles catalogueSalles;
+    private final VersionsSalles versionsSalles;
+    private final EvenementsSalles evenementsSalles;
+    private final MeterRegistry meterRegistry;
 
     public ReservationService(ReservationRepository reservationRepository, 
                              SalleRepository salleRepository,
-                             UtilisateurRepository utilisateurRepository) {
+                             UtilisateurRepository utilisateurRepository,
+                             ReservationSerieRepository reservationSerieRepository,
+                             DisponibiliteIndex disponibiliteIndex,
+                             CatalogueSalles catalogueSalles,
+                             VersionsSalles versionsSalles,
+                             EvenementsSalles evenementsSalles,
+                             MeterRegistry meterRegistry) {
         this.reservationRepository = reservationRepository;
         this.salleRepository = salleRepository;
         this.utilisateurRepository = utilisateurRepository;
+        this.reservationSerieRepository = reservationSerieRepository;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.catalogueSalles = catalogueSalles;
+        this.versionsSalles = versionsSalles;
+        this.evenementsSalles = evenementsSalles;
+        this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * La ligne de la salle est verrouillée pendant toute la transaction, ce qui rend la vérification
+     * de chevauchement puis l'insertion atomiques, y compris entre plusieurs instances du backend.
+     */
+    @Transactional
     public Reservation creerReservation(Long salleId, Long userId, LocalDateTime dateDebut, LocalDateTime dateFin) {
-        if (dateDebut.isAfter(dateFin) || dateDebut.isEqual(dateFin)) {
+        Timer.Sample chrono = Timer.start(meterRegistry);
+        String resultat = "erreur";
+        try {
+            if (dateDebut.isAfter(dateFin) || dateDebut.isEqual(dateFin)) {
+                throw new RuntimeException("La date de début doit être avant la date de fin");
+            }
+
+            Salle salle = salleRepository.findForUpdateById(salleId)
+                    .orElseThrow(() -> new RuntimeException("Salle non trouvée"));
+
+            // l'utilisateur n'est pas relu : la clé étrangère suffit, et c'est elle qui refuse un identifiant inconnu
+            Utilisateur utilisateur = utilisateurRepository.getReferenceById(userId);
+
+            // sous le verrou, seule la base fait foi : elle voit aussi ce qu'ont écrit ou supprimé les autres
+            // instances. L'index local n'est consulté que s'il a déjà le planning en mémoire (le charger ici
+            // prendrait une seconde connexion en tenant le verrou), pour repérer un planning en retard
+            boolean conflitBase = reservationRepository.chevauche(salleId, dateDebut, dateFin);
+            Optional<Boolean> conflitIndex = disponibiliteIndex.chevaucheSiCharge(salleId, dateDebut, dateFin);
+            if (conflitIndex.isPresent() && conflitIndex.get() != conflitBase) {
+                disponibiliteIndex.invalider(salleId);
+            }
+            if (conflitBase) {
+                resultat = "conflit";
+                compterConflit(conflitIndex.orElse(false) ? "index" : "base");
+                throw new RuntimeException("La salle est déjà réservée sur ce créneau");
+            }
+
+            Reservation reservation = new Reservation();
+            reservation.setSalle(salle);
+            reservation.setUtilisateur(utilisateur);
+            reservation.setDateDebut(dateDebut);
+            reservation.setDateFin(dateFin);
+
+            Reservation enregistree = enregistrer(reservation);
+            disponibiliteIndex.ajouter(enregistree);
+            versionsSalles.salleModifiee(salleId);
+            evenementsSalles.reservationsCreees(salleId, List.of(vue(enregistree)));
+            resultat = "succes";
+            return enregistree;
+        } finally {
+            chrono.stop(chronometre("easybooking.reservations.creation", "resultat", resultat));
+        }
+    }
+
+    /**
+     * Crée un lot de réservations dans une seule transaction, chaque demande réussissant ou échouant
+     * individuellement. Les salles du lot sont verrouillées en une requête, les conflits sont cherchés
+     * en une requête par salle puis entre les demandes du lot, et les INSERT partent en lots JDBC.
+     */
+    @Transactional
+    public List<ResultatReservationDTO> creerReservations(Long userId, List<ReservationDTO> demandes) {
+        return chronometre("easybooking.reservations.lot").record(() -> creerLot(userId, demandes));
+    }
+
+    private List<ResultatReservationDTO> creerLot(Long userId, List<ReservationDTO> demandes) {
+        if (demandes == null || demandes.isEmpty()) {
+            throw new RuntimeException("Aucune réservation à créer");
+        }
+        if (demandes.size() > TAILLE_MAX_LOT) {
+            throw new RuntimeException("Un lot ne peut pas dépasser " + TAILLE_MAX_LOT + " réservations");
+        }
+
+        Utilisateur utilisateur = utilisateurRepository.getReferenceById(userId);
+
+        ResultatReservationDTO[] resultats = new ResultatReservationDTO[demandes.size()];
+        // TreeMap : les salles sont parcourues dans le même ordre que celui des verrous
+        Map<Long, List<Integer>> demandesParSalle = new TreeMap<>();
+        for (int i = 0; i < demandes.size(); i++) {
+            ReservationDTO demande = demandes.get(i);
+            if (demande == null || demande.salleId() == null || demande.dateDebut() == null || demande.dateFin() == null) {
+                resultats[i] = echec(i, "Réservation incomplète");
+            } else if (!demande.dateDebut().isBefore(demande.dateFin())) {
+                resultats[i] = echec(i, "La date de début doit être avant la date de fin");
+            } else {
+                demandesParSalle.computeIfAbsent(demande.salleId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<Long, Salle> salles = new HashMap<>();
+        if (!demandesParSalle.isEmpty()) {
+            for (Salle salle : salleRepository.findForUpdateByIdInOrderByIdAsc(demandesParSalle.keySet())) {
+                salles.put(salle.getId(), salle);
+            }
+        }
+
+        List<Reservation> aCreer = new ArrayList<>();
+        List<Integer> indicesACreer = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> entree : demandesParSalle.entrySet()) {
+            Salle salle = salles.get(entree.getKey());
+            if (salle == null) {
+                for (int i : entree.getValue()) {
+                    resultats[i] = echec(i, "Salle non trouvée");
+                }
+                continue;
+            }
+
+            LocalDateTime debutLot = null;
+            LocalDateTime finLot = null;
+            for (int i : entree.getValue()) {
+                ReservationDTO demande = demandes.get(i);
+                debutLot = debutLot == null || demande.dateDebut().isBefore(debutLot) ? demande.dateDebut() : debutLot;
+                finLot = finLot == null || demande.dateFin().isAfter(finLot) ? demande.dateFin() : finLot;
+            }
+            // une seule lecture par salle, sous le verrou, couvre toutes les demandes du lot
+            List<Reservation> occupees = new ArrayList<>(
+                    reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(salle.getId(), finLot, debutLot));
+
+            for (int i : entree.getValue()) {
+                ReservationDTO demande = demandes.get(i);
+                if (chevaucheUne(occupees, demande.dateDebut(), demande.dateFin())) {
+                    compterConflit("lot");
+                    resultats[i] = echec(i, "La salle est déjà réservée sur ce créneau");
+                    continue;
+                }
+                Reservation reservation = new Reservation();
+                reservation.setSalle(salle);
+                reservation.setUtilisateur(utilisateur);
+                reservation.setDateDebut(demande.dateDebut());
+                reservation.setDateFin(demande.dateFin());
+                occupees.add(reservation);
+                aCreer.add(reservation);
+                indicesACreer.add(i);
+            }
+        }
+
+        List<Reservation> enregistrees = reservationRepository.saveAll(aCreer);
+        try {
+            // les INSERT partent ici en lots JDBC : un utilisateur inconnu est refusé par la clé étrangère
+            reservationRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw utilisateurInconnuSiCleEtrangere(e);
+        }
+        Map<Long, List<ReservationVueDTO>> creeesParSalle = new HashMap<>();
+        for (int k = 0; k < enregistrees.size(); k++) {
+            Reservation enregistree = enregistrees.get(k);
+            int i = indicesACreer.get(k);
+            disponibiliteIndex.ajouter(enregistree);
+            versionsSalles.salleModifiee(enregistree.getSalle().getId());
+            creeesParSalle.computeIfAbsent(enregistree.getSalle().getId(), id -> new ArrayList<>()).add(vue(enregistree));
+            resultats[i] = new ResultatReservationDTO(i, true, enregistree.getId(), "Réservation créée avec succès");
+        }
+        // un seul événement par salle pour tout le lot
+        creeesParSalle.forEach(evenementsSalles::reservationsCreees);
+        return List.of(resultats);
+    }
+
+    /**
+     * Crée une série récurrente et toutes ses occurrences, ou rien si l'une d'elles est en conflit.
+     * Une seule requête couvre toute la période de la série, puis les occurrences et les réservations
+     * existantes, triées et disjointes, sont comparées en un seul parcours.
+     */
+    @Transactional
+    public SerieCreeeDTO creerSerie(Long userId, ReservationSerieDTO demande) {
+        return chronometre("easybooking.reservations.serie").record(() -> creerOccurrences(userId, demande));
+    }
+
+    private SerieCreeeDTO creerOccurrences(Long userId, ReservationSerieDTO demande) {
+        if (demande == null || demande.salleId() == null || demande.dateDebut() == null || demande.dateFin() == null
+                || demande.frequence() == null || demande.dateLimite() == null) {
+            throw new RuntimeException("Série de réservations incomplète");
+        }
+        if (!demande.dateDebut().isBefore(demande.dateFin())) {
             throw new RuntimeException("La date de début doit être avant la date de fin");
         }
 
-        Salle salle = salleRepository.findById(salleId)
+        Duration duree = Duration.between(demande.dateDebut(), demande.dateFin());
+        List<LocalDateTime> debuts = occurrences(demande, duree);
+
+        Salle salle = salleRepository.findForUpdateById(demande.salleId())
                 .orElseThrow(() -> new RuntimeException("Salle non trouvée"));
-        
-        Utilisateur utilisateur = utilisateurRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-        List<Reservation> reservationsDeLaSalle = reservationRepository.findAll().stream()
-                .filter(r -> r.getSalle().getId().equals(salleId))
-                .filter(r -> dateDebut.isBefore(r.getDateFin()) && dateFin.isAfter(r.getDateDebut()))
-                .toList();
-        
-        if (!reservationsDeLaSalle.isEmpty()) {
-            throw new RuntimeException("La salle est déjà réservée sur ce créneau");
+
+        Utilisateur utilisateur = utilisateurRepository.getReferenceById(userId);
+
+        List<Reservation> existantes = reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(
+                salle.getId(), debuts.getLast().plus(duree), debuts.getFirst());
+        int j = 0;
+        for (LocalDateTime debut : debuts) {
+            while (j < existantes.size() && !existantes.get(j).getDateFin().isAfter(debut)) {
+                j++;
+            }
+            if (j < existantes.size() && existantes.get(j).getDateDebut().isBefore(debut.plus(duree))) {
+                compterConflit("serie");
+                throw new RuntimeException("La salle est déjà réservée sur ce créneau (" + debut + ")");
+            }
         }
 
-        Reservation reservation = new Reservation();
-        reservation.setSalle(salle);
-        reservation.setUtilisateur(utilisateur);
-        reservation.setDateDebut(dateDebut);
-        reservation.setDateFin(dateFin);
+        ReservationSerie serie = new ReservationSerie();
+        serie.setSalle(salle);
+        serie.setUtilisateur(utilisateur);
+        serie.setDateDebut(demande.dateDebut());
+        serie.setDateFin(demande.dateFin());
+        serie.setFrequence(demande.frequence());
+        serie.setDateLimite(demande.dateLimite());
+        try {
+            // INSERT immédiat (identifiant IDENTITY) : la clé étrangère refuse un utilisateur inconnu
+            serie = reservationSerieRepository.save(serie);
+        } catch (DataIntegrityViolationException e) {
+            throw utilisateurInconnuSiCleEtrangere(e);
+        }
 
-        return reservationRepository.save(reservation);
+        List<Reservation> aCreer = new ArrayList<>(debuts.size());
+        for (LocalDateTime debut : debuts) {
+            Reservation reservation = new Reservation();
+            reservation.setSalle(salle);
+            reservation.setUtilisateur(utilisateur);
+            reservation.setDateDebut(debut);
+            reservation.setDateFin(debut.plus(duree));
+            reservation.setSerie(serie);
+            aCreer.add(reservation);
+        }
+        reservationRepository.saveAll(aCreer).forEach(disponibiliteIndex::ajouter);
+        versionsSalles.salleModifiee(salle.getId());
+        evenementsSalles.reservationsCreees(salle.getId(), aCreer.stream().map(ReservationService::vue).toList());
+        return new SerieCreeeDTO(serie.getId(), aCreer.size());
     }
 
-    public List<Reservation> getReservationsByUser(Long userId) {
-        Utilisateur utilisateur = utilisateurRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-        return reservationRepository.findByUtilisateur(utilisateur);
+    /**
+     * Supprime une série et toutes ses occurrences restantes avec une seule requête DELETE.
+     */
+    @Transactional
+    public int supprimerSeriePourUtilisateur(Long serieId, Long userId) {
+        ReservationSerie serie = reservationSerieRepository.findById(serieId)
+                .orElseThrow(() -> new RuntimeException("Série non trouvée"));
+
+        if (serie.getUtilisateur() == null || serie.getUtilisateur().getId() == null
+                || !serie.getUtilisateur().getId().equals(userId)) {
+            throw new RuntimeException("Vous ne pouvez supprimer que vos propres réservations");
+        }
+
+        Long salleId = serie.getSalle().getId();
+        int supprimees = reservationRepository.deleteBySerieId(serieId);
+        reservationSerieRepository.deleteSerieById(serieId);
+        disponibiliteIndex.invaliderApresModification(salleId);
+        versionsSalles.salleModifiee(salleId);
+        // suppression en masse : les occurrences supprimées ne sont pas relues, le client relit le planning
+        evenementsSalles.planningModifie(salleId);
+        return supprimees;
     }
 
+    private static List<LocalDateTime> occurrences(ReservationSerieDTO demande, Duration duree) {
+        List<LocalDateTime> debuts = new ArrayList<>();
+        for (int rang = 0; ; rang++) {
+            LocalDateTime debut = demande.frequence().occurrence(demande.dateDebut(), rang);
+            if (debut.toLocalDate().isAfter(demande.dateLimite())) {
+                break;
+            }
+            if (debuts.size() == OCCURRENCES_MAX_SERIE) {
+                throw new RuntimeException("Une série ne peut pas dépasser " + OCCURRENCES_MAX_SERIE + " occurrences");
+            }
+            if (!debuts.isEmpty() && debut.isBefore(debuts.getLast().plus(duree))) {
+                throw new RuntimeException("Les occurrences de la série se chevauchent");
+            }
+            debuts.add(debut);
+        }
+        if (debuts.isEmpty()) {
+            throw new RuntimeException("La date limite de la série précède son premier créneau");
+        }
+        return debuts;
+    }
+
+    /**
+     * Timer avec histogramme de percentiles : Prometheus peut en déduire le p99 par fenêtre de temps.
+     */
+    private Timer chronometre(String nom, String... tags) {
+        return Timer.builder(nom).tags(tags).publishPercentileHistogram().register(meterRegistry);
+    }
+
+    private void compterConflit(String verification) {
+        Counter.builder("easybooking.reservations.conflits")
+                .description("Réservations refusées pour chevauchement")
+                .tag("verification", verification)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean chevaucheUne(List<Reservation> reservations, LocalDateTime debut, LocalDateTime fin) {
+        for (Reservation r : reservations) {
+            if (r.getDateDebut().isBefore(fin) && r.getDateFin().isAfter(debut)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * INSERT exécuté tout de suite (et non au commit) pour que la violation de clé étrangère d'un
+     * utilisateur inconnu soit traduite ici en message métier.
+     */
+    private Reservation enregistrer(Reservation reservation) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw utilisateurInconnuSiCleEtrangere(e);
+        }
+    }
+
+    /**
+     * Seule une clé étrangère violée signifie un utilisateur inconnu (la salle est verrouillée, donc présente).
+     * Toute autre violation (identifiant déjà pris, colonne obligatoire...) est remontée telle quelle.
+     */
+    private static RuntimeException utilisateurInconnuSiCleEtrangere(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.FOREIGN_KEY) {
+                return new RuntimeException("Utilisateur non trouvé");
+            }
+        }
+        return e;
+    }
+
+    private static ResultatReservationDTO echec(int index, String message) {
+        return new ResultatReservationDTO(index, false, null, message);
+    }
+
+    /**
+     * Réservations de l'utilisateur triées par date de début, par pages de {@code limite} au plus.
+     * Le curseur porte la clé (dateDebut, id) de la dernière réservation de la page précédente.
+     */
+    public PageDTO<ReservationVueDTO> getReservationsByUser(Long userId, String curseur, Integer limite) {
+        int taille = Pagination.limite(limite);
+        String[] cle = Pagination.lireCurseur(curseur, 2);
+        LocalDateTime apresDebut = cle == null ? null : dateCurseur(cle[0]);
+        Long apresId = cle == null ? null : Pagination.identifiant(cle[1]);
+
+        return chronometre("easybooking.reservations.lecture", "vue", "utilisateur").record(() -> {
+            // une ligne de plus que la page : elle indique s'il existe une page suivante
+            List<ReservationVueDTO> reservations = cle == null
+                    ? reservationRepository.findVuesByUtilisateurId(userId, Limit.of(taille + 1))
+                    : reservationRepository.findVuesByUtilisateurIdApres(userId, apresDebut, apresId, Limit.of(taille + 1));
+            // l'existence de l'utilisateur n'est vérifiée que dans le cas rare d'une page vide
+            if (reservations.isEmpty() && !utilisateurRepository.existsById(userId)) {
+                throw new RuntimeException("Utilisateur non trouvé");
+            }
+            return Pagination.page(reservations, taille, r -> Pagination.curseur(r.dateDebut(), r.id()));
+        });
+    }
+
+    /**
+     * Toutes les réservations de l'utilisateur, dans l'ordre de {@link #getReservationsByUser}, passées à
+     * {@code lecture} au fur et à mesure de leur lecture en base (export). Le flux n'est valable que pendant
+     * l'appel : la transaction garde le curseur JDBC ouvert.
+     */
+    @Transactional(readOnly = true)
+    public <R> R lireReservationsParUtilisateur(Long userId, Function<Stream<ReservationVueDTO>, R> lecture) {
+        return chronometre("easybooking.reservations.lecture", "vue", "export")
+                .record(() -> lecture.apply(reservationRepository.streamVuesByUtilisateurId(userId)));
+    }
+
+    private static LocalDateTime dateCurseur(String champ) {
+        try {
+            return LocalDateTime.parse(champ);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Curseur invalide");
+        }
+    }
+
+    @Transactional
     public void supprimerReservationPourUtilisateur(Long reservationId, Long userId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        chronometre("easybooking.reservations.suppression").record(() -> supprimerReservation(reservationId, userId));
+    }
+
+    private void supprimerReservation(Long reservationId, Long userId) {
+        Reservation reservation = reservationRepository.findPourSuppressionById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
 
         if (reservation.getUtilisateur() == null || reservation.getUtilisateur().getId() == null
@@ -71,18 +450,52 @@ public class ReservationService {
         }
 
         reservationRepository.delete(reservation);
+        disponibiliteIndex.retirer(reservation);
+        versionsSalles.salleModifiee(reservation.getSalle().getId());
+        evenementsSalles.reservationsSupprimees(reservation.getSalle().getId(), List.of(vue(reservation)));
     }
 
-    public List<Reservation> getReservationsBySalleAndDate(Long salleId, LocalDate date) {
-        Salle salle = salleRepository.findById(salleId)
-                .orElseThrow(() -> new RuntimeException("Salle non trouvée"));
+    /**
+     * Réservations qui occupent une partie de la journée, y compris celles qui la couvrent
+     * entièrement sans y commencer ni y finir.
+     */
+    public List<ReservationVueDTO> getReservationsBySalleAndDate(Long salleId, LocalDate date) {
+        return chronometre("easybooking.reservations.lecture", "vue", "salle_jour")
+                .record(() -> reservationsDuJour(salleId, date));
+    }
 
-        List<Reservation> reservations = reservationRepository.findBySalle(salle);
+    private List<ReservationVueDTO> reservationsDuJour(Long salleId, LocalDate date) {
+        LocalDateTime debutJour = date.atStartOfDay();
+        LocalDateTime finJour = debutJour.plusDays(1);
 
-        return reservations.stream()
-                .filter(r -> r.getDateDebut() != null && r.getDateFin() != null)
-                .filter(r -> r.getDateDebut().toLocalDate().equals(date) ||
-                             r.getDateFin().toLocalDate().equals(date))
-                .toList();
+        if (disponibiliteIndex.contientSalle(salleId)) {
+            return disponibiliteIndex.candidats(salleId, debutJour, finJour).stream()
+                    .filter(r -> r.getDateDebut().isBefore(finJour) && r.getDateFin().isAfter(debutJour))
+                    .map(ReservationService::vue)
+                    .toList();
+        }
+
+        // salle pas encore chargée : une requête bornée au jour plutôt que tout son historique
+        if (catalogueSalles.trouver(salleId) == null) {
+            throw new RuntimeException("Salle non trouvée");
+        }
+        return reservationRepository.findVuesBySalleIdSurPeriode(salleId, debutJour, finJour);
+    }
+
+    private static ReservationVueDTO vue(Reservation reservation) {
+        return new ReservationVueDTO(reservation.getId(), reservation.getDateDebut(), reservation.getDateFin(),
+                reservation.getSalle().getId(), reservation.getSalle().getNom());
+    }
+
+    public JourCreneaux getCreneauxBySalleAndDate(Long salleId, LocalDate date) {
+        verifierSalleExiste(salleId);
+        return disponibiliteIndex.occupation(salleId, date);
+    }
+
+    private void verifierSalleExiste(Long salleId) {
+        // une salle déjà présente dans l'index existe ; sinon le cache des salles répond sans requête en général
+        if (!disponibiliteIndex.contientSalle(salleId) && catalogueSalles.trouver(salleId) == null) {
+            throw new RuntimeException("Salle non trouvée");
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.efrei.easybooking.Service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.SalleRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Jauge du nombre de réservations par salle (easybooking.salle.reservations{salle="..."}).
+ * La valeur est lue dans {@link DisponibiliteIndex} à chaque collecte, sans requête en base : tant que
+ * le planning de la salle n'est pas chargé, la jauge vaut NaN.
+ *
+ * <p>Les salles existantes sont enregistrées au démarrage ; celles créées ou supprimées ensuite le sont
+ * par {@link SuiviCatalogueSalles}, une fois la transaction validée.
+ */
+@Component
+public class SalleMetriques {
+
+    private static final String NOM_JAUGE = "easybooking.salle.reservations";
+
+    private final SalleRepository salleRepository;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final MeterRegistry meterRegistry;
+
+    public SalleMetriques(SalleRepository salleRepository, DisponibiliteIndex disponibiliteIndex,
+                          MeterRegistry meterRegistry) {
+        this.salleRepository = salleRepository;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void enregistrerJauges() {
+        for (Salle salle : salleRepository.findAll()) {
+            enregistrer(salle);
+        }
+    }
+
+    public void salleCreee(Salle salle) {
+        String nom = salle.getNom();
+        Long salleId = salle.getId();
+        apresValidation(() -> enregistrer(salleId, nom));
+    }
+
+    public void salleSupprimee(Salle salle) {
+        Long salleId = salle.getId();
+        apresValidation(() -> {
+            for (Meter jauge : meterRegistry.find(NOM_JAUGE).tag("salle", String.valueOf(salleId)).meters()) {
+                meterRegistry.remove(jauge);
+            }
+        });
+    }
+
+    private void enregistrer(Salle salle) {
+        enregistrer(salle.getId(), salle.getNom());
+    }
+
+    private void enregistrer(Long salleId, String nom) {
+        // enregistrer deux fois la même jauge renvoie la première : sans effet
+        Gauge.builder(NOM_JAUGE, disponibiliteIndex, index -> {
+                    int nombre = index.nombreReservationsCharges(salleId);
+                    return nombre < 0 ? Double.NaN : nombre;
+                })
+                .description("Nombre de réservations de la salle")
+                .tag("salle", String.valueOf(salleId))
+                .tag("nom", nom == null ? "" : nom)
+                .register(meterRegistry);
+    }
+
+    private static void apresValidation(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,20 +1,126 @@
-package com.efrei.easybooking.Service;
-
-import com.efrei.easybooking.Entity.Salle;
-import com.efrei.easybooking.Repository.SalleRepository;
-import org.springframework.stereotype.Service;
-
-import java.util.List;
-
-@Service
-public class SalleService {
-    private final SalleRepository salleRepository;
-
-    public SalleService(SalleRepository salleRepository) {
-        this.salleRepository = salleRepository;
-    }
-
-    public List<Salle> findAll(){
-        return salleRepository.findAll();
-    }
-}
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.CreneauLibreDTO;
+import com.efrei.easybooking.DTO.PageDTO;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class SalleService {
+    private final CatalogueSalles catalogueSalles;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final ReservationRepository reservationRepository;
+
+    public SalleService(CatalogueSalles catalogueSalles, DisponibiliteIndex disponibiliteIndex,
+                        ReservationRepository reservationRepository) {
+        this.catalogueSalles = catalogueSalles;
+        this.disponibiliteIndex = disponibiliteIndex;
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Salles par ordre d'identifiant, par pages de {@code limite} au plus (pagination par clé), découpées
+     * dans le catalogue en cache : la page reprend après l'identifiant du curseur, trouvé par dichotomie.
+     */
+    public PageDTO<Salle> findPage(String curseur, Integer limite) {
+        int taille = Pagination.limite(limite);
+        long apres = Pagination.lireIdentifiant(curseur);
+        List<Salle> salles = catalogueSalles.toutes();
+
+        int debut = 0;
+        int fin = salles.size();
+        while (debut < fin) {
+            int milieu = (debut + fin) >>> 1;
+            if (salles.get(milieu).getId() <= apres) {
+                debut = milieu + 1;
+            } else {
+                fin = milieu;
+            }
+        }
+        List<Salle> lues = salles.subList(debut, Math.min(salles.size(), debut + taille + 1));
+        return Pagination.page(lues, taille, salle -> Pagination.curseur(salle.getId()));
+    }
+
+    /**
+     * Salles libres sur tout le créneau [debut, fin[. Les salles dont le planning est en mémoire sont
+     * vérifiées dans l'index (une recherche en O(log n) par salle) ; les autres le sont toutes ensemble
+     * par une seule requête bornée au créneau, sans charger leur historique.
+     */
+    public List<Salle> findDisponibles(LocalDateTime debut, LocalDateTime fin) {
+        if (!debut.isBefore(fin)) {
+            throw new RuntimeException("La date de début doit être avant la date de fin");
+        }
+        List<Salle> salles = catalogueSalles.toutes();
+        Set<Long> occupees = new HashSet<>();
+        List<Long> nonChargees = new ArrayList<>();
+        for (Salle salle : salles) {
+            Optional<Boolean> chevauche = disponibiliteIndex.chevaucheSiCharge(salle.getId(), debut, fin);
+            if (chevauche.isEmpty()) {
+                nonChargees.add(salle.getId());
+            } else if (chevauche.get()) {
+                occupees.add(salle.getId());
+            }
+        }
+        if (!nonChargees.isEmpty()) {
+            occupees.addAll(reservationRepository.findSalleIdsOccupees(nonChargees, debut, fin));
+        }
+        return salles.stream()
+                .filter(salle -> !occupees.contains(salle.getId()))
+                .toList();
+    }
+
+    /**
+     * Pour chaque salle, le premier créneau libre de la durée demandée dans la fenêtre [debut, fin],
+     * du plus tôt au plus tard. Les salles sans créneau assez long sont omises. Comme pour
+     * {@link #findDisponibles}, les salles absentes de l'index sont lues ensemble en une seule requête.
+     */
+    public List<CreneauLibreDTO> findPremiersCreneauxLibres(LocalDateTime debut, LocalDateTime fin, Duration duree) {
+        if (!debut.isBefore(fin)) {
+            throw new RuntimeException("La date de début doit être avant la date de fin");
+        }
+        if (duree.isNegative() || duree.isZero() || debut.plus(duree).isAfter(fin)) {
+            throw new RuntimeException("La durée doit être positive et tenir dans la fenêtre de recherche");
+        }
+
+        List<Salle> salles = catalogueSalles.toutes();
+        Map<Long, List<Reservation>> reservationsParSalle = new HashMap<>();
+        List<Long> nonChargees = new ArrayList<>();
+        for (Salle salle : salles) {
+            Optional<List<Reservation>> candidats = disponibiliteIndex.candidatsSiCharge(salle.getId(), debut, fin);
+            if (candidats.isPresent()) {
+                reservationsParSalle.put(salle.getId(), candidats.get());
+            } else {
+                nonChargees.add(salle.getId());
+                reservationsParSalle.put(salle.getId(), new ArrayList<>());
+            }
+        }
+        if (!nonChargees.isEmpty()) {
+            // triées par salle puis par début : chaque liste reste triée
+            for (Reservation reservation : reservationRepository.findBySalleIdInSurPeriode(nonChargees, debut, fin)) {
+                reservationsParSalle.get(reservation.getSalle().getId()).add(reservation);
+            }
+        }
+
+        List<CreneauLibreDTO> creneaux = new ArrayList<>();
+        for (Salle salle : salles) {
+            DisponibiliteIndex.premierCreneauLibre(reservationsParSalle.get(salle.getId()), debut, fin, duree)
+                    .ifPresent(creneau -> creneaux.add(
+                            new CreneauLibreDTO(salle.getId(), salle.getNom(), creneau, creneau.plus(duree))));
+        }
+        creneaux.sort(Comparator.comparing(CreneauLibreDTO::dateDebut).thenComparing(CreneauLibreDTO::salleId));
+        return creneaux;
+    }
+}
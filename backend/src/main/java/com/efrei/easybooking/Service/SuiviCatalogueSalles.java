@@ -0,0 +1,51 @@
+package com.efrei.easybooking.Service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+
+import com.efrei.easybooking.Entity.Salle;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Listener JPA de {@link Salle} (instancié par Spring, d'où l'injection) : toute salle créée, modifiée
+ * ou supprimée change la version du catalogue, et celle de la salle puisque son nom figure dans les
+ * réservations renvoyées. Les caches de {@link CatalogueSalles} sont vidés à la fin de la transaction,
+ * validée ou annulée, pour ne garder ni l'état d'avant la validation ni une salle jamais validée.
+ * Une salle créée ou supprimée ajoute ou retire aussi sa jauge dans {@link SalleMetriques}, résolu à
+ * l'usage : il dépend des repositories, qui ne peuvent exister avant ce listener.
+ */
+public class SuiviCatalogueSalles {
+
+    private final VersionsSalles versionsSalles;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<SalleMetriques> salleMetriques;
+
+    public SuiviCatalogueSalles(VersionsSalles versionsSalles, CacheManager cacheManager,
+                                ObjectProvider<SalleMetriques> salleMetriques) {
+        this.versionsSalles = versionsSalles;
+        this.cacheManager = cacheManager;
+        this.salleMetriques = salleMetriques;
+    }
+
+    @PostPersist
+    void salleCreee(Salle salle) {
+        salleModifiee(salle);
+        salleMetriques.ifAvailable(metriques -> metriques.salleCreee(salle));
+    }
+
+    @PostRemove
+    void salleSupprimee(Salle salle) {
+        salleModifiee(salle);
+        salleMetriques.ifAvailable(metriques -> metriques.salleSupprimee(salle));
+    }
+
+    @PostUpdate
+    void salleModifiee(Salle salle) {
+        versionsSalles.catalogueModifie();
+        versionsSalles.salleModifiee(salle.getId());
+        VersionsSalles.apresTransaction(() -> CatalogueSalles.invalider(cacheManager, salle.getId()));
+    }
+}
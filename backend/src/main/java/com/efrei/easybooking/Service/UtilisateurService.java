@@ -1,10 +1,16 @@
 package com.efrei.easybooking.Service;
 
+import com.efrei.easybooking.DTO.PageDTO;
+import com.efrei.easybooking.DTO.UtilisateurVueDTO;
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class UtilisateurService {
@@ -20,7 +26,23 @@ public class UtilisateurService {
                 .orElseThrow(() -> new RuntimeException("User not found!"));
     }
 
-    public List<Utilisateur> getAllUsers() {
-        return utilisateurRepository.findAll();
+    /**
+     * Utilisateurs (identifiant et email) par ordre d'identifiant, par pages de {@code limite} au plus
+     * (pagination par clé).
+     */
+    public PageDTO<UtilisateurVueDTO> getAllUsers(String curseur, Integer limite) {
+        int taille = Pagination.limite(limite);
+        List<UtilisateurVueDTO> utilisateurs = utilisateurRepository.findVuesByIdGreaterThan(
+                Pagination.lireIdentifiant(curseur), Limit.of(taille + 1));
+        return Pagination.page(utilisateurs, taille, utilisateur -> Pagination.curseur(utilisateur.id()));
+    }
+
+    /**
+     * Tous les utilisateurs par ordre d'identifiant, passés à {@code lecture} au fur et à mesure de leur
+     * lecture en base (export). Le flux n'est valable que pendant l'appel.
+     */
+    @Transactional(readOnly = true)
+    public <R> R lireUtilisateurs(Function<Stream<UtilisateurVueDTO>, R> lecture) {
+        return lecture.apply(utilisateurRepository.streamVues());
     }
 }
@@ -0,0 +1,81 @@
+package com.efrei.easybooking.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Compteurs de modification en mémoire : un par salle (ses réservations, lues par jour ou en créneaux)
+ * et un pour le catalogue des salles. Ils servent d'ETag fort : une requête conditionnelle dont
+ * l'If-None-Match est encore à jour reçoit un 304 sans aucune requête en base.
+ *
+ * <p>Un compteur est incrémenté à la fin de la transaction qui modifie (validée ou annulée) : une lecture
+ * faite pendant la transaction porte l'ancienne version et sera donc relue ensuite. Les compteurs sont
+ * propres à l'instance, comme {@link DisponibiliteIndex} qui sert ces lectures ; l'époque tirée au
+ * démarrage évite qu'une instance redémarrée ou voisine reconnaisse l'ETag d'une autre.
+ *
+ * <p>Une modification faite sur une autre instance n'incrémente pas ces compteurs. Les ETags des salles
+ * changent donc aussi à chaque période de {@code easybooking.disponibilite.expiration}, la durée au bout
+ * de laquelle l'index relit ses plannings : un client n'obtient pas de 304 sur une donnée plus ancienne.
+ * Le catalogue n'a pas ce terme de période (il garde ses 304 tant qu'il ne change pas) : sa version
+ * avance aussi à chaque relecture en base par {@link CatalogueSalles}, à l'expiration de son cache.
+ */
+@Component
+public class VersionsSalles {
+
+    private final String epoque = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final ConcurrentHashMap<Long, AtomicLong> parSalle = new ConcurrentHashMap<>();
+    private final AtomicLong catalogue = new AtomicLong();
+    private final long periodeMs;
+
+    public VersionsSalles(@Value("${easybooking.disponibilite.expiration:30s}") Duration periode) {
+        this.periodeMs = Math.max(1, periode.toMillis());
+    }
+
+    public String etagSalle(Long salleId) {
+        AtomicLong version = parSalle.get(salleId);
+        return "\"" + epoque + "-s" + salleId + "-" + (version == null ? 0 : version.get()) + "-" + periode() + "\"";
+    }
+
+    public String etagCatalogue() {
+        return "\"" + epoque + "-c" + catalogue.get() + "\"";
+    }
+
+    private long periode() {
+        return System.currentTimeMillis() / periodeMs;
+    }
+
+    public void salleModifiee(Long salleId) {
+        apresTransaction(() -> parSalle.computeIfAbsent(salleId, id -> new AtomicLong()).incrementAndGet());
+    }
+
+    public void catalogueModifie() {
+        apresTransaction(catalogue::incrementAndGet);
+    }
+
+    /**
+     * Le catalogue vient d'être relu en base : il peut contenir une modification faite sur une autre instance.
+     */
+    public void catalogueRelu() {
+        catalogue.incrementAndGet();
+    }
+
+    static void apresTransaction(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
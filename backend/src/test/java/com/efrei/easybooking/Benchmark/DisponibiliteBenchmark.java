@@ -0,0 +1,129 @@
+package com.efrei.easybooking.Benchmark;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Service.DisponibiliteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare trois façons de vérifier qu'un créneau est libre dans une salle :
+ * le filtre de stream historique sur toutes les réservations, le parcours exact du planning trié
+ * de {@link DisponibiliteIndex}, et la grille de créneaux bit à bit.
+ * <p>
+ * Lancement : {@code mvn test-compile} puis
+ * {@code java -cp "target/test-classes:target/classes:$(cat cp.txt)" org.openjdk.jmh.Main DisponibiliteBenchmark}
+ * après {@code mvn dependency:build-classpath -Dmdep.outputFile=cp.txt}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisponibiliteBenchmark {
+
+    private static final int RESERVATIONS_PAR_JOUR = 8;
+    private static final int NOMBRE_REQUETES = 1_024;
+
+    @Param({"1000", "100000"})
+    private int nombreReservations;
+
+    private List<Reservation> toutesLesReservations;
+    private DisponibiliteIndex indexExact;
+    private DisponibiliteIndex indexCreneaux;
+    private LocalDateTime[] debuts;
+    private int curseur;
+
+    @Setup
+    public void preparer() {
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Salle autreSalle = new Salle();
+        autreSalle.setId(2L);
+
+        // journées de 8h à 18h, une réservation d'une heure sur deux : moitié des requêtes en conflit
+        LocalDateTime origine = LocalDateTime.of(2026, 1, 1, 8, 0);
+        List<Reservation> reservationsSalle = new ArrayList<>();
+        toutesLesReservations = new ArrayList<>();
+        for (int i = 0; i < nombreReservations; i++) {
+            LocalDateTime debut = origine.plusDays(i / RESERVATIONS_PAR_JOUR).plusHours(i % RESERVATIONS_PAR_JOUR);
+            Reservation r = new Reservation();
+            r.setId((long) i + 1);
+            r.setSalle(i % 2 == 0 ? salle : autreSalle);
+            r.setDateDebut(debut);
+            r.setDateFin(debut.plusHours(1));
+            toutesLesReservations.add(r);
+            if (r.getSalle() == salle) {
+                reservationsSalle.add(r);
+            }
+        }
+
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findBySalleId(1L)).thenReturn(reservationsSalle);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        indexExact = new DisponibiliteIndex(repository, transactionManager, false, Duration.ofMinutes(10));
+        indexCreneaux = new DisponibiliteIndex(repository, transactionManager, true, Duration.ofMinutes(10));
+
+        Random random = new Random(42);
+        int jours = nombreReservations / RESERVATIONS_PAR_JOUR;
+        debuts = new LocalDateTime[NOMBRE_REQUETES];
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            debuts[i] = origine.plusDays(random.nextInt(jours)).plusHours(random.nextInt(RESERVATIONS_PAR_JOUR));
+        }
+        // échauffement des plannings et des grilles de chaque jour interrogé
+        for (LocalDateTime debut : debuts) {
+            indexExact.chevauche(1L, debut, debut.plusHours(1));
+            indexCreneaux.chevauche(1L, debut, debut.plusHours(1));
+        }
+    }
+
+    private LocalDateTime prochainDebut() {
+        curseur = (curseur + 1) & (NOMBRE_REQUETES - 1);
+        return debuts[curseur];
+    }
+
+    @Benchmark
+    public boolean filtreStream() {
+        LocalDateTime debut = prochainDebut();
+        LocalDateTime fin = debut.plusHours(1);
+        return !toutesLesReservations.stream()
+                .filter(r -> r.getSalle().getId().equals(1L))
+                .filter(r -> debut.isBefore(r.getDateFin()) && fin.isAfter(r.getDateDebut()))
+                .toList()
+                .isEmpty();
+    }
+
+    @Benchmark
+    public boolean planningExact() {
+        LocalDateTime debut = prochainDebut();
+        return indexExact.chevauche(1L, debut, debut.plusHours(1));
+    }
+
+    @Benchmark
+    public boolean grilleCreneaux() {
+        LocalDateTime debut = prochainDebut();
+        return indexCreneaux.chevauche(1L, debut, debut.plusHours(1));
+    }
+}
@@ -0,0 +1,166 @@
+package com.efrei.easybooking.Benchmark;
+
+import com.efrei.easybooking.DTO.PageDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.EasyBookingApplication;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.efrei.easybooking.Service.AuthService;
+import com.efrei.easybooking.Service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks de la couche service avec le contexte Spring complet sur la base H2 du profil test,
+ * pour plusieurs volumes de réservations. Le mode SampleTime donne la distribution des latences
+ * (p50, p90, p99...) et non une simple moyenne. Lancement : {@code mvn -Pbenchmark test}.
+ * <p>
+ * Les réservations sont réparties sur 100 salles et 1 000 utilisateurs, par créneaux d'une heure
+ * de 8h à 16h : à 1 million, chaque salle a 10 000 réservations sur un peu plus de 3 ans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceBenchmark {
+
+    private static final int NOMBRE_SALLES = 100;
+    private static final int NOMBRE_UTILISATEURS = 1_000;
+    private static final int CRENEAUX_PAR_JOUR = 8;
+    private static final int TAILLE_LOT_INSERTION = 10_000;
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2030, 1, 1, 8, 0);
+    private static final String EMAIL_CONNEXION = "benchmark@easybooking.fr";
+    private static final String MOT_DE_PASSE = "motdepasse";
+
+    @Param({"1000", "100000", "1000000"})
+    private int nombreReservations;
+
+    private ConfigurableApplicationContext contexte;
+    private ReservationService reservationService;
+    private AuthService authService;
+    private final List<Long> salleIds = new ArrayList<>();
+    private final List<Long> utilisateurIds = new ArrayList<>();
+    private int nombreJours;
+    private final AtomicLong compteur = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        contexte = new SpringApplicationBuilder(EasyBookingApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+        reservationService = contexte.getBean(ReservationService.class);
+        authService = contexte.getBean(AuthService.class);
+
+        SalleRepository salleRepository = contexte.getBean(SalleRepository.class);
+        List<Salle> salles = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_SALLES; i++) {
+            Salle salle = new Salle();
+            salle.setNom("Salle " + i);
+            salle.setLocation("Étage " + (i % 10));
+            salles.add(salle);
+        }
+        salleRepository.saveAll(salles).forEach(s -> salleIds.add(s.getId()));
+
+        UtilisateurRepository utilisateurRepository = contexte.getBean(UtilisateurRepository.class);
+        List<Utilisateur> utilisateurs = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_UTILISATEURS; i++) {
+            Utilisateur utilisateur = new Utilisateur();
+            utilisateur.setEmail("utilisateur" + i + "@easybooking.fr");
+            utilisateur.setPassword(MOT_DE_PASSE);
+            utilisateurs.add(utilisateur);
+        }
+        utilisateurRepository.saveAll(utilisateurs).forEach(u -> utilisateurIds.add(u.getId()));
+        authService.register(EMAIL_CONNEXION, MOT_DE_PASSE);
+
+        insererReservations(contexte.getBean(JdbcTemplate.class));
+        nombreJours = Math.max(1, nombreReservations / NOMBRE_SALLES / CRENEAUX_PAR_JOUR);
+    }
+
+    private void insererReservations(JdbcTemplate jdbcTemplate) {
+        List<Object[]> lignes = new ArrayList<>(TAILLE_LOT_INSERTION);
+        for (int i = 0; i < nombreReservations; i++) {
+            int creneau = i / NOMBRE_SALLES;
+            LocalDateTime debut = ORIGINE.plusDays(creneau / CRENEAUX_PAR_JOUR).plusHours(creneau % CRENEAUX_PAR_JOUR);
+            lignes.add(new Object[]{
+                    salleIds.get(i % NOMBRE_SALLES), utilisateurIds.get(i % NOMBRE_UTILISATEURS),
+                    Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))
+            });
+            if (lignes.size() == TAILLE_LOT_INSERTION || i == nombreReservations - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                                + " values (next value for reservation_seq, ?, ?, ?, ?)",
+                        lignes);
+                lignes.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        contexte.close();
+    }
+
+    @Benchmark
+    public Reservation creerReservation() {
+        // chaque appel prend l'heure suivante d'une salle, après les données existantes : jamais de conflit
+        long n = compteur.getAndIncrement();
+        LocalDateTime debut = ORIGINE.plusYears(10).plusHours(n / NOMBRE_SALLES);
+        return reservationService.creerReservation(salleIds.get((int) (n % NOMBRE_SALLES)),
+                utilisateurIds.get((int) (n % NOMBRE_UTILISATEURS)), debut, debut.plusHours(1));
+    }
+
+    @Benchmark
+    public List<ReservationVueDTO> getReservationsBySalleAndDate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = ORIGINE.toLocalDate().plusDays(random.nextInt(nombreJours));
+        return reservationService.getReservationsBySalleAndDate(salleIds.get(random.nextInt(NOMBRE_SALLES)), date);
+    }
+
+    @Benchmark
+    public PageDTO<ReservationVueDTO> getReservationsByUser() {
+        return reservationService.getReservationsByUser(
+                utilisateurIds.get(ThreadLocalRandom.current().nextInt(NOMBRE_UTILISATEURS)), null, null);
+    }
+
+    @Benchmark
+    public Utilisateur login() {
+        return authService.login(EMAIL_CONNEXION, MOT_DE_PASSE);
+    }
+
+    @Benchmark
+    public Utilisateur register() {
+        return authService.register("inscription" + compteur.getAndIncrement() + "@easybooking.fr", MOT_DE_PASSE);
+    }
+}
@@ -0,0 +1,90 @@
+package com.efrei.easybooking.Config;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rattrapage de la séquence des réservations sur une base déjà remplie. Pas de @Transactional :
+ * ALTER SEQUENCE valide la transaction en cours sur H2.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SequenceReservationsIntegrationTest {
+
+    @Autowired
+    private SequenceReservations sequenceReservations;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    private Salle salle;
+    private Utilisateur utilisateur;
+    private long idExistant;
+
+    @BeforeEach
+    void setUp() {
+        salle = new Salle();
+        salle.setNom("Salle séquence");
+        salle.setLocation("Bâtiment S");
+        salle = salleRepository.save(salle);
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("sequence@test.com");
+        utilisateur.setPassword("password");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where id = ?", idExistant);
+        salleRepository.delete(salle);
+        utilisateurRepository.delete(utilisateur);
+    }
+
+    private long valeurSuivante() {
+        return jdbcTemplate.queryForObject("select next value for " + Reservation.SEQUENCE, Long.class);
+    }
+
+    @Test
+    void SequencePlaceeAuDessusDesIdentifiantsExistantsSansJamaisReculer() {
+        // réservation écrite avant la séquence (ancien identifiant IDENTITY), loin devant la séquence
+        idExistant = valeurSuivante() + 1_000_000;
+        LocalDateTime debut = LocalDateTime.of(2027, 6, 1, 10, 0);
+        jdbcTemplate.update("insert into reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                        + " values (?, ?, ?, ?, ?)",
+                idExistant, salle.getId(), utilisateur.getId(),
+                Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1)));
+
+        sequenceReservations.rattraper();
+
+        // Hibernate réserve le bloc qui se termine à la valeur lue : tout le bloc doit être libre
+        long rattrapee = valeurSuivante();
+        assertTrue(rattrapee - Reservation.TAILLE_BLOC_IDENTIFIANTS + 1 > idExistant,
+                "La séquence doit repartir au-dessus de " + idExistant + ", mais vaut " + rattrapee);
+
+        sequenceReservations.rattraper();
+
+        assertTrue(valeurSuivante() > rattrapee, "Un redémarrage ne doit pas faire reculer la séquence");
+    }
+}
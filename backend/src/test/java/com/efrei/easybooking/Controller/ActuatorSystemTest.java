@@ -0,0 +1,80 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.DTO.LoginDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Service.DisponibiliteIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ActuatorSystemTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private DisponibiliteIndex disponibiliteIndex;
+
+    @Test
+    void PrometheusExposeLesMetriquesDeConnexionEtDeReservation() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginDTO("inconnu@test.com", "password"))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("easybooking_auth_connexions_total{application=\"easybooking\",resultat=\"echec\"}")))
+                .andExpect(content().string(containsString("easybooking_auth_login_seconds_bucket")))
+                .andExpect(content().string(containsString("easybooking_salle_reservations{")));
+    }
+
+    @Test
+    void SalleCreeeApresLeDemarrageAUneJaugeQuiNeChargePasSonPlanning() {
+        Salle salle = new Salle();
+        salle.setNom("Salle jauge");
+        salle = salleRepository.save(salle);
+        String salleId = String.valueOf(salle.getId());
+        try {
+            Gauge jauge = meterRegistry.get("easybooking.salle.reservations").tag("salle", salleId).gauge();
+
+            // collecte : le planning n'est pas lu en base pour autant
+            assertTrue(Double.isNaN(jauge.value()));
+            assertFalse(disponibiliteIndex.contientSalle(salle.getId()));
+
+            disponibiliteIndex.chevauche(salle.getId(), LocalDateTime.of(2027, 1, 1, 8, 0), LocalDateTime.of(2027, 1, 1, 9, 0));
+            assertEquals(0.0, jauge.value());
+        } finally {
+            salleRepository.delete(salle);
+        }
+        assertNull(meterRegistry.find("easybooking.salle.reservations").tag("salle", salleId).gauge());
+    }
+}
@@ -0,0 +1,176 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.DTO.LoginDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.efrei.easybooking.Service.AuthService;
+import com.efrei.easybooking.Service.DisponibiliteIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vague de connexions avec un vrai coût BCrypt et un pool de hachage réduit à un thread :
+ * les lectures de réservations doivent garder leur latence pendant que les connexions en trop
+ * sont refusées en 503. Pas de @Transactional : les requêtes partent de plusieurs threads.
+ */
+@SpringBootTest(properties = {
+        "easybooking.auth.bcrypt-cout=10",
+        "easybooking.auth.hachage.threads=1",
+        "easybooking.auth.hachage.file=2"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@DisplayName("Tests de charge sur la connexion")
+class AuthChargePerformanceTest {
+
+    private static final int THREADS_CONNEXION = 8;
+    private static final int LECTURES = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private DisponibiliteIndex disponibiliteIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Salle salle;
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        salle = new Salle();
+        salle.setNom("Salle charge");
+        salle.setLocation("Bâtiment D");
+        salle = salleRepository.save(salle);
+
+        utilisateur = authService.register("charge@test.com", "password123");
+
+        LocalDateTime origine = LocalDateTime.of(2028, 6, 1, 8, 0);
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime debut = origine.plusMinutes(15L * i);
+            lignes.add(new Object[]{
+                    salle.getId(), utilisateur.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusMinutes(15))
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                        + " values (next value for reservation_seq, ?, ?, ?, ?)",
+                lignes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from reservation where salle_id = ?", salle.getId());
+        disponibiliteIndex.invalider(salle.getId());
+        salleRepository.delete(salle);
+        utilisateurRepository.delete(utilisateur);
+    }
+
+    @Test
+    @DisplayName("Les lectures de réservations gardent leur latence pendant une vague de connexions")
+    void lecturesReservationsRestentRapidesPendantUneVagueDeConnexions() throws Exception {
+        // échauffement puis latence de référence, sans connexions en cours
+        mesurerLectures(LECTURES);
+        double p95Reference = p95(mesurerLectures(LECTURES));
+
+        String corpsConnexion = objectMapper.writeValueAsString(new LoginDTO("charge@test.com", "password123"));
+        AtomicBoolean arret = new AtomicBoolean();
+        AtomicInteger reussies = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS_CONNEXION);
+        for (int i = 0; i < THREADS_CONNEXION; i++) {
+            clients.submit(() -> {
+                while (!arret.get()) {
+                    int statut = mockMvc.perform(post("/login")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(corpsConnexion))
+                            .andReturn().getResponse().getStatus();
+                    if (statut == 503) {
+                        refusees.incrementAndGet();
+                        // client impatient : réessaie après 50 ms au lieu d'attendre le Retry-After
+                        Thread.sleep(50);
+                    } else if (statut == 200) {
+                        reussies.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        double p95Charge;
+        try {
+            Thread.sleep(200);
+            p95Charge = p95(mesurerLectures(LECTURES));
+        } finally {
+            arret.set(true);
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertTrue(reussies.get() > 0, "Des connexions doivent aboutir pendant la vague");
+        assertTrue(refusees.get() > 0, "Le pool de hachage saturé doit refuser des connexions en 503");
+        assertTrue(p95Charge < Math.max(4 * p95Reference, 20),
+                "Le p95 des lectures doit rester sous 4x la référence de " + p95Reference
+                        + " ms pendant la vague de connexions, mais vaut " + p95Charge + " ms");
+    }
+
+    private double[] mesurerLectures(int nombre) throws Exception {
+        double[] durees = new double[nombre];
+        for (int i = 0; i < nombre; i++) {
+            long debut = System.nanoTime();
+            mockMvc.perform(get("/reservations/salle/{salleId}", salle.getId()).param("date", "2028-06-01"))
+                    .andExpect(status().isOk());
+            durees[i] = (System.nanoTime() - debut) / 1_000_000.0;
+        }
+        return durees;
+    }
+
+    private static double p95(double[] durees) {
+        double[] triees = durees.clone();
+        Arrays.sort(triees);
+        return triees[(int) Math.ceil(triees.length * 0.95) - 1];
+    }
+}
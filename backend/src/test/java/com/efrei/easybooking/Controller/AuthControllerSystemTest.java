@@ -10,10 +10,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import tools.jackson.databind.ObjectMapper;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +39,12 @@ class AuthControllerSystemTest {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ThreadPoolExecutor executeurHachage;
+
     @BeforeEach
     void setUp() {
         utilisateurRepository.deleteAll();
@@ -59,7 +71,9 @@ class AuthControllerSystemTest {
                 .andExpect(status().isCreated());
 
         assertTrue(utilisateurRepository.findByEmail("test@test.com").isPresent());
-        assertEquals("password123", utilisateurRepository.findByEmail("test@test.com").get().getPassword());
+        String stocke = utilisateurRepository.findByEmail("test@test.com").get().getPassword();
+        assertNotEquals("password123", stocke);
+        assertTrue(passwordEncoder.matches("password123", stocke));
     }
 
     @Test
@@ -196,4 +210,52 @@ class AuthControllerSystemTest {
         assertTrue(utilisateurRepository.findByEmail("user1@test.com").isPresent());
         assertTrue(utilisateurRepository.findByEmail("user2@test.com").isPresent());
     }
+
+    @Test
+    void LoginRetourne503AvecRetryAfterQuandHachageSature() throws Exception {
+        RegisterDTO registerDTO = new RegisterDTO("test@test.com", "password123");
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO)))
+                .andExpect(status().isCreated());
+
+        // On bloque d'abord chaque thread du pool de hachage sur une tâche démarrée, puis on remplit sa file
+        // jusqu'au premier refus : un thread encore occupé ailleurs libérerait sinon une place de la file
+        CountDownLatch liberation = new CountDownLatch(1);
+        try {
+            int threads = executeurHachage.getMaximumPoolSize();
+            CountDownLatch occupes = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                executeurHachage.execute(() -> {
+                    occupes.countDown();
+                    attendre(liberation);
+                });
+            }
+            assertTrue(occupes.await(10, TimeUnit.SECONDS));
+            try {
+                while (true) {
+                    executeurHachage.execute(() -> attendre(liberation));
+                }
+            } catch (RejectedExecutionException sature) {
+                // pool et file pleins
+            }
+
+            LoginDTO loginDTO = new LoginDTO("test@test.com", "password123");
+            mockMvc.perform(post("/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginDTO)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            liberation.countDown();
+        }
+    }
+
+    private static void attendre(CountDownLatch liberation) {
+        try {
+            liberation.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
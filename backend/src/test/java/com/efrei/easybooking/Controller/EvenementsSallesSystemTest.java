@@ -0,0 +1,122 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.efrei.easybooking.Service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /salles/{id}/events sur un vrai port HTTP : le flux reste ouvert et reçoit les réservations créées
+ * puis supprimées dans la salle. Pas de @Transactional : les événements partent à la validation.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class EvenementsSallesSystemTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Salle salle;
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        salle = new Salle();
+        salle.setNom("Salle événements");
+        salle.setLocation("Bâtiment F");
+        salle = salleRepository.save(salle);
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("evenements@test.com");
+        utilisateur.setPassword("password123");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    @AfterEach
+    void tearDown() {
+        utilisateurRepository.delete(utilisateur);
+        salleRepository.delete(salle);
+    }
+
+    private HttpRequest evenements(Long salleId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + environment.getProperty("local.server.port")
+                        + "/salles/" + salleId + "/events"))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    // lignes "event:" et "data:" du prochain événement nommé (les commentaires et "retry:" sont ignorés)
+    private static String prochainEvenement(Iterator<String> lignes) {
+        String nom = null;
+        while (lignes.hasNext()) {
+            String ligne = lignes.next();
+            if (ligne.startsWith("event:")) {
+                nom = ligne;
+            } else if (nom != null && ligne.startsWith("data:")) {
+                return nom + "\n" + ligne;
+            }
+        }
+        throw new AssertionError("Flux terminé avant l'événement attendu");
+    }
+
+    @Test
+    void ReservationsCreeesPuisSupprimeesPousseesSurLeFlux() throws Exception {
+        HttpResponse<Stream<String>> reponse = client.send(evenements(salle.getId()), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, reponse.statusCode());
+        assertTrue(reponse.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+
+        try (Stream<String> flux = reponse.body()) {
+            Iterator<String> lignes = flux.iterator();
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                Reservation reservation = reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                        LocalDateTime.of(2027, 7, 5, 9, 0), LocalDateTime.of(2027, 7, 5, 10, 0));
+
+                String creee = prochainEvenement(lignes);
+                assertTrue(creee.startsWith("event:reservations-creees\ndata:[{\"id\":" + reservation.getId() + ","), creee);
+                assertTrue(creee.contains("\"salleNom\":\"Salle événements\""), creee);
+
+                reservationService.supprimerReservationPourUtilisateur(reservation.getId(), utilisateur.getId());
+                assertTrue(prochainEvenement(lignes).startsWith(
+                        "event:reservations-supprimees\ndata:[{\"id\":" + reservation.getId() + ","));
+            });
+        }
+    }
+
+    @Test
+    void SalleInconnueRefusee() throws Exception {
+        HttpResponse<String> reponse = client.send(evenements(-1L), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, reponse.statusCode());
+    }
+}
@@ -0,0 +1,162 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /allusers/export et GET /reservations/export sur un vrai port HTTP, pour passer par la compression
+ * gzip de Tomcat. Pas de @Transactional : les données insérées sont lues par les threads du serveur.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ExportJsonSystemTest {
+
+    private static final int NOMBRE_UTILISATEURS = 3000;
+    private static final int NOMBRE_RESERVATIONS = 2500;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Salle salle;
+
+    @BeforeEach
+    void setUp() {
+        salle = new Salle();
+        salle.setNom("Salle export");
+        salle.setLocation("Bâtiment H");
+        salle = salleRepository.save(salle);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservation WHERE salle_id = ?", salle.getId());
+        jdbcTemplate.update("DELETE FROM utilisateur WHERE email LIKE 'export-%@test.com'");
+        salleRepository.delete(salle);
+    }
+
+    private String url(String chemin) {
+        return "http://localhost:" + environment.getProperty("local.server.port") + chemin;
+    }
+
+    private HttpResponse<InputStream> exporter(String chemin, String cookie) throws Exception {
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create(url(chemin))).header("Accept-Encoding", "gzip");
+        if (cookie != null) {
+            requete.header("Cookie", cookie);
+        }
+        return client.send(requete.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    // la réponse doit être compressée et envoyée par morceaux, sans longueur connue à l'avance
+    private JsonNode lireGzip(HttpResponse<InputStream> reponse) throws Exception {
+        assertEquals(200, reponse.statusCode());
+        assertEquals("gzip", reponse.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(reponse.headers().firstValue("Content-Length").isEmpty());
+        try (InputStream corps = new GZIPInputStream(reponse.body())) {
+            return objectMapper.readTree(corps);
+        }
+    }
+
+    private String connecter(String email) throws Exception {
+        String identifiants = "{\"email\":\"" + email + "\",\"password\":\"password123\"}";
+        for (String chemin : List.of("/register", "/login")) {
+            HttpResponse<String> reponse = client.send(HttpRequest.newBuilder(URI.create(url(chemin)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(identifiants))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertTrue(reponse.statusCode() < 300, chemin + " : " + reponse.body());
+            if (chemin.equals("/login")) {
+                String cookie = reponse.headers().firstValue("Set-Cookie").orElseThrow();
+                return cookie.substring(0, cookie.indexOf(';'));
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Test
+    void ExportDesUtilisateursCompresseSansMotDePasse() throws Exception {
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_UTILISATEURS; i++) {
+            lignes.add(new Object[]{"export-" + i + "@test.com", "motdepasse"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO utilisateur (email, password) VALUES (?, ?)", lignes);
+
+        JsonNode utilisateurs = lireGzip(exporter("/allusers/export", null));
+
+        assertEquals(utilisateurRepository.count(), utilisateurs.size());
+        long precedent = Long.MIN_VALUE;
+        for (JsonNode utilisateur : utilisateurs) {
+            assertTrue(utilisateur.get("id").asLong() > precedent);
+            precedent = utilisateur.get("id").asLong();
+            assertNotNull(utilisateur.get("email"));
+            assertNull(utilisateur.get("password"));
+        }
+    }
+
+    @Test
+    void ExportDesReservationsDeLUtilisateurConnecteUniquement() throws Exception {
+        String cookie = connecter("export-moi@test.com");
+        Utilisateur moi = utilisateurRepository.findByEmail("export-moi@test.com").orElseThrow();
+        Utilisateur autre = new Utilisateur();
+        autre.setEmail("export-autre@test.com");
+        autre.setPassword("password123");
+        autre = utilisateurRepository.save(autre);
+
+        // insérées dans le désordre : l'export doit suivre (dateDebut, id)
+        LocalDateTime origine = LocalDateTime.of(2029, 1, 1, 8, 0);
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = NOMBRE_RESERVATIONS - 1; i >= 0; i--) {
+            LocalDateTime debut = origine.plusHours(i);
+            lignes.add(new Object[]{salle.getId(), moi.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))});
+            lignes.add(new Object[]{salle.getId(), autre.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                + " VALUES (NEXT VALUE FOR reservation_seq, ?, ?, ?, ?)", lignes);
+
+        JsonNode reservations = lireGzip(exporter("/reservations/export", cookie));
+
+        assertEquals(NOMBRE_RESERVATIONS, reservations.size());
+        for (int i = 0; i < NOMBRE_RESERVATIONS; i++) {
+            assertEquals(origine.plusHours(i), LocalDateTime.parse(reservations.get(i).get("dateDebut").asString()));
+            assertEquals("Salle export", reservations.get(i).get("salleNom").asString());
+        }
+        assertEquals(401, exporter("/reservations/export", null).statusCode());
+    }
+}
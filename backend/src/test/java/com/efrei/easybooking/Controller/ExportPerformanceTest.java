@@ -0,0 +1,195 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Export de {@value #NOMBRE_RESERVATIONS} réservations par GET /reservations/export : le premier octet doit
+ * arriver bien avant le temps qu'il faudrait pour charger la liste complète et la sérialiser, ce que faisait
+ * une réponse construite en mémoire. Pas de @Transactional : les données sont lues par le serveur.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        // base dédiée qui lit les lignes au fur et à mesure du parcours, comme MySQL avec useCursorFetch=true
+        "spring.datasource.url=jdbc:h2:mem:export;LAZY_QUERY_EXECUTION=TRUE")
+@ActiveProfiles("test")
+@DisplayName("Tests de performance de l'export JSON")
+class ExportPerformanceTest {
+
+    private static final int NOMBRE_RESERVATIONS = 200_000;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Salle salle;
+    private Utilisateur utilisateur;
+    private String cookie;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        salle = new Salle();
+        salle.setNom("Salle export massif");
+        salle.setLocation("Bâtiment H");
+        salle = salleRepository.save(salle);
+
+        String identifiants = "{\"email\":\"export-massif@test.com\",\"password\":\"password123\"}";
+        for (String chemin : List.of("/register", "/login")) {
+            HttpResponse<String> reponse = client.send(HttpRequest.newBuilder(URI.create(url(chemin)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(identifiants))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertTrue(reponse.statusCode() < 300, chemin + " : " + reponse.body());
+            cookie = reponse.headers().firstValue("Set-Cookie").map(c -> c.substring(0, c.indexOf(';'))).orElse(null);
+        }
+        utilisateur = utilisateurRepository.findByEmail("export-massif@test.com").orElseThrow();
+
+        LocalDateTime origine = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_RESERVATIONS; i++) {
+            LocalDateTime debut = origine.plusHours(i);
+            lignes.add(new Object[]{salle.getId(), utilisateur.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                + " VALUES (NEXT VALUE FOR reservation_seq, ?, ?, ?, ?)", lignes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reservation WHERE salle_id = ?", salle.getId());
+        jdbcTemplate.update("DELETE FROM utilisateur WHERE id = ?", utilisateur.getId());
+        salleRepository.delete(salle);
+    }
+
+    private String url(String chemin) {
+        return "http://localhost:" + environment.getProperty("local.server.port") + chemin;
+    }
+
+    private HttpResponse<InputStream> exporter() throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url("/reservations/export")))
+                .header("Accept-Encoding", "gzip")
+                .header("Cookie", cookie)
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private List<ReservationVueDTO> chargerListe() {
+        return reservationRepository.findVuesByUtilisateurId(utilisateur.getId(), Limit.unlimited());
+    }
+
+    @Test
+    @DisplayName("Premier octet de l'export avant le chargement complet de la liste")
+    void PremierOctetAvantLeChargementCompletDeLaListe() throws Exception {
+        // échauffement des deux chemins (JIT, pages de la base)
+        try (InputStream corps = exporter().body()) {
+            corps.transferTo(OutputStream.nullOutputStream());
+        }
+        objectMapper.writeValueAsBytes(chargerListe());
+
+        long debut = System.nanoTime();
+        HttpResponse<InputStream> reponse = exporter();
+        long octetsCompresses;
+        long octets = 0;
+        long premierOctetMs;
+        try (CompteurOctets compresse = new CompteurOctets(reponse.body());
+             InputStream corps = new GZIPInputStream(compresse)) {
+            assertEquals('[', corps.read());
+            premierOctetMs = (System.nanoTime() - debut) / 1_000_000;
+            byte[] tampon = new byte[64 * 1024];
+            for (int lus; (lus = corps.read(tampon)) != -1; ) {
+                octets += lus;
+            }
+            octetsCompresses = compresse.lus;
+        }
+        long totalMs = (System.nanoTime() - debut) / 1_000_000;
+
+        // référence : charger toute la liste puis la sérialiser, avant de pouvoir envoyer le premier octet
+        long debutListe = System.nanoTime();
+        List<ReservationVueDTO> liste = chargerListe();
+        int tailleJson = objectMapper.writeValueAsBytes(liste).length;
+        long dureeListeMs = (System.nanoTime() - debutListe) / 1_000_000;
+        assertEquals(NOMBRE_RESERVATIONS, liste.size());
+
+        System.out.printf("Export de %d réservations : premier octet %d ms, total %d ms, %d octets JSON,"
+                        + " %d octets gzip ; liste complète en mémoire : %d ms%n",
+                NOMBRE_RESERVATIONS, premierOctetMs, totalMs, octets + 1, octetsCompresses, dureeListeMs);
+
+        assertEquals(200, reponse.statusCode());
+        assertEquals(tailleJson, octets + 1);
+        // H2 trie toutes les lignes avant de rendre la première : l'écart est moindre qu'avec un index parcouru dans l'ordre
+        assertTrue(premierOctetMs < dureeListeMs,
+                "Premier octet après " + premierOctetMs + " ms, liste complète en " + dureeListeMs + " ms");
+        assertTrue(octetsCompresses * 5 < octets, "gzip : " + octetsCompresses + " octets pour " + octets);
+    }
+
+    private static final class CompteurOctets extends FilterInputStream {
+
+        private long lus;
+
+        private CompteurOctets(InputStream source) {
+            super(source);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int octet = super.read();
+            if (octet != -1) {
+                lus++;
+            }
+            return octet;
+        }
+
+        @Override
+        public int read(byte[] tampon, int debut, int longueur) throws IOException {
+            int nombre = super.read(tampon, debut, longueur);
+            if (nombre > 0) {
+                lus += nombre;
+            }
+            return nombre;
+        }
+    }
+}
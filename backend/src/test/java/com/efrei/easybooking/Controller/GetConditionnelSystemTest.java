@@ -0,0 +1,155 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.Config.CacheConfig;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.efrei.easybooking.Service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ETags de version sur les lectures de salles : un If-None-Match à jour reçoit un 304 sans requête
+ * SQL, une réservation créée ou une salle ajoutée change l'ETag. Pas de @Transactional : les
+ * versions changent à la fin des transactions, les données créées sont supprimées après chaque test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GetConditionnelSystemTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistiques;
+    private Salle salle;
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        salle = new Salle();
+        salle.setNom("Salle conditionnelle");
+        salle.setLocation("Bâtiment E");
+        salle = salleRepository.save(salle);
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("conditionnel@test.com");
+        utilisateur.setPassword("password123");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ReservationVueDTO reservation : reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements()) {
+            reservationService.supprimerReservationPourUtilisateur(reservation.id(), utilisateur.getId());
+        }
+        utilisateurRepository.delete(utilisateur);
+        salleRepository.delete(salle);
+    }
+
+    @Test
+    void ReservationsDuJourEn304SansRequeteTantQueLaSalleNeChangePas() throws Exception {
+        String etag = mockMvc.perform(get("/reservations/salle/{id}", salle.getId()).param("date", "2027-09-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertFalse(etag.startsWith("W/"), "L'ETag doit être fort");
+
+        statistiques.clear();
+        mockMvc.perform(get("/reservations/salle/{id}", salle.getId()).param("date", "2027-09-01")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/reservations/salle/{id}/creneaux", salle.getId()).param("date", "2027-09-01")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistiques.getPrepareStatementCount(), "Un 304 ne doit exécuter aucune requête SQL");
+
+        reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2027, 9, 1, 9, 0), LocalDateTime.of(2027, 9, 1, 10, 0));
+
+        String nouvelEtag = mockMvc.perform(get("/reservations/salle/{id}", salle.getId()).param("date", "2027-09-01")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nouvelEtag);
+    }
+
+    @Test
+    void CatalogueEn304JusquAAjoutDUneSalle() throws Exception {
+        String etag = mockMvc.perform(get("/salles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistiques.clear();
+        mockMvc.perform(get("/salles").header(HttpHeaders.IF_NONE_MATCH, "\"autre\", " + etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistiques.getPrepareStatementCount());
+
+        Salle ajoutee = new Salle();
+        ajoutee.setNom("Salle ajoutée");
+        ajoutee.setLocation("Bâtiment E");
+        ajoutee = salleRepository.save(ajoutee);
+        try {
+            mockMvc.perform(get("/salles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        } finally {
+            salleRepository.delete(ajoutee);
+        }
+    }
+
+    @Test
+    void CatalogueReluEnBaseALExpirationDeSonCacheChangeDETag() throws Exception {
+        String etag = mockMvc.perform(get("/salles"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // expiration du cache : une salle peut avoir été modifiée par une autre instance entre-temps
+        cacheManager.getCache(CacheConfig.CATALOGUE_SALLES).clear();
+
+        mockMvc.perform(get("/salles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+}
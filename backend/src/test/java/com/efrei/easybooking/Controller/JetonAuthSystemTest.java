@@ -0,0 +1,109 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.DTO.JetonsDTO;
+import com.efrei.easybooking.DTO.LoginDTO;
+import com.efrei.easybooking.DTO.RafraichissementDTO;
+import com.efrei.easybooking.DTO.RegisterDTO;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Mode jeton, filtres Spring Security actifs : l'utilisateur est identifié par l'en-tête
+ * Authorization, sans session.
+ */
+@SpringBootTest(properties = {
+        "easybooking.auth.mode=jeton",
+        "easybooking.auth.jeton.secret=secret-de-test-pour-les-jetons-hmac-sha256",
+        // chaque test se reconnecte avec le même email : la limitation de débit est testée à part
+        "easybooking.limitation.email.capacite=100"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class JetonAuthSystemTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        utilisateurRepository.deleteAll();
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterDTO("test@test.com", "password123"))))
+                .andExpect(status().isCreated());
+    }
+
+    private JetonsDTO connexion() throws Exception {
+        MvcResult resultat = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginDTO("test@test.com", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(resultat.getRequest().getSession(false), "Aucune session ne doit être créée en mode jeton");
+        return objectMapper.readValue(resultat.getResponse().getContentAsString(), JetonsDTO.class);
+    }
+
+    @Test
+    void LoginRetourneDesJetonsSansCreerDeSession() throws Exception {
+        JetonsDTO jetons = connexion();
+
+        assertNotNull(jetons.jetonAcces());
+        assertNotNull(jetons.jetonRafraichissement());
+        assertEquals(900, jetons.expireDansSecondes());
+    }
+
+    @Test
+    void ReservationsAccessiblesAvecJetonEt401Sinon() throws Exception {
+        JetonsDTO jetons = connexion();
+
+        mockMvc.perform(get("/reservations").header("Authorization", "Bearer " + jetons.jetonAcces()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/reservations"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Vous devez être connecté"));
+        mockMvc.perform(get("/reservations").header("Authorization", "Bearer " + jetons.jetonAcces() + "x"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Jeton invalide ou expiré"));
+    }
+
+    @Test
+    void RefreshEmetUnNouveauJetonUtilisable() throws Exception {
+        JetonsDTO jetons = connexion();
+
+        MvcResult resultat = mockMvc.perform(post("/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RafraichissementDTO(jetons.jetonRafraichissement()))))
+                .andExpect(status().isOk())
+                .andReturn();
+        JetonsDTO nouveaux = objectMapper.readValue(resultat.getResponse().getContentAsString(), JetonsDTO.class);
+
+        mockMvc.perform(get("/reservations").header("Authorization", "Bearer " + nouveaux.jetonAcces()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RafraichissementDTO(jetons.jetonAcces()))))
+                .andExpect(status().isUnauthorized());
+    }
+}
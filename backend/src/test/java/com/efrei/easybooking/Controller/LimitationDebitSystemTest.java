@@ -0,0 +1,164 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.Config.LimitationDebitFilter;
+import com.efrei.easybooking.DTO.LoginDTO;
+import com.efrei.easybooking.DTO.RegisterDTO;
+import com.efrei.easybooking.Service.AuthService;
+import com.efrei.easybooking.Service.LimiteurDebit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Filtres actifs : la limitation de débit s'applique avant le contrôleur.
+ */
+@SpringBootTest(properties = {
+        "easybooking.limitation.ip.capacite=6",
+        "easybooking.limitation.email.capacite=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class LimitationDebitSystemTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private AuthService authService;
+
+    private MockHttpServletRequestBuilder login(String ip, String email) {
+        return post("/login")
+                .with(requete -> {
+                    requete.setRemoteAddr(ip);
+                    return requete;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(email, "mauvais")));
+    }
+
+    @Test
+    void LoginRefuseEn429ParEmailSansAppelerLeService() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            // une IP différente à chaque essai : seule la limite par email joue
+            mockMvc.perform(login("10.1.0." + i, "Cible@Test.com"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(login("10.1.0.9", "cible@test.com"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(content().string("Trop de tentatives, veuillez réessayer plus tard"));
+        verify(authService, times(3)).login(anyString(), anyString());
+    }
+
+    @Test
+    void LoginRefuseEn429ParIpQuandLesEmailsChangent() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            mockMvc.perform(login("10.2.0.1", "victime" + i + "@test.com"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(login("10.2.0.1", "victime99@test.com"))
+                .andExpect(status().isTooManyRequests());
+        verify(authService, times(6)).login(anyString(), anyString());
+    }
+
+    @Test
+    void RegisterRelitLeCorpsApresLaLimitation() throws Exception {
+        mockMvc.perform(post("/register")
+                        .with(requete -> {
+                            requete.setRemoteAddr("10.3.0.1");
+                            return requete;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RegisterDTO("nouveau@test.com", "password123"))))
+                .andExpect(status().isCreated())
+                .andExpect(content().string("Compte créé avec succès"));
+    }
+
+    @Test
+    void CorpsTropVolumineuxRefuseEn413SansAppelerLeService() throws Exception {
+        String corps = "{\"email\":\"gros@test.com\",\"password\":\"" + "x".repeat(5_000) + "\"}";
+
+        mockMvc.perform(post("/login")
+                        .with(requete -> {
+                            requete.setRemoteAddr("10.4.0.1");
+                            return requete;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corps))
+                .andExpect(status().isContentTooLarge())
+                .andExpect(content().string("Requête trop volumineuse"));
+        verify(authService, never()).login(anyString(), anyString());
+    }
+
+    @Test
+    void CorpsRejoueEstLisibleEnLectureNonBloquante() throws Exception {
+        LimitationDebitFilter filtre = new LimitationDebitFilter(
+                new LimiteurDebit(10, Duration.ofMinutes(1), 1, 16, Duration.ofMinutes(10)),
+                new LimiteurDebit(10, Duration.ofMinutes(1), 1, 16, Duration.ofMinutes(10)),
+                objectMapper, 4096, new SimpleMeterRegistry());
+        MockHttpServletRequest requete = new MockHttpServletRequest("POST", "/login");
+        requete.setContent("{\"email\":\"a@test.com\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream lu = new ByteArrayOutputStream();
+        List<String> evenements = new ArrayList<>();
+
+        filtre.doFilter(requete, new MockHttpServletResponse(), (relue, reponse) -> {
+            ServletInputStream entree = relue.getInputStream();
+            entree.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    evenements.add("donnees");
+                    while (entree.isReady() && !entree.isFinished()) {
+                        lu.write(entree.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    evenements.add("fin");
+                }
+
+                @Override
+                public void onError(Throwable erreur) {
+                    evenements.add("erreur");
+                }
+            });
+        });
+
+        assertEquals(List.of("donnees", "fin"), evenements);
+        assertEquals("{\"email\":\"a@test.com\"}", lu.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,227 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.DTO.ReservationDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.ReservationSerieRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.efrei.easybooking.Service.CatalogueSalles;
+import com.efrei.easybooking.Service.DisponibiliteIndex;
+import com.efrei.easybooking.Service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Nombre exact de requêtes SQL (statistiques Hibernate) envoyées par chaque endpoint de réservation et de
+ * lecture : une association chargée en N+1 fait échouer le test. Pas de @Transactional : comme en production
+ * (open-in-view désactivé), aucune session JPA ne reste ouverte autour de la requête HTTP, et une association
+ * LAZY lue hors du service échouerait ici.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class RequetesParEndpointSystemTest {
+
+    private static final String EMAIL = "requetes-endpoint@test.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CatalogueSalles catalogueSalles;
+
+    @Autowired
+    private DisponibiliteIndex disponibiliteIndex;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private ReservationSerieRepository reservationSerieRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistiques;
+    private Salle salle;
+    private Salle autreSalle;
+    private Long userId;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        salle = creerSalle("Salle endpoints");
+        autreSalle = creerSalle("Autre salle endpoints");
+
+        String identifiants = "{\"email\":\"" + EMAIL + "\",\"password\":\"password123\"}";
+        MvcResult inscription = mockMvc.perform(postJson("/register", identifiants)).andReturn();
+        assertEquals(201, inscription.getResponse().getStatus(), inscription.getResponse().getContentAsString());
+        MvcResult connexion = mockMvc.perform(postJson("/login", identifiants)).andReturn();
+        assertEquals(200, connexion.getResponse().getStatus(), connexion.getResponse().getContentAsString());
+        session = (MockHttpSession) connexion.getRequest().getSession();
+        userId = (Long) session.getAttribute("userId");
+        assertNotNull(userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ReservationVueDTO reservation : reservationService.getReservationsByUser(userId, null, null).elements()) {
+            reservationService.supprimerReservationPourUtilisateur(reservation.id(), userId);
+        }
+        reservationSerieRepository.deleteAll(reservationSerieRepository.findAll().stream()
+                .filter(serie -> serie.getUtilisateur().getId().equals(userId))
+                .toList());
+        utilisateurRepository.deleteById(userId);
+        salleRepository.delete(salle);
+        salleRepository.delete(autreSalle);
+    }
+
+    private Salle creerSalle(String nom) {
+        Salle nouvelle = new Salle();
+        nouvelle.setNom(nom);
+        nouvelle.setLocation("Bâtiment G");
+        return salleRepository.save(nouvelle);
+    }
+
+    private String reservation(Salle salleReservee, String debut, String fin) {
+        return "{\"salleId\":" + salleReservee.getId() + ",\"dateDebut\":\"" + debut + "\",\"dateFin\":\"" + fin + "\"}";
+    }
+
+    // requêtes SQL envoyées pendant l'appel, dont le statut HTTP doit être celui attendu
+    private long requetes(MockHttpServletRequestBuilder requete, int statutAttendu) throws Exception {
+        statistiques.clear();
+        MvcResult resultat = mockMvc.perform(requete.session(session)).andReturn();
+        assertEquals(statutAttendu, resultat.getResponse().getStatus(), resultat.getResponse().getContentAsString());
+        return statistiques.getPrepareStatementCount();
+    }
+
+    // les identifiants de réservation sont réservés par blocs de 50 : un INSERT peut demander le bloc suivant
+    private void assertRequetesAvecSequence(long attendues, long envoyees) {
+        assertTrue(envoyees == attendues || envoyees == attendues + 1,
+                attendues + " requêtes attendues (+1 pour la séquence), " + envoyees + " envoyées");
+    }
+
+    private MockHttpServletRequestBuilder postJson(String chemin, String json) {
+        return post(chemin).contentType(MediaType.APPLICATION_JSON).content(json);
+    }
+
+    @Test
+    void CreationEtSuppressionDUneReservation() throws Exception {
+        // première réservation : charge le planning de la salle
+        requetes(postJson("/reservations", reservation(salle, "2027-09-06T08:00:00", "2027-09-06T09:00:00")), 201);
+
+        // SELECT ... FOR UPDATE de la salle, vérification de chevauchement, INSERT
+        assertRequetesAvecSequence(3, requetes(postJson("/reservations",
+                reservation(salle, "2027-09-06T09:00:00", "2027-09-06T10:00:00")), 201));
+
+        Long id = reservationService.getReservationsByUser(userId, null, null).elements().get(1).id();
+        // réservation et salle jointes en un SELECT, puis DELETE
+        assertEquals(2, requetes(delete("/reservations/" + id), 200));
+    }
+
+    @Test
+    void LecturesDesReservations() throws Exception {
+        reservationService.creerReservations(userId, List.of(
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2027, 9, 7, 9, 0), LocalDateTime.of(2027, 9, 7, 10, 0)),
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2027, 9, 7, 11, 0), LocalDateTime.of(2027, 9, 7, 12, 0)),
+                new ReservationDTO(autreSalle.getId(), LocalDateTime.of(2027, 9, 7, 9, 0), LocalDateTime.of(2027, 9, 7, 10, 0))));
+        catalogueSalles.trouver(salle.getId());
+
+        // page des réservations avec le nom de leurs salles : une requête, quel que soit le nombre de salles
+        assertEquals(1, requetes(get("/reservations"), 200));
+        // premier accès au planning de la salle : tout son planning, salle jointe, en une requête
+        assertEquals(1, requetes(get("/reservations/salle/" + salle.getId() + "/creneaux").param("date", "2027-09-07"), 200));
+        // planning en mémoire ensuite
+        assertEquals(0, requetes(get("/reservations/salle/" + salle.getId()).param("date", "2027-09-07"), 200));
+    }
+
+    @Test
+    void LotEtSerieDeReservations() throws Exception {
+        requetes(postJson("/reservations", reservation(salle, "2027-09-08T08:00:00", "2027-09-08T09:00:00")), 201);
+
+        // verrou des salles, une lecture des réservations existantes par salle, un lot d'INSERT
+        assertRequetesAvecSequence(3, requetes(postJson("/reservations/batch", "[" +
+                reservation(salle, "2027-09-08T09:00:00", "2027-09-08T10:00:00") + "," +
+                reservation(salle, "2027-09-08T10:00:00", "2027-09-08T11:00:00") + "," +
+                reservation(salle, "2027-09-08T11:00:00", "2027-09-08T12:00:00") + "]"), 200));
+
+        // verrou de la salle, réservations existantes sur la période, INSERT de la série, lot d'INSERT des occurrences
+        assertRequetesAvecSequence(4, requetes(postJson("/reservations/series", "{\"salleId\":" + salle.getId()
+                + ",\"dateDebut\":\"2027-09-09T09:00:00\",\"dateFin\":\"2027-09-09T10:00:00\""
+                + ",\"frequence\":\"QUOTIDIENNE\",\"dateLimite\":\"2027-09-12\"}"), 201));
+        Long serieId = reservationSerieRepository.findAll().stream()
+                .filter(serie -> serie.getUtilisateur().getId().equals(userId))
+                .findFirst().orElseThrow().getId();
+
+        // SELECT de la série sans ses associations, DELETE des occurrences, DELETE de la série sans la relire
+        assertEquals(3, requetes(delete("/reservations/series/" + serieId), 200));
+    }
+
+    @Test
+    void VueDuJourApresRechargementDeLIndex() throws Exception {
+        requetes(postJson("/reservations", reservation(salle, "2027-09-10T09:00:00", "2027-09-10T10:00:00")), 201);
+        requetes(postJson("/reservations", reservation(autreSalle, "2027-09-10T09:00:00", "2027-09-10T10:00:00")), 201);
+
+        // redémarrage : index et cache de second niveau vides, plannings relus depuis la base
+        disponibiliteIndex.invalider(salle.getId());
+        disponibiliteIndex.invalider(autreSalle.getId());
+        entityManagerFactory.getCache().evictAll();
+        disponibiliteIndex.chargerAuDemarrage();
+        assertTrue(disponibiliteIndex.contientSalle(salle.getId()));
+
+        // les réservations de l'index sont lues hors session : leur salle doit déjà être chargée
+        MvcResult jour = mockMvc.perform(get("/reservations/salle/" + salle.getId()).param("date", "2027-09-10")
+                .session(session)).andReturn();
+        assertEquals(200, jour.getResponse().getStatus());
+        assertTrue(jour.getResponse().getContentAsString().contains("\"salleNom\":\"Salle endpoints\""));
+
+        // même chose pour un planning rechargé à la demande
+        disponibiliteIndex.invalider(autreSalle.getId());
+        entityManagerFactory.getCache().evictAll();
+        requetes(get("/reservations/salle/" + autreSalle.getId() + "/creneaux").param("date", "2027-09-10"), 200);
+        jour = mockMvc.perform(get("/reservations/salle/" + autreSalle.getId()).param("date", "2027-09-10")
+                .session(session)).andReturn();
+        assertEquals(200, jour.getResponse().getStatus());
+        assertTrue(jour.getResponse().getContentAsString().contains("\"salleNom\":\"Autre salle endpoints\""));
+    }
+
+    @Test
+    void CatalogueEtUtilisateurs() throws Exception {
+        catalogueSalles.toutes();
+
+        assertEquals(0, requetes(get("/salles"), 200));
+        assertEquals(1, requetes(get("/allusers"), 200));
+        // sans connexion : ni mot de passe ni hachage dans la page
+        String page = mockMvc.perform(get("/allusers")).andReturn().getResponse().getContentAsString();
+        assertTrue(page.contains("\"email\":"));
+        assertFalse(page.contains("password"));
+        assertFalse(page.contains("$2a$"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.efrei.easybooking.Controller;
+
+import com.efrei.easybooking.Config.SessionJdbcDifferee;
+import com.efrei.easybooking.EasyBookingApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deux instances de l'application (deux contextes Spring, deux ports) partagent la même base H2 :
+ * une session ouverte sur l'une doit être reconnue par l'autre.
+ */
+class SessionPartageeSystemTest {
+
+    private static final String BASE = "jdbc:h2:mem:sessions-partagees;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void demarrerDeuxInstances() {
+        instanceA = demarrer();
+        instanceB = demarrer();
+    }
+
+    @AfterAll
+    static void arreterInstances() {
+        instanceB.close();
+        instanceA.close();
+    }
+
+    private static ConfigurableApplicationContext demarrer() {
+        return new SpringApplicationBuilder(EasyBookingApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + BASE,
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jmx.enabled=false",
+                        "logging.level.root=WARN",
+                        // écriture différée et nettoyage déclenchés à la main dans les tests
+                        "easybooking.session.ecriture-differee=1h",
+                        "easybooking.session.nettoyage=1h")
+                .run();
+    }
+
+    private static String url(ConfigurableApplicationContext instance, String chemin) {
+        return "http://localhost:" + instance.getEnvironment().getProperty("local.server.port") + chemin;
+    }
+
+    private HttpResponse<String> envoyer(HttpRequest.Builder requete) throws Exception {
+        return client.send(requete.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder postJson(ConfigurableApplicationContext instance, String chemin, String json) {
+        return HttpRequest.newBuilder(URI.create(url(instance, chemin)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private String connecter(String email) throws Exception {
+        String identifiants = "{\"email\":\"" + email + "\",\"password\":\"password123\"}";
+        assertEquals(201, envoyer(postJson(instanceA, "/register", identifiants)).statusCode());
+        HttpResponse<String> connexion = envoyer(postJson(instanceA, "/login", identifiants));
+        assertEquals(200, connexion.statusCode());
+        String cookie = connexion.headers().firstValue("Set-Cookie").orElseThrow();
+        return cookie.substring(0, cookie.indexOf(';'));
+    }
+
+    private static String idSession(String cookie) {
+        return new String(Base64.getDecoder().decode(cookie.substring(cookie.indexOf('=') + 1)));
+    }
+
+    @Test
+    void SessionOuverteSurUneInstanceEstReconnueParLAutre() throws Exception {
+        String cookie = connecter("partage@test.com");
+
+        HttpRequest.Builder mesReservationsSurB = HttpRequest.newBuilder(URI.create(url(instanceB, "/reservations")))
+                .header("Cookie", cookie);
+        assertEquals(200, envoyer(mesReservationsSurB).statusCode());
+        assertEquals(401, envoyer(HttpRequest.newBuilder(URI.create(url(instanceB, "/reservations")))).statusCode());
+
+        // déconnexion sur B : la session disparaît aussi pour A
+        assertEquals(200, envoyer(postJson(instanceB, "/logout", "").header("Cookie", cookie)).statusCode());
+        assertEquals(401, envoyer(HttpRequest.newBuilder(URI.create(url(instanceA, "/reservations")))
+                .header("Cookie", cookie)).statusCode());
+    }
+
+    @Test
+    void LectureSansModificationNEcritLaDateDAccesQuEnDiffere() throws Exception {
+        String cookie = connecter("differe@test.com");
+        String id = idSession(cookie);
+        JdbcTemplate jdbcTemplate = instanceA.getBean(JdbcTemplate.class);
+        Long accesInitial = jdbcTemplate.queryForObject(
+                "SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?", Long.class, id);
+
+        Thread.sleep(5);
+        assertEquals(200, envoyer(HttpRequest.newBuilder(URI.create(url(instanceB, "/reservations")))
+                .header("Cookie", cookie)).statusCode());
+        assertEquals(accesInitial, jdbcTemplate.queryForObject(
+                "SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?", Long.class, id));
+
+        assertEquals(1, instanceB.getBean(SessionJdbcDifferee.class).ecrireAccesEnAttente());
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT LAST_ACCESS_TIME FROM SPRING_SESSION WHERE SESSION_ID = ?", Long.class, id) > accesInitial);
+    }
+
+    @Test
+    void LireUnAttributNeDeserialisePasLesAutres() {
+        SessionJdbcDifferee.SessionDifferee session = instanceA.getBean(SessionJdbcDifferee.class).createSession();
+        session.setAttribute("userId", 42L);
+        session.setAttribute("panier", new AttributCompteur());
+        instanceA.getBean(SessionJdbcDifferee.class).save(session);
+        AttributCompteur.DESERIALISATIONS.set(0);
+
+        SessionJdbcDifferee.SessionDifferee relue = instanceB.getBean(SessionJdbcDifferee.class).findById(session.getId());
+
+        assertEquals(42L, (Long) relue.getAttribute("userId"));
+        assertEquals(0, AttributCompteur.DESERIALISATIONS.get());
+        assertNotNull(relue.getAttribute("panier"));
+        assertEquals(1, AttributCompteur.DESERIALISATIONS.get());
+    }
+
+    @Test
+    void SessionsExpireesSontSupprimeesParLots() {
+        JdbcTemplate jdbcTemplate = instanceA.getBean(JdbcTemplate.class);
+        long maintenant = System.currentTimeMillis();
+        List<Object[]> lignes = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            lignes.add(new Object[]{UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                    maintenant - 7_200_000, maintenant - 3_600_000, 1800, maintenant - 1_800_000});
+        }
+        String encoreValide = UUID.randomUUID().toString();
+        lignes.add(new Object[]{UUID.randomUUID().toString(), encoreValide, maintenant, maintenant, 1800, maintenant + 1_800_000});
+        jdbcTemplate.batchUpdate("INSERT INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME,"
+                + " MAX_INACTIVE_INTERVAL, EXPIRY_TIME) VALUES (?, ?, ?, ?, ?, ?)", lignes);
+
+        int supprimees = instanceB.getBean(SessionJdbcDifferee.class).supprimerSessionsExpirees();
+
+        assertTrue(supprimees >= 1200, "Les 1 200 sessions expirées doivent être supprimées, " + supprimees + " l'ont été");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SPRING_SESSION WHERE EXPIRY_TIME < ?", Integer.class, maintenant));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SPRING_SESSION WHERE SESSION_ID = ?", Integer.class, encoreValide));
+    }
+
+    static class AttributCompteur implements Serializable {
+
+        static final AtomicInteger DESERIALISATIONS = new AtomicInteger();
+
+        private final byte[] contenu = new byte[4096];
+
+        private void readObject(ObjectInputStream entree) throws IOException, ClassNotFoundException {
+            entree.defaultReadObject();
+            DESERIALISATIONS.incrementAndGet();
+        }
+    }
+}
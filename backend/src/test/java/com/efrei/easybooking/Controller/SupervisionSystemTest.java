@@ -0,0 +1,48 @@
+package com.efrei.easybooking.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Filtres Spring Security actifs : /actuator/prometheus n'est servi qu'au compte de supervision,
+ * /actuator/health et l'API restent accessibles sans lui.
+ */
+@SpringBootTest(properties = "easybooking.supervision.mot-de-passe=secret-de-test")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SupervisionSystemTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void PrometheusRefuseSansLeCompteDeSupervision() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"));
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "mauvais")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void PrometheusServiAuCompteDeSupervision() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "secret-de-test")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void HealthEtApiAccessiblesSansCompte() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/salles"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,76 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inscriptions simultanées avec le même email : pas de @Transactional, chaque INSERT doit être réellement
+ * validé pour que la contrainte d'unicité départage les threads. Les données sont nettoyées après le test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceConcurrenceTest {
+
+    private static final int NOMBRE_THREADS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @AfterEach
+    void tearDown() {
+        utilisateurRepository.findByEmail("concurrent@test.com").ifPresent(utilisateurRepository::delete);
+    }
+
+    @Test
+    void InscriptionsSimultaneesDuMemeEmailNeCreentQuUnSeulCompte() throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger reussies = new AtomicInteger();
+        ConcurrentLinkedQueue<String> erreurs = new ConcurrentLinkedQueue<>();
+        ExecutorService executeur = Executors.newFixedThreadPool(NOMBRE_THREADS);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_THREADS; i++) {
+            // la casse varie d'un thread à l'autre : c'est toujours le même compte
+            String email = i % 2 == 0 ? "concurrent@test.com" : "Concurrent@Test.com";
+            taches.add(executeur.submit(() -> {
+                depart.await();
+                try {
+                    authService.register(email, "password123");
+                    reussies.incrementAndGet();
+                } catch (RuntimeException e) {
+                    erreurs.add(e.getMessage());
+                }
+                return null;
+            }));
+        }
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get();
+        }
+        executeur.shutdown();
+
+        assertEquals(1, reussies.get());
+        assertEquals(NOMBRE_THREADS - 1, erreurs.size());
+        assertTrue(erreurs.stream().allMatch("Utilisateur déjà existant"::equals), "Erreurs inattendues : " + erreurs);
+        assertEquals(1, utilisateurRepository.findAll().stream()
+                .filter(u -> "concurrent@test.com".equals(u.getEmail()))
+                .count());
+    }
+}
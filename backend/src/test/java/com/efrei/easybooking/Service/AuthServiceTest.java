@@ -2,18 +2,31 @@ package com.efrei.easybooking.Service;
 
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.UtilisateurRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -22,12 +35,39 @@ class AuthServiceTest {
     @Mock
     private UtilisateurRepository utilisateurRepository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executeurHachage;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private EmailsInscrits emailsInscrits;
+
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        executeurHachage = pool(2, 16);
+        // filtre pas encore chargé : tous les emails passent jusqu'à la base, comme avant le filtre
+        emailsInscrits = new EmailsInscrits(jdbcTemplate, new FiltreBloom(1_000, 0.01), Duration.ofHours(1), 100);
+        authService = new AuthService(utilisateurRepository, hachage(4, executeurHachage), emailsInscrits, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executeurHachage.shutdownNow();
+    }
+
+    private ThreadPoolExecutor pool(int threads, int capaciteFile) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capaciteFile));
+    }
+
+    private HachageMotDePasse hachage(int cout, ThreadPoolExecutor executeur) {
+        return new HachageMotDePasse(new BCryptPasswordEncoder(cout), executeur, meterRegistry, 1);
     }
 
     @Test
@@ -85,14 +125,11 @@ class AuthServiceTest {
         String email = "test@test.com";
         String password = "password";
 
-        when(utilisateurRepository.findByEmail(eq(email)))
-                .thenReturn(Optional.empty());
-
         Utilisateur utilisateurEnregistre = new Utilisateur();
         utilisateurEnregistre.setEmail(email);
         utilisateurEnregistre.setPassword(password);
 
-        when(utilisateurRepository.save(any(Utilisateur.class)))
+        when(utilisateurRepository.saveAndFlush(any(Utilisateur.class)))
                 .thenReturn(utilisateurEnregistre);
 
         Utilisateur result = authService.register(email, password);
@@ -100,8 +137,9 @@ class AuthServiceTest {
         assertEquals(utilisateurEnregistre, result);
         assertEquals(email, result.getEmail());
         assertEquals(password, result.getPassword());
-        verify(utilisateurRepository).findByEmail(email);
-        verify(utilisateurRepository).save(any(Utilisateur.class));
+        // un seul aller-retour : l'INSERT, sans recherche préalable
+        verify(utilisateurRepository, never()).findByEmail(any());
+        verify(utilisateurRepository).saveAndFlush(any(Utilisateur.class));
     }
 
     @Test
@@ -109,16 +147,173 @@ class AuthServiceTest {
         String email = "test@test.com";
         String password = "password";
 
-        Utilisateur utilisateurExistant = new Utilisateur();
-        utilisateurExistant.setEmail(email);
-        utilisateurExistant.setPassword(password);
+        when(utilisateurRepository.saveAndFlush(any(Utilisateur.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_utilisateur_email"));
 
-        when(utilisateurRepository.findByEmail(eq(email)))
-                .thenReturn(Optional.of(utilisateurExistant));
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> authService.register(email, password));
+        assertEquals("Utilisateur déjà existant", exception.getMessage());
+    }
 
-        assertThrows(RuntimeException.class,
-                () -> authService.register(email, password),
-                "Utilisateur déjà existant");
-        verify(utilisateurRepository).findByEmail(email);
+    @Test
+    void LoginCompteLesConnexionsReussiesEtEchouees() {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail("test@test.com");
+        utilisateur.setPassword("password");
+
+        when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                .thenReturn(Optional.of(utilisateur));
+
+        authService.login("test@test.com", "password");
+        assertThrows(RuntimeException.class, () -> authService.login("test@test.com", "mauvais"));
+        assertThrows(RuntimeException.class, () -> authService.login("test@test.com", "mauvais"));
+
+        assertEquals(1.0, meterRegistry.get("easybooking.auth.connexions").tag("resultat", "succes").counter().count());
+        assertEquals(2.0, meterRegistry.get("easybooking.auth.connexions").tag("resultat", "echec").counter().count());
+        assertEquals(3, meterRegistry.get("easybooking.auth.login").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void RegisterEnregistreLeMotDePasseHache() {
+        authService.register("test@test.com", "password");
+
+        ArgumentCaptor<Utilisateur> captor = ArgumentCaptor.forClass(Utilisateur.class);
+        verify(utilisateurRepository).saveAndFlush(captor.capture());
+        String stocke = captor.getValue().getPassword();
+        assertNotEquals("password", stocke);
+        assertTrue(stocke.startsWith("$2a$04$"));
+        assertTrue(new BCryptPasswordEncoder(4).matches("password", stocke));
+    }
+
+    @Test
+    void RegisterEtLoginNormalisentLEmail() {
+        authService.register("  Test@Test.COM ", "password");
+
+        ArgumentCaptor<Utilisateur> captor = ArgumentCaptor.forClass(Utilisateur.class);
+        verify(utilisateurRepository).saveAndFlush(captor.capture());
+        assertEquals("test@test.com", captor.getValue().getEmail());
+
+        when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                .thenReturn(Optional.of(captor.getValue()));
+        assertEquals(captor.getValue(), authService.login("TEST@test.com", "password"));
+    }
+
+    @Test
+    void LoginNInterrogePasLaBaseQuandLEmailEstAbsentDuFiltre() {
+        emailsInscrits.rafraichir();
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> authService.login("inconnu@test.com", "password"));
+
+        assertEquals("Identifiants incorrects", exception.getMessage());
+        verify(utilisateurRepository, never()).findByEmail(any());
+        assertEquals(1.0, meterRegistry.get("easybooking.auth.connexions").tag("resultat", "echec").counter().count());
+    }
+
+    @Test
+    void LoginSurEmailInconnuPaieLaMemeVerificationBCryptQuUnCompteExistant() {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail("test@test.com");
+        utilisateur.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                .thenReturn(Optional.of(utilisateur));
+        when(utilisateurRepository.findByEmail(eq("inconnu@test.com")))
+                .thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> authService.login("test@test.com", "mauvais"));
+        assertEquals(1, executeurHachage.getTaskCount());
+
+        // absent de la base
+        assertThrows(RuntimeException.class, () -> authService.login("inconnu@test.com", "mauvais"));
+        assertEquals(2, executeurHachage.getTaskCount());
+
+        // absent du filtre : pas de requête, mais toujours un hachage
+        emailsInscrits.rafraichir();
+        assertThrows(RuntimeException.class, () -> authService.login("autre@test.com", "mauvais"));
+        assertEquals(3, executeurHachage.getTaskCount());
+        verify(utilisateurRepository, never()).findByEmail("autre@test.com");
+    }
+
+    @Test
+    void RegisterAjouteLEmailAuFiltre() {
+        emailsInscrits.rafraichir();
+
+        authService.register("Nouveau@Test.com", "password");
+
+        assertTrue(emailsInscrits.peutExister("nouveau@test.com"));
+        assertThrows(RuntimeException.class, () -> authService.login("nouveau@test.com", "password"));
+        verify(utilisateurRepository).findByEmail("nouveau@test.com");
+    }
+
+    @Test
+    void LoginRehacheLeMotDePasseQuandLeCoutAugmente() {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail("test@test.com");
+        utilisateur.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+
+        when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                .thenReturn(Optional.of(utilisateur));
+
+        AuthService authServiceCout5 = new AuthService(utilisateurRepository, hachage(5, executeurHachage), emailsInscrits, meterRegistry);
+        authServiceCout5.login("test@test.com", "password");
+
+        assertTrue(utilisateur.getPassword().startsWith("$2a$05$"));
+        verify(utilisateurRepository).save(utilisateur);
+
+        // Une fois au bon coût, la connexion suivante ne réécrit plus rien
+        authServiceCout5.login("test@test.com", "password");
+        verify(utilisateurRepository).save(any(Utilisateur.class));
+    }
+
+    @Test
+    void LoginRemplaceUnMotDePasseEnClairParSonHachage() {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail("test@test.com");
+        utilisateur.setPassword("password");
+
+        when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                .thenReturn(Optional.of(utilisateur));
+
+        authService.login("test@test.com", "password");
+
+        assertTrue(new BCryptPasswordEncoder(4).matches("password", utilisateur.getPassword()));
+        verify(utilisateurRepository).save(utilisateur);
+    }
+
+    @Test
+    void LoginLanceHachageSatureQuandLaFileEstPleine() throws InterruptedException {
+        ThreadPoolExecutor executeurSature = pool(1, 1);
+        CountDownLatch liberation = new CountDownLatch(1);
+        try {
+            executeurSature.execute(() -> attendre(liberation));
+            executeurSature.execute(() -> attendre(liberation));
+
+            Utilisateur utilisateur = new Utilisateur();
+            utilisateur.setEmail("test@test.com");
+            utilisateur.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+            when(utilisateurRepository.findByEmail(eq("test@test.com")))
+                    .thenReturn(Optional.of(utilisateur));
+
+            AuthService authServiceSature = new AuthService(utilisateurRepository, hachage(4, executeurSature), emailsInscrits, meterRegistry);
+            HachageSatureException exception = assertThrows(HachageSatureException.class,
+                    () -> authServiceSature.login("test@test.com", "password"));
+
+            assertEquals(1, exception.getRetryAfterSecondes());
+            assertEquals(1.0, meterRegistry.get("easybooking.auth.hachage.rejets").counter().count());
+            assertEquals(1.0, meterRegistry.get("easybooking.auth.connexions").tag("resultat", "sature").counter().count());
+            verify(utilisateurRepository, never()).save(any(Utilisateur.class));
+        } finally {
+            liberation.countDown();
+            executeurSature.shutdown();
+            executeurSature.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void attendre(CountDownLatch liberation) {
+        try {
+            liberation.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Config.JpaConfig;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de second niveau d'Hibernate : associations des réservations et findByEmail servis sans SQL
+ * une fois chargés. Pas de @Transactional : les entités n'entrent en cache qu'à la validation.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CacheSecondNiveauIntegrationTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManagerHibernate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistiques;
+    private Salle salle;
+    private final List<Utilisateur> utilisateurs = new ArrayList<>();
+    private final List<Reservation> reservations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        salle = new Salle();
+        salle.setNom("Salle second niveau");
+        salle.setLocation("Bâtiment D");
+        salle = salleRepository.save(salle);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservations);
+        utilisateurRepository.deleteAll(utilisateurs);
+        salleRepository.delete(salle);
+    }
+
+    private Utilisateur inscrire(String email) {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail(email);
+        utilisateur.setPassword("haché");
+        utilisateurs.add(utilisateurRepository.save(utilisateur));
+        return utilisateur;
+    }
+
+    private void reserver(Utilisateur utilisateur, LocalDateTime debut) {
+        Reservation reservation = new Reservation();
+        reservation.setSalle(salle);
+        reservation.setUtilisateur(utilisateur);
+        reservation.setDateDebut(debut);
+        reservation.setDateFin(debut.plusHours(1));
+        reservations.add(reservationRepository.save(reservation));
+    }
+
+    @Test
+    void AssociationsDesReservationsResoluesSansRequeteApresPremiereLecture() {
+        Utilisateur utilisateur = inscrire("second-niveau@test.com");
+        reserver(utilisateur, LocalDateTime.of(2027, 5, 3, 9, 0));
+        reserver(utilisateur, LocalDateTime.of(2027, 5, 3, 14, 0));
+        List<Long> ids = reservations.stream().map(Reservation::getId).toList();
+        entityManagerFactory.getCache().evictAll();
+
+        statistiques.clear();
+        lireAvecAssociations(ids);
+        assertTrue(statistiques.getPrepareStatementCount() > 1, "Premier chargement : la salle et l'utilisateur sont lus en base");
+
+        statistiques.clear();
+        List<String> lues = lireAvecAssociations(ids);
+
+        assertEquals(1, statistiques.getPrepareStatementCount(), "Seules les réservations doivent être lues en base");
+        assertEquals(List.of("Salle second niveau second-niveau@test.com", "Salle second niveau second-niveau@test.com"), lues);
+        assertTrue(statistiques.getDomainDataRegionStatistics(JpaConfig.REGION_SALLES).getHitCount() > 0);
+        assertTrue(statistiques.getDomainDataRegionStatistics(JpaConfig.REGION_UTILISATEURS).getHitCount() > 0);
+    }
+
+    // associations LAZY : leurs proxys sont initialisés dans la transaction, depuis le cache s'il les contient
+    private List<String> lireAvecAssociations(List<Long> ids) {
+        return transactionTemplate.execute(statut -> reservationRepository.findAllById(ids).stream()
+                .map(r -> r.getSalle().getNom() + " " + r.getUtilisateur().getEmail())
+                .toList());
+    }
+
+    @Test
+    void FindByEmailServiParLeCacheDeRequetesEtInvalideParUneInscription() {
+        inscrire("present-cache@test.com");
+        statistiques.clear();
+
+        assertTrue(utilisateurRepository.findByEmail("present-cache@test.com").isPresent());
+        assertTrue(utilisateurRepository.findByEmail("absent-cache@test.com").isEmpty());
+        assertEquals(2, statistiques.getPrepareStatementCount());
+        assertTrue(utilisateurRepository.findByEmail("present-cache@test.com").isPresent());
+        assertTrue(utilisateurRepository.findByEmail("absent-cache@test.com").isEmpty());
+        assertEquals(2, statistiques.getPrepareStatementCount(), "Les deux résultats doivent venir du cache de requêtes");
+        assertEquals(2, statistiques.getQueryRegionStatistics(JpaConfig.REGION_UTILISATEURS_PAR_EMAIL).getHitCount());
+
+        // l'absence mise en cache ne doit pas survivre à l'inscription
+        inscrire("absent-cache@test.com");
+        assertTrue(utilisateurRepository.findByEmail("absent-cache@test.com").isPresent());
+    }
+
+    @Test
+    void RegionsDimensionneesSelonLaConfiguration() {
+        assertEquals(OptionalLong.of(10_000), taille(JpaConfig.REGION_SALLES));
+        assertEquals(OptionalLong.of(50_000), taille(JpaConfig.REGION_UTILISATEURS));
+        assertEquals(OptionalLong.of(50_000), taille(JpaConfig.REGION_UTILISATEURS_PAR_EMAIL));
+        assertEquals(OptionalLong.empty(), taille(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME));
+    }
+
+    @SuppressWarnings("unchecked")
+    private OptionalLong taille(String region) {
+        return cacheManagerHibernate.getCache(region).getConfiguration(CaffeineConfiguration.class).getMaximumSize();
+    }
+}
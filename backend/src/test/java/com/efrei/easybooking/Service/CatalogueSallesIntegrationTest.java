@@ -0,0 +1,127 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Config.CacheConfig;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.SalleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caches Caffeine des salles : lectures servies sans requête, invalidation à chaque écriture et
+ * statistiques exportées. Pas de @Transactional : les caches sont vidés à la fin des transactions.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CatalogueSallesIntegrationTest {
+
+    @Autowired
+    private CatalogueSalles catalogueSalles;
+
+    @Autowired
+    private SalleService salleService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistiques;
+    private final List<Salle> creees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        creees.add(creer("Salle cache A"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        salleRepository.deleteAll(creees);
+    }
+
+    private Salle creer(String nom) {
+        Salle salle = new Salle();
+        salle.setNom(nom);
+        salle.setLocation("Bâtiment C");
+        return salleRepository.save(salle);
+    }
+
+    private double lectures(String cache, String resultat) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", resultat).functionCounter().count();
+    }
+
+    @Test
+    void CatalogueEtSallesServisSansRequeteApresLaPremiereLecture() {
+        Long salleId = creees.get(0).getId();
+        catalogueSalles.trouver(salleId);
+        // la recherche ne charge pas les plannings : les lectures de créneaux s'en chargent
+        for (Salle salle : catalogueSalles.toutes()) {
+            reservationService.getCreneauxBySalleAndDate(salle.getId(), LocalDate.of(2027, 1, 4));
+        }
+        statistiques.clear();
+
+        for (int i = 0; i < 10; i++) {
+            salleService.findPage(null, 20);
+            salleService.findDisponibles(LocalDate.of(2027, 1, 4).atTime(9, 0), LocalDate.of(2027, 1, 4).atTime(10, 0));
+            reservationService.getCreneauxBySalleAndDate(salleId, LocalDate.of(2027, 1, 4));
+        }
+
+        assertEquals(0, statistiques.getPrepareStatementCount());
+        assertNull(catalogueSalles.trouver(-1L));
+        assertNull(catalogueSalles.trouver(-1L));
+        assertEquals(1, statistiques.getPrepareStatementCount(), "Une salle absente doit aussi être gardée en cache");
+    }
+
+    @Test
+    void EcritureDUneSalleVideLesCaches() {
+        Salle salle = creees.get(0);
+        assertEquals("Salle cache A", catalogueSalles.trouver(salle.getId()).getNom());
+        int taille = catalogueSalles.toutes().size();
+
+        salle.setNom("Salle cache A renommée");
+        salleRepository.save(salle);
+        creees.add(creer("Salle cache B"));
+
+        assertEquals("Salle cache A renommée", catalogueSalles.trouver(salle.getId()).getNom());
+        assertEquals(taille + 1, catalogueSalles.toutes().size());
+
+        salleRepository.delete(creees.remove(1));
+        assertEquals(taille, catalogueSalles.toutes().size());
+    }
+
+    @Test
+    void StatistiquesDesCachesExporteesEnMetriques() {
+        Long salleId = creees.get(0).getId();
+        double succesAvant = lectures(CacheConfig.SALLES, "hit");
+        double echecsAvant = lectures(CacheConfig.SALLES, "miss");
+
+        catalogueSalles.trouver(salleId);
+        catalogueSalles.trouver(salleId);
+        catalogueSalles.trouver(salleId);
+
+        assertEquals(1, lectures(CacheConfig.SALLES, "miss") - echecsAvant);
+        assertEquals(2, lectures(CacheConfig.SALLES, "hit") - succesAvant);
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.CATALOGUE_SALLES).functionCounter());
+    }
+}
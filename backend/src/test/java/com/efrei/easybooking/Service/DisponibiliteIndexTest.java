@@ -0,0 +1,185 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DisponibiliteIndexTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private Salle salle;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        disponibiliteIndex = new DisponibiliteIndex(reservationRepository, transactionManager, true, Duration.ofMinutes(10));
+
+        salle = new Salle();
+        salle.setId(1L);
+        salle.setNom("Salle A");
+    }
+
+    @Test
+    void ChevaucheDetecteConflitAvecReservationChargeeDepuisLaBase() {
+        when(reservationRepository.findBySalleId(eq(1L)))
+                .thenReturn(List.of(reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0))));
+
+        assertTrue(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 13, 0)));
+        assertFalse(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 12, 0), LocalDateTime.of(2026, 1, 15, 14, 0)));
+        assertFalse(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 10, 0)));
+        verify(reservationRepository, times(1)).findBySalleId(1L);
+    }
+
+    @Test
+    void PlanningEstReluEnBaseUneFoisExpire() {
+        AtomicLong horloge = new AtomicLong();
+        DisponibiliteIndex index = new DisponibiliteIndex(reservationRepository, transactionManager, true,
+                Duration.ofSeconds(30), horloge::get);
+        // réservation écrite par une autre instance après le premier chargement
+        when(reservationRepository.findBySalleId(eq(1L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0))));
+
+        assertFalse(index.chevauche(1L, LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 13, 0)));
+        horloge.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertTrue(index.contientSalle(1L));
+        assertFalse(index.chevauche(1L, LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 13, 0)));
+
+        horloge.incrementAndGet();
+        assertFalse(index.contientSalle(1L));
+        assertTrue(index.chevauche(1L, LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 13, 0)));
+        verify(reservationRepository, times(2)).findBySalleId(1L);
+    }
+
+    @Test
+    void AjouterEtRetirerMettentAJourLIndexSansRelireLaBase() {
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of());
+        LocalDateTime debut = LocalDateTime.of(2026, 1, 15, 10, 0);
+        LocalDateTime fin = LocalDateTime.of(2026, 1, 15, 12, 0);
+        assertFalse(disponibiliteIndex.chevauche(1L, debut, fin));
+
+        Reservation reservation = reservation(10L, debut, fin);
+        disponibiliteIndex.ajouter(reservation);
+        assertTrue(disponibiliteIndex.chevauche(1L, debut, fin));
+
+        disponibiliteIndex.retirer(reservation);
+        assertFalse(disponibiliteIndex.chevauche(1L, debut, fin));
+        verify(reservationRepository, times(1)).findBySalleId(1L);
+    }
+
+    @Test
+    void CandidatsRetourneReservationLongueCommenceeAvantLIntervalle() {
+        Reservation longue = reservation(10L, LocalDateTime.of(2026, 1, 10, 8, 0), LocalDateTime.of(2026, 1, 20, 18, 0));
+        Reservation courte = reservation(11L, LocalDateTime.of(2026, 1, 21, 9, 0), LocalDateTime.of(2026, 1, 21, 10, 0));
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of(courte, longue));
+
+        List<Reservation> candidats = disponibiliteIndex.candidats(1L,
+                LocalDateTime.of(2026, 1, 15, 0, 0), LocalDateTime.of(2026, 1, 16, 0, 0));
+
+        assertTrue(candidats.contains(longue));
+        assertTrue(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0)));
+    }
+
+    @Test
+    void CandidatsSontTriesParDateDeDebut() {
+        Reservation r1 = reservation(10L, LocalDateTime.of(2026, 1, 15, 14, 0), LocalDateTime.of(2026, 1, 15, 15, 0));
+        Reservation r2 = reservation(11L, LocalDateTime.of(2026, 1, 15, 9, 0), LocalDateTime.of(2026, 1, 15, 10, 0));
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of(r1, r2));
+
+        List<Reservation> candidats = disponibiliteIndex.candidats(1L,
+                LocalDateTime.of(2026, 1, 15, 0, 0), LocalDateTime.of(2026, 1, 16, 0, 0));
+
+        assertEquals(List.of(r2, r1), candidats);
+    }
+
+    @Test
+    void ChevaucheRetombeSurVerificationExacteQuandReservationHorsGrille() {
+        when(reservationRepository.findBySalleId(eq(1L)))
+                .thenReturn(List.of(reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 5), LocalDateTime.of(2026, 1, 15, 10, 50))));
+
+        assertFalse(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 10, 50), LocalDateTime.of(2026, 1, 15, 11, 0)));
+        assertTrue(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 10, 40), LocalDateTime.of(2026, 1, 15, 11, 0)));
+        assertFalse(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 9, 0), LocalDateTime.of(2026, 1, 15, 10, 5)));
+    }
+
+    @Test
+    void OccupationEstRecalculeeApresRetrait() {
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of());
+        assertFalse(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+
+        Reservation r1 = reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 10, 10));
+        Reservation r2 = reservation(11L, LocalDateTime.of(2026, 1, 15, 10, 10), LocalDateTime.of(2026, 1, 15, 10, 15));
+        disponibiliteIndex.ajouter(r1);
+        disponibiliteIndex.ajouter(r2);
+        assertTrue(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+
+        disponibiliteIndex.retirer(r1);
+        assertTrue(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+        assertFalse(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 10, 10)));
+
+        disponibiliteIndex.retirer(r2);
+        assertFalse(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+    }
+
+    @Test
+    void GrillesDeJoursEnCacheSontBornees() {
+        when(reservationRepository.findBySalleId(eq(1L)))
+                .thenReturn(List.of(reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0))));
+
+        LocalDate premier = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            disponibiliteIndex.occupation(1L, premier.plusDays(i));
+        }
+
+        assertTrue(disponibiliteIndex.joursEnCache(1L) <= 64, disponibiliteIndex.joursEnCache(1L) + " jours en cache");
+        // un jour évincé est recalculé depuis le planning
+        assertTrue(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+        assertTrue(disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 10, 30), LocalDateTime.of(2026, 1, 15, 10, 45)));
+    }
+
+    @Test
+    void OccupationRetourneeNEstPasModifieeParLesReservationsSuivantes() {
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of());
+        JourCreneaux avant = disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15));
+
+        disponibiliteIndex.ajouter(reservation(10L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0)));
+
+        assertFalse(avant.estOccupe(40));
+        assertTrue(disponibiliteIndex.occupation(1L, LocalDate.of(2026, 1, 15)).estOccupe(40));
+    }
+
+    private Reservation reservation(Long id, LocalDateTime debut, LocalDateTime fin) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setSalle(salle);
+        r.setDateDebut(debut);
+        r.setDateFin(fin);
+        return r;
+    }
+}
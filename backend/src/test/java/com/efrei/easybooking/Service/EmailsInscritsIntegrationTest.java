@@ -0,0 +1,78 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pas de @Transactional : le filtre relit la table comme le ferait une autre instance, les comptes
+ * doivent donc être validés en base. Ils sont supprimés après chaque test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailsInscritsIntegrationTest {
+
+    @Autowired
+    private EmailsInscrits emailsInscrits;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Utilisateur> crees = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        utilisateurRepository.deleteAll(crees);
+    }
+
+    @Test
+    void CompteCreeParUneAutreInstanceEstConnuApresRafraichissement() {
+        emailsInscrits.rafraichir();
+        // inscription faite directement en base, comme sur une autre instance
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail("autre.instance@test.com");
+        utilisateur.setPassword("password123");
+        crees.add(utilisateurRepository.save(utilisateur));
+
+        assertTrue(emailsInscrits.rafraichir() >= 1);
+
+        assertTrue(emailsInscrits.peutExister("autre.instance@test.com"));
+        assertEquals(utilisateur.getId(), authService.login("autre.instance@test.com", "password123").getId());
+    }
+
+    @Test
+    void ChargementParPagesParcourtTousLesComptes() {
+        for (int i = 0; i < 25; i++) {
+            Utilisateur utilisateur = new Utilisateur();
+            utilisateur.setEmail("page" + i + "@test.com");
+            utilisateur.setPassword("password123");
+            crees.add(utilisateurRepository.save(utilisateur));
+        }
+        // pages de 10 lignes : le premier chargement doit enchaîner au moins 3 pages
+        EmailsInscrits pagine = new EmailsInscrits(jdbcTemplate, new FiltreBloom(1_000, 0.01), Duration.ofHours(1), 10);
+
+        assertTrue(pagine.rafraichir() >= 25);
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(pagine.peutExister("page" + i + "@test.com"));
+        }
+        assertFalse(pagine.peutExister("absent@test.com"));
+    }
+}
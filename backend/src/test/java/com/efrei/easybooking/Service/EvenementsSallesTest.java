@@ -0,0 +1,171 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.Entity.Salle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EvenementsSallesTest {
+
+    private EvenementsSalles evenements;
+
+    @AfterEach
+    void nettoyer() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        evenements.arreter();
+    }
+
+    private EvenementsSalles creer(int tampon, int abonnesMax) {
+        CatalogueSalles catalogueSalles = mock(CatalogueSalles.class);
+        when(catalogueSalles.trouver(eq(1L))).thenReturn(new Salle());
+        evenements = new EvenementsSalles(catalogueSalles, JsonMapper.builder().build(), tampon, abonnesMax,
+                Duration.ofMinutes(30), Duration.ofHours(1));
+        return evenements;
+    }
+
+    private static List<ReservationVueDTO> reservation(long id) {
+        LocalDateTime debut = LocalDateTime.of(2027, 6, 1, 9, 0);
+        return List.of(new ReservationVueDTO(id, debut, debut.plusHours(1), 1L, "Salle A"));
+    }
+
+    @Test
+    void EvenementEnvoyeAuxSeulsAbonnesDeLaSalleApresValidation() throws Exception {
+        creer(32, 100);
+        Emetteur salle1 = new Emetteur(null);
+        Emetteur salle2 = new Emetteur(null);
+        evenements.abonner(1L, salle1);
+        evenements.abonner(2L, salle2);
+        assertEquals("retry:5000\n\n", salle1.suivant());
+        assertEquals("retry:5000\n\n", salle2.suivant());
+
+        // transaction annulée : rien n'est diffusé
+        TransactionSynchronizationManager.initSynchronization();
+        evenements.reservationsCreees(1L, reservation(10L));
+        terminer(false);
+        // transaction validée : l'événement part à la validation
+        TransactionSynchronizationManager.initSynchronization();
+        evenements.reservationsSupprimees(1L, reservation(11L));
+        assertNull(salle1.recus.poll(200, TimeUnit.MILLISECONDS));
+        terminer(true);
+
+        String evenement = salle1.suivant();
+        assertTrue(evenement.startsWith("event:reservations-supprimees\ndata:[{\"id\":11,"), evenement);
+        assertTrue(evenement.contains("\"dateDebut\":\"2027-06-01T09:00:00\""), evenement);
+        assertNull(salle1.recus.poll(200, TimeUnit.MILLISECONDS));
+        assertNull(salle2.recus.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void AbonneTropLentDeconnecteSansBloquerLaPublication() throws Exception {
+        creer(4, 100);
+        CountDownLatch liberation = new CountDownLatch(1);
+        Emetteur lent = new Emetteur(liberation);
+        Emetteur rapide = new Emetteur(null);
+        evenements.abonner(1L, lent);
+        evenements.abonner(1L, rapide);
+
+        try {
+            rapide.suivant();
+            long publicationNanos = 0;
+            // le client rapide lit chaque événement avant le suivant, le lent ne lit plus rien
+            for (long i = 0; i < 20; i++) {
+                long debut = System.nanoTime();
+                evenements.reservationsCreees(1L, reservation(i));
+                publicationNanos += System.nanoTime() - debut;
+                assertTrue(rapide.suivant().contains("\"id\":" + i + ","), "Événements reçus dans l'ordre");
+            }
+
+            long dureeMs = TimeUnit.NANOSECONDS.toMillis(publicationNanos);
+            assertTrue(dureeMs < 1_000, "Publier ne doit pas attendre l'abonné bloqué (" + dureeMs + " ms)");
+            assertTrue(lent.termine.await(5, TimeUnit.SECONDS), "L'abonné dont la file déborde doit être déconnecté");
+            assertEquals(1, evenements.nombreAbonnes());
+        } finally {
+            liberation.countDown();
+        }
+    }
+
+    @Test
+    void AbonnementsBornesParInstanceEtSalleInconnueRefusee() {
+        creer(32, 1);
+        evenements.abonner(1L, new Emetteur(null));
+
+        AbonnementsSaturesException saturation = assertThrows(AbonnementsSaturesException.class,
+                () -> evenements.abonner(1L, new Emetteur(null)));
+        assertEquals(5, saturation.getRetryAfterSecondes());
+        RuntimeException inconnue = assertThrows(RuntimeException.class, () -> evenements.abonner(99L));
+        assertEquals("Salle non trouvée", inconnue.getMessage());
+        assertEquals(1, evenements.nombreAbonnes());
+    }
+
+    private static void terminer(boolean validee) {
+        List<TransactionSynchronization> synchronisations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronisation : synchronisations) {
+            if (validee) {
+                synchronisation.afterCommit();
+            }
+            synchronisation.afterCompletion(validee
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    /**
+     * Garde le texte de chaque événement envoyé ; bloque chaque envoi tant que {@code liberation} n'est pas
+     * ouverte, comme une connexion dont le client ne lit plus.
+     */
+    private static final class Emetteur extends SseEmitter {
+
+        private final BlockingQueue<String> recus = new LinkedBlockingQueue<>();
+        private final CountDownLatch liberation;
+        private final CountDownLatch termine = new CountDownLatch(1);
+
+        private Emetteur(CountDownLatch liberation) {
+            this.liberation = liberation;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> evenement) throws IOException {
+            if (liberation != null) {
+                try {
+                    liberation.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            recus.add(evenement.stream().map(donnee -> donnee.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            termine.countDown();
+        }
+
+        private String suivant() throws InterruptedException {
+            String evenement = recus.poll(5, TimeUnit.SECONDS);
+            assertNotNull(evenement, "Aucun événement reçu");
+            return evenement;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.efrei.easybooking.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltreBloomTest {
+
+    @Test
+    void AucunFauxNegatifPourLesEmailsAjoutes() {
+        FiltreBloom filtre = new FiltreBloom(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filtre.ajouter("user" + i + "@test.com");
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filtre.peutContenir("user" + i + "@test.com"));
+        }
+    }
+
+    @Test
+    void TauxDeFauxPositifsProcheDeLaCibleAPleineCapacite() {
+        FiltreBloom filtre = new FiltreBloom(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filtre.ajouter("user" + i + "@test.com");
+        }
+
+        int fauxPositifs = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtre.peutContenir("inconnu" + i + "@test.com")) {
+                fauxPositifs++;
+            }
+        }
+
+        assertTrue(fauxPositifs < 1_500, "Le taux de faux positifs doit rester proche de 1 %, il est de "
+                + fauxPositifs / 1_000.0 + " %");
+        assertFalse(new FiltreBloom(100_000, 0.01).peutContenir("user0@test.com"));
+    }
+
+    @Test
+    void DimensionnementPourDixMillionsDUtilisateurs() {
+        FiltreBloom filtre = new FiltreBloom(10_000_000, 0.01);
+
+        assertEquals(95_850_584, filtre.getNombreBits(), 1);
+        assertEquals(7, filtre.getNombreHachages());
+        assertTrue(filtre.getTailleOctets() < 12 * 1024 * 1024, "Le filtre doit tenir sous 12 Mo");
+    }
+}
@@ -0,0 +1,108 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.JetonsDTO;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class JetonServiceTest {
+
+    private static final String SECRET = "un-secret-de-test-d-au-moins-32-octets";
+    private static final Instant MAINTENANT = Instant.parse("2026-01-15T10:00:00Z");
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        utilisateur = new Utilisateur();
+        utilisateur.setId(42L);
+        utilisateur.setEmail("test@test.com");
+    }
+
+    private JetonService service(Instant instant) {
+        return service(instant, SECRET);
+    }
+
+    private JetonService service(Instant instant, String secret) {
+        return new JetonService(utilisateurRepository, "jeton", secret,
+                Duration.ofMinutes(15), Duration.ofDays(7), Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    void JetonAccesEmisEstVerifieParUneAutreInstanceAvecLeMemeSecret() {
+        JetonsDTO jetons = service(MAINTENANT).emettre(utilisateur);
+
+        assertEquals(42L, service(MAINTENANT).verifierAcces(jetons.jetonAcces()));
+        assertEquals(900, jetons.expireDansSecondes());
+    }
+
+    @Test
+    void JetonAccesRefuseQuandExpireOuSigneAvecUnAutreSecret() {
+        JetonsDTO jetons = service(MAINTENANT).emettre(utilisateur);
+
+        RuntimeException expire = assertThrows(RuntimeException.class,
+                () -> service(MAINTENANT.plus(Duration.ofMinutes(16))).verifierAcces(jetons.jetonAcces()));
+        assertEquals("Jeton invalide ou expiré", expire.getMessage());
+        assertThrows(RuntimeException.class,
+                () -> service(MAINTENANT, SECRET + "-autre").verifierAcces(jetons.jetonAcces()));
+    }
+
+    @Test
+    void JetonModifieOuMalFormeEstRefuse() {
+        JetonService jetonService = service(MAINTENANT);
+        String jeton = jetonService.emettre(utilisateur).jetonAcces();
+        String autreUtilisateur = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("a.1." + MAINTENANT.plusSeconds(600).getEpochSecond()).getBytes());
+
+        assertThrows(RuntimeException.class,
+                () -> jetonService.verifierAcces(autreUtilisateur + jeton.substring(jeton.indexOf('.'))));
+        assertThrows(RuntimeException.class, () -> jetonService.verifierAcces("pas-un-jeton"));
+        assertThrows(RuntimeException.class, () -> jetonService.verifierAcces("@@@.###"));
+    }
+
+    @Test
+    void JetonRafraichissementNeSertPasDAcces() {
+        JetonService jetonService = service(MAINTENANT);
+        JetonsDTO jetons = jetonService.emettre(utilisateur);
+
+        assertThrows(RuntimeException.class, () -> jetonService.verifierAcces(jetons.jetonRafraichissement()));
+        assertThrows(RuntimeException.class, () -> jetonService.rafraichir(jetons.jetonAcces()));
+    }
+
+    @Test
+    void RafraichirEmetUneNouvellePaireTantQueLUtilisateurExiste() {
+        JetonsDTO jetons = service(MAINTENANT).emettre(utilisateur);
+        when(utilisateurRepository.findById(42L)).thenReturn(Optional.of(utilisateur));
+
+        // le jeton d'accès a expiré, le jeton de rafraîchissement est encore valable
+        JetonService plusTard = service(MAINTENANT.plus(Duration.ofHours(2)));
+        JetonsDTO nouveaux = plusTard.rafraichir(jetons.jetonRafraichissement());
+        assertEquals(42L, plusTard.verifierAcces(nouveaux.jetonAcces()));
+
+        when(utilisateurRepository.findById(42L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> plusTard.rafraichir(jetons.jetonRafraichissement()));
+    }
+
+    @Test
+    void ModeJetonExigeUnSecretDeTrenteDeuxOctets() {
+        assertThrows(IllegalStateException.class, () -> service(MAINTENANT, "trop-court"));
+    }
+}
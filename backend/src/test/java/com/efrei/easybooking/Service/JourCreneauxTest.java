@@ -0,0 +1,65 @@
+package com.efrei.easybooking.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JourCreneauxTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2026, 1, 15);
+
+    @Test
+    void VerifierRetourneOccupeQuandCreneauAlignePris() {
+        JourCreneaux jour = new JourCreneaux(JOUR);
+        jour.marquer(JOUR.atTime(10, 0), JOUR.atTime(12, 0));
+
+        assertEquals(JourCreneaux.Verdict.OCCUPE, jour.verifier(JOUR.atTime(11, 0), JOUR.atTime(13, 0)));
+        assertEquals(JourCreneaux.Verdict.OCCUPE, jour.verifier(JOUR.atTime(9, 0), JOUR.atTime(10, 5)));
+    }
+
+    @Test
+    void VerifierRetourneLibreQuandCreneauAdjacent() {
+        JourCreneaux jour = new JourCreneaux(JOUR);
+        jour.marquer(JOUR.atTime(10, 0), JOUR.atTime(12, 0));
+
+        assertEquals(JourCreneaux.Verdict.LIBRE, jour.verifier(JOUR.atTime(12, 0), JOUR.atTime(14, 0)));
+        assertEquals(JourCreneaux.Verdict.LIBRE, jour.verifier(JOUR.atTime(8, 0), JOUR.atTime(10, 0)));
+    }
+
+    @Test
+    void VerifierRetourneIncertainQuandReservationHorsGrille() {
+        JourCreneaux jour = new JourCreneaux(JOUR);
+        jour.marquer(JOUR.atTime(10, 5), JOUR.atTime(10, 10));
+
+        assertEquals(JourCreneaux.Verdict.INCERTAIN, jour.verifier(JOUR.atTime(9, 45), JOUR.atTime(10, 15)));
+    }
+
+    @Test
+    void MarquerBorneUneReservationSurPlusieursJoursALaJournee() {
+        JourCreneaux jour = new JourCreneaux(JOUR);
+        jour.marquer(JOUR.minusDays(1).atTime(22, 0), JOUR.plusDays(2).atTime(8, 0));
+
+        String occupation = jour.occupation();
+        assertEquals(JourCreneaux.CRENEAUX_PAR_JOUR, occupation.length());
+        assertFalse(occupation.contains("0"));
+        assertEquals(JourCreneaux.Verdict.OCCUPE, jour.verifier(JOUR.atTime(23, 45), LocalDateTime.of(JOUR.plusDays(1), JOUR.atStartOfDay().toLocalTime())));
+    }
+
+    @Test
+    void OccupationMarqueLesCreneauxTouches() {
+        JourCreneaux jour = new JourCreneaux(JOUR);
+        jour.marquer(JOUR.atTime(0, 10), JOUR.atTime(0, 20));
+        jour.marquer(JOUR.atTime(23, 50), JOUR.plusDays(1).atStartOfDay());
+
+        String occupation = jour.occupation();
+        assertTrue(occupation.startsWith("11000"));
+        assertTrue(occupation.endsWith("01"));
+        assertTrue(jour.estOccupe(JourCreneaux.CRENEAUX_PAR_JOUR - 1));
+        assertFalse(jour.estOccupe(2));
+    }
+}
@@ -0,0 +1,54 @@
+package com.efrei.easybooking.Service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tests de performance pour LimiteurDebit")
+class LimiteurDebitPerformanceTest {
+
+    @Test
+    @DisplayName("Une décision de limitation doit coûter quelques microsecondes")
+    void consommerDoitPrendreQuelquesMicrosecondes() throws Exception {
+        LimiteurDebit limiteur = new LimiteurDebit(20, Duration.ofMinutes(1), 64, 1024, Duration.ofMinutes(10));
+        int threads = 4;
+        int appelsParThread = 250_000;
+        String[] cles = new String[20_000];
+        for (int i = 0; i < cles.length; i++) {
+            cles[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+
+        // échauffement de la JVM
+        for (int i = 0; i < 200_000; i++) {
+            limiteur.consommer(cles[i % cles.length]);
+        }
+
+        ExecutorService executeur = Executors.newFixedThreadPool(threads);
+        long startTime = System.nanoTime();
+        List<Future<?>> taches = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int decalage = t * 5_000;
+            taches.add(executeur.submit(() -> {
+                for (int i = 0; i < appelsParThread; i++) {
+                    limiteur.consommer(cles[(decalage + i) % cles.length]);
+                }
+            }));
+        }
+        for (Future<?> tache : taches) {
+            tache.get();
+        }
+        double tempsMoyenMicros = (System.nanoTime() - startTime) / 1_000.0 / (threads * appelsParThread);
+        executeur.shutdown();
+
+        assertTrue(tempsMoyenMicros < 2,
+                "Une décision doit prendre moins de 2 µs en moyenne, mais a pris " + tempsMoyenMicros + " µs");
+    }
+}
@@ -0,0 +1,84 @@
+package com.efrei.easybooking.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteurDebitTest {
+
+    private final AtomicLong horloge = new AtomicLong();
+
+    private LimiteurDebit limiteur(int capacite, Duration recharge, int bandes, int clesParBande) {
+        return new LimiteurDebit(capacite, recharge, bandes, clesParBande, Duration.ofMinutes(1), horloge::get);
+    }
+
+    private void avancer(Duration duree) {
+        horloge.addAndGet(duree.toNanos());
+    }
+
+    @Test
+    void AccepteJusquALaCapacitePuisIndiqueLeDelai() {
+        LimiteurDebit limiteur = limiteur(3, Duration.ofSeconds(30), 4, 100);
+
+        assertEquals(0, limiteur.consommer("10.0.0.1"));
+        assertEquals(0, limiteur.consommer("10.0.0.1"));
+        assertEquals(0, limiteur.consommer("10.0.0.1"));
+        // 3 jetons pour 30 s : un jeton toutes les 10 s
+        assertEquals(10, limiteur.consommer("10.0.0.1"));
+    }
+
+    @Test
+    void SeRechargeAuFilDuTempsSansDepasserLaCapacite() {
+        LimiteurDebit limiteur = limiteur(3, Duration.ofSeconds(30), 4, 100);
+        for (int i = 0; i < 3; i++) {
+            limiteur.consommer("10.0.0.1");
+        }
+
+        avancer(Duration.ofSeconds(10));
+        assertEquals(0, limiteur.consommer("10.0.0.1"));
+        assertTrue(limiteur.consommer("10.0.0.1") > 0);
+
+        avancer(Duration.ofMinutes(10));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiteur.consommer("10.0.0.1"));
+        }
+        assertTrue(limiteur.consommer("10.0.0.1") > 0);
+    }
+
+    @Test
+    void ChaqueCleASonPropreSeau() {
+        LimiteurDebit limiteur = limiteur(1, Duration.ofMinutes(1), 4, 100);
+
+        assertEquals(0, limiteur.consommer("a@test.com"));
+        assertTrue(limiteur.consommer("a@test.com") > 0);
+        assertEquals(0, limiteur.consommer("b@test.com"));
+    }
+
+    @Test
+    void NombreDeClesBorneParBande() {
+        LimiteurDebit limiteur = limiteur(5, Duration.ofMinutes(1), 4, 50);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiteur.consommer("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertTrue(limiteur.taille() <= 4 * 50, "Au plus 200 clés doivent rester en mémoire, il y en a " + limiteur.taille());
+    }
+
+    @Test
+    void ClesInactivesSontEvincees() {
+        LimiteurDebit limiteur = limiteur(5, Duration.ofSeconds(30), 1, 1000);
+        for (int i = 0; i < 100; i++) {
+            limiteur.consommer("inactive-" + i);
+        }
+
+        avancer(Duration.ofMinutes(2));
+        limiteur.consommer("active");
+
+        assertEquals(1, limiteur.taille());
+    }
+}
@@ -0,0 +1,168 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.PageDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.DTO.UtilisateurVueDTO;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parcourt les listes paginées par clé jusqu'à la dernière page et vérifie qu'une page profonde
+ * ne coûte pas plus qu'une autre.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class PaginationIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SalleService salleService;
+
+    @Autowired
+    private UtilisateurService utilisateurService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistiques;
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("pagination@test.com");
+        utilisateur.setPassword("password123");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    private Salle salle(String nom) {
+        Salle salle = new Salle();
+        salle.setNom(nom);
+        salle.setLocation("Bâtiment P");
+        return salleRepository.save(salle);
+    }
+
+    @Test
+    void ReservationsParcouruesSansDoublonNiOubliMemeADateDeDebutEgale() {
+        Salle salleA = salle("Pagination A");
+        Salle salleB = salle("Pagination B");
+        // deux réservations par créneau (une par salle) : la clé (dateDebut, id) départage les égalités
+        for (int jour = 1; jour <= 4; jour++) {
+            for (Salle salle : List.of(salleA, salleB)) {
+                Reservation reservation = new Reservation();
+                reservation.setSalle(salle);
+                reservation.setUtilisateur(utilisateur);
+                reservation.setDateDebut(LocalDateTime.of(2027, 5, jour, 9, 0));
+                reservation.setDateFin(LocalDateTime.of(2027, 5, jour, 10, 0));
+                reservationRepository.save(reservation);
+            }
+        }
+        entityManager.flush();
+
+        List<ReservationVueDTO> lues = new ArrayList<>();
+        String curseur = null;
+        int pages = 0;
+        do {
+            PageDTO<ReservationVueDTO> page = reservationService.getReservationsByUser(utilisateur.getId(), curseur, 3);
+            assertTrue(page.elements().size() <= 3);
+            lues.addAll(page.elements());
+            curseur = page.next();
+            pages++;
+        } while (curseur != null);
+
+        assertEquals(3, pages);
+        assertEquals(8, lues.size());
+        assertEquals(8, lues.stream().map(ReservationVueDTO::id).distinct().count());
+        assertEquals(lues.stream().sorted(Comparator.comparing(ReservationVueDTO::dateDebut)
+                .thenComparing(ReservationVueDTO::id)).toList(), lues);
+    }
+
+    @Test
+    void PageProfondeDeSallesSansRequeteUneFoisLeCatalogueEnCache() {
+        List<Salle> salles = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            salles.add(salle("Pagination " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // la première page charge le catalogue en une requête
+        salleService.findPage(null, 5);
+        statistiques.clear();
+
+        // reprise juste avant les 5 dernières salles créées, comme après 59 pages de 5
+        String curseur = Pagination.curseur(salles.get(294).getId());
+        PageDTO<Salle> page = salleService.findPage(curseur, 5);
+
+        assertEquals(salles.subList(295, 300).stream().map(Salle::getId).toList(),
+                page.elements().stream().map(Salle::getId).toList());
+        assertNull(page.next());
+        assertEquals(0, statistiques.getPrepareStatementCount(), "La page doit être découpée dans le catalogue en cache");
+    }
+
+    @Test
+    void UtilisateursParcourusParPages() {
+        for (int i = 0; i < 4; i++) {
+            Utilisateur autre = new Utilisateur();
+            autre.setEmail("pagination" + i + "@test.com");
+            autre.setPassword("password123");
+            utilisateurRepository.save(autre);
+        }
+        long total = utilisateurRepository.count();
+
+        long lus = 0;
+        String curseur = null;
+        do {
+            PageDTO<UtilisateurVueDTO> page = utilisateurService.getAllUsers(curseur, 2);
+            lus += page.elements().size();
+            curseur = page.next();
+        } while (curseur != null);
+
+        assertEquals(total, lus);
+    }
+
+    @Test
+    void CurseurInvalideEstRefuse() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reservationService.getReservationsByUser(utilisateur.getId(), Pagination.curseur("hier", 1L), 3));
+
+        assertEquals("Curseur invalide", exception.getMessage());
+    }
+}
@@ -0,0 +1,54 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.PageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaginationTest {
+
+    @Test
+    void LimiteParDefautEtBornes() {
+        assertEquals(Pagination.LIMITE_DEFAUT, Pagination.limite(null));
+        assertEquals(1, Pagination.limite(1));
+        assertEquals(Pagination.LIMITE_MAX, Pagination.limite(Pagination.LIMITE_MAX));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> Pagination.limite(0));
+        assertEquals("La limite doit être comprise entre 1 et " + Pagination.LIMITE_MAX, exception.getMessage());
+        assertThrows(RuntimeException.class, () -> Pagination.limite(Pagination.LIMITE_MAX + 1));
+    }
+
+    @Test
+    void CurseurRelitLaCleQuIlContient() {
+        String curseur = Pagination.curseur("2026-01-15T10:00", 42L);
+
+        assertArrayEquals(new String[]{"2026-01-15T10:00", "42"}, Pagination.lireCurseur(curseur, 2));
+        assertEquals(42L, Pagination.lireIdentifiant(Pagination.curseur(42L)));
+        assertNull(Pagination.lireCurseur(null, 2));
+        assertEquals(0L, Pagination.lireIdentifiant(null));
+    }
+
+    @Test
+    void CurseurInvalideEstRefuse() {
+        for (String curseur : List.of("pas du base64 !", Pagination.curseur("abc"), Pagination.curseur(1L, 2L))) {
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> Pagination.lireIdentifiant(curseur));
+            assertEquals("Curseur invalide", exception.getMessage());
+        }
+    }
+
+    @Test
+    void PageSuivanteSignaleeParLaLigneEnTrop() {
+        PageDTO<Integer> pleine = Pagination.page(List.of(1, 2, 3, 4), 3, n -> Pagination.curseur(n));
+        assertEquals(List.of(1, 2, 3), pleine.elements());
+        assertEquals(3L, Pagination.lireIdentifiant(pleine.next()));
+
+        PageDTO<Integer> derniere = Pagination.page(List.of(1, 2, 3), 3, n -> Pagination.curseur(n));
+        assertEquals(List.of(1, 2, 3), derniere.elements());
+        assertNull(derniere.next());
+    }
+}
@@ -0,0 +1,167 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compte les requêtes SQL réellement envoyées (statistiques Hibernate) sur les chemins fréquents :
+ * un SELECT en trop sur ces chemins fait échouer le test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ReservationRequetesIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private CatalogueSalles catalogueSalles;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistiques;
+    private Salle salle;
+    private Salle autreSalle;
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        salle = new Salle();
+        salle.setNom("Salle requêtes");
+        salle.setLocation("Bâtiment R");
+        salle = salleRepository.save(salle);
+
+        autreSalle = new Salle();
+        autreSalle.setNom("Autre salle requêtes");
+        autreSalle.setLocation("Bâtiment R");
+        autreSalle = salleRepository.save(autreSalle);
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("requetes@test.com");
+        utilisateur.setPassword("password123");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    private void reserver(Salle salleReservee, LocalDateTime debut) {
+        Reservation reservation = new Reservation();
+        reservation.setSalle(salleReservee);
+        reservation.setUtilisateur(utilisateur);
+        reservation.setDateDebut(debut);
+        reservation.setDateFin(debut.plusHours(1));
+        reservationRepository.save(reservation);
+    }
+
+    // rien en cache dans le contexte de persistance : chaque lecture compte
+    private void viderContexteEtStatistiques() {
+        entityManager.flush();
+        entityManager.clear();
+        statistiques.clear();
+    }
+
+    @Test
+    void GetReservationsByUserEnUneSeuleRequete() {
+        reserver(salle, LocalDateTime.of(2027, 3, 1, 9, 0));
+        reserver(salle, LocalDateTime.of(2027, 3, 1, 11, 0));
+        reserver(autreSalle, LocalDateTime.of(2027, 3, 2, 9, 0));
+        viderContexteEtStatistiques();
+
+        List<ReservationVueDTO> reservations = reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements();
+
+        assertEquals(3, reservations.size());
+        assertEquals(1, statistiques.getPrepareStatementCount(),
+                "Une seule requête doit lire les réservations et le nom de leurs salles");
+        assertEquals(0, statistiques.getEntityLoadCount(), "La projection ne doit hydrater aucune entité");
+        assertEquals("Autre salle requêtes", reservations.stream()
+                .filter(r -> r.salleId().equals(autreSalle.getId()))
+                .findFirst().orElseThrow().salleNom());
+    }
+
+    @Test
+    void GetReservationsBySalleAndDateNeChargeAucuneEntite() {
+        // réservations écrites sans passer par le service : la salle n'est pas dans l'index, la base est lue
+        reserver(salle, LocalDateTime.of(2027, 3, 1, 9, 0));
+        reserver(salle, LocalDateTime.of(2027, 3, 1, 14, 0));
+        reserver(salle, LocalDateTime.of(2027, 3, 2, 9, 0));
+        entityManager.flush();
+        // l'existence de la salle est vérifiée dans le cache des salles, chargé ici
+        catalogueSalles.trouver(salle.getId());
+        viderContexteEtStatistiques();
+
+        List<ReservationVueDTO> reservations = reservationService.getReservationsBySalleAndDate(
+                salle.getId(), LocalDate.of(2027, 3, 1));
+
+        assertEquals(List.of(LocalDateTime.of(2027, 3, 1, 9, 0), LocalDateTime.of(2027, 3, 1, 14, 0)),
+                reservations.stream().map(ReservationVueDTO::dateDebut).toList());
+        assertEquals(0, statistiques.getEntityLoadCount(), "La projection ne doit hydrater aucune entité");
+    }
+
+    @Test
+    void VueReservationNExposeQueLesChampsAffiches() {
+        reserver(salle, LocalDateTime.of(2027, 3, 1, 9, 0));
+        viderContexteEtStatistiques();
+
+        String json = objectMapper.writeValueAsString(reservationService.getReservationsByUser(utilisateur.getId(), null, null)
+                .elements().get(0));
+
+        assertEquals(List.of("id", "dateDebut", "dateFin", "salleId", "salleNom"),
+                List.copyOf(objectMapper.readTree(json).propertyNames()));
+        assertFalse(json.contains("password"));
+    }
+
+    @Test
+    void CreerReservationNeChargePasLUtilisateur() {
+        // première réservation : charge le planning de la salle dans l'index et réserve un bloc de la séquence
+        reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2027, 3, 1, 9, 0), LocalDateTime.of(2027, 3, 1, 10, 0));
+        viderContexteEtStatistiques();
+
+        Reservation creee = reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2027, 3, 1, 10, 0), LocalDateTime.of(2027, 3, 1, 11, 0));
+
+        // SELECT ... FOR UPDATE de la salle, vérification de chevauchement, INSERT
+        assertEquals(3, statistiques.getPrepareStatementCount());
+        assertEquals(0, statistiques.getEntityStatistics(Utilisateur.class.getName()).getLoadCount());
+        assertEquals(utilisateur.getId(), creee.getUtilisateurId());
+    }
+}
@@ -0,0 +1,161 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test de charge concurrent : pas de @Transactional ici, chaque réservation doit être réellement
+ * validée en base pour que les threads se voient entre eux. Les données sont nettoyées après le test.
+ * Moins de connexions que de threads, et des plannings qui expirent aussitôt : une création ne doit jamais
+ * demander une seconde connexion en tenant le verrou de la salle, sinon le pool s'épuise.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "easybooking.disponibilite.expiration=1ms"
+})
+@ActiveProfiles("test")
+class ReservationServiceConcurrenceTest {
+
+    private static final int NOMBRE_SALLES = 4;
+    private static final int NOMBRE_REQUETES = 2_000;
+    private static final int NOMBRE_THREADS = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private final List<Salle> salles = new ArrayList<>();
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NOMBRE_SALLES; i++) {
+            Salle salle = new Salle();
+            salle.setNom("Salle concurrence " + i);
+            salle.setLocation("Étage " + i);
+            salles.add(salleRepository.save(salle));
+        }
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("concurrence@test.com");
+        utilisateur.setPassword("password");
+        utilisateur = utilisateurRepository.save(utilisateur);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Salle salle : salles) {
+            reservationRepository.deleteAll(reservationRepository.findBySalleId(salle.getId()));
+            disponibiliteIndex.invalider(salle.getId());
+        }
+        salleRepository.deleteAll(salles);
+        utilisateurRepository.delete(utilisateur);
+    }
+
+    @Test
+    void ReservationsConcurrentesNeSeChevauchentJamais() throws InterruptedException {
+        // créneaux d'une heure décalés de 30 minutes sur une journée : chaque requête en chevauche d'autres
+        LocalDateTime origine = LocalDateTime.of(2027, 3, 1, 8, 0);
+        Random random = new Random(42);
+        List<Runnable> requetes = new ArrayList<>();
+        AtomicInteger acceptees = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < NOMBRE_REQUETES; i++) {
+            Long salleId = salles.get(i % NOMBRE_SALLES).getId();
+            LocalDateTime debut = origine.plusMinutes(30L * random.nextInt(24));
+            requetes.add(() -> {
+                try {
+                    reservationService.creerReservation(salleId, utilisateur.getId(), debut, debut.plusHours(1));
+                    acceptees.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if ("La salle est déjà réservée sur ce créneau".equals(e.getMessage())) {
+                        refusees.incrementAndGet();
+                    } else {
+                        erreurs.add(e);
+                    }
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NOMBRE_THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(NOMBRE_REQUETES);
+        for (Runnable requete : requetes) {
+            executor.submit(() -> {
+                try {
+                    depart.await();
+                    requete.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            });
+        }
+
+        long startTime = System.currentTimeMillis();
+        depart.countDown();
+        assertTrue(fin.await(60, TimeUnit.SECONDS), "Les requêtes doivent se terminer en moins de 60 secondes");
+        long duration = Math.max(1, System.currentTimeMillis() - startTime);
+        executor.shutdown();
+
+        assertTrue(erreurs.isEmpty(), "Aucune erreur autre qu'un conflit n'est attendue : " + erreurs);
+        assertEquals(NOMBRE_REQUETES, acceptees.get() + refusees.get());
+
+        int enBase = 0;
+        for (Salle salle : salles) {
+            List<Reservation> reservations = new ArrayList<>(reservationRepository.findBySalleId(salle.getId()));
+            reservations.sort(Comparator.comparing(Reservation::getDateDebut));
+            for (int i = 1; i < reservations.size(); i++) {
+                Reservation precedente = reservations.get(i - 1);
+                Reservation suivante = reservations.get(i);
+                assertFalse(suivante.getDateDebut().isBefore(precedente.getDateFin()),
+                        "Double réservation détectée dans " + salle.getNom() + " : "
+                                + precedente.getDateDebut() + " et " + suivante.getDateDebut());
+            }
+            enBase += reservations.size();
+        }
+        assertEquals(acceptees.get(), enBase);
+
+        long debitParSeconde = NOMBRE_REQUETES * 1000L / duration;
+        assertTrue(debitParSeconde >= 200,
+                "Le débit doit être d'au moins 200 requêtes/s, mais a été de " + debitParSeconde + " requêtes/s");
+    }
+}
@@ -1,6 +1,12 @@
 package com.efrei.easybooking.Service;
 
+import com.efrei.easybooking.DTO.ReservationDTO;
+import com.efrei.easybooking.DTO.ReservationSerieDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.DTO.ResultatReservationDTO;
+import com.efrei.easybooking.DTO.SerieCreeeDTO;
 import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.ReservationSerie;
 import com.efrei.easybooking.Entity.Salle;
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.ReservationRepository;
@@ -13,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -291,17 +298,17 @@ class ReservationServiceIntegrationTest {
         reservation2.setDateFin(dateFin2);
         reservationRepository.save(reservation2);
 
-        List<Reservation> result = reservationService.getReservationsByUser(utilisateur.getId());
+        List<ReservationVueDTO> result = reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements();
 
         assertEquals(2, result.size());
-        assertTrue(result.stream().anyMatch(r -> r.getDateDebut().equals(dateDebut1)));
-        assertTrue(result.stream().anyMatch(r -> r.getDateDebut().equals(dateDebut2)));
+        assertTrue(result.stream().anyMatch(r -> r.dateDebut().equals(dateDebut1)));
+        assertTrue(result.stream().anyMatch(r -> r.dateDebut().equals(dateDebut2)));
     }
 
     @Test
     @Transactional
     void GetReservationsByUserRetourneListeVideQuandAucuneReservation() {
-        List<Reservation> result = reservationService.getReservationsByUser(utilisateur.getId());
+        List<ReservationVueDTO> result = reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements();
 
         assertTrue(result.isEmpty());
     }
@@ -331,10 +338,10 @@ class ReservationServiceIntegrationTest {
         reservationAutreUtilisateur.setDateFin(dateFin1);
         reservationRepository.save(reservationAutreUtilisateur);
 
-        List<Reservation> result = reservationService.getReservationsByUser(utilisateur.getId());
+        List<ReservationVueDTO> result = reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements();
 
         assertEquals(1, result.size());
-        assertEquals(utilisateur.getId(), result.get(0).getUtilisateur().getId());
+        assertEquals(reservationUtilisateur.getId(), result.get(0).id());
     }
 
     @Test
@@ -343,8 +350,71 @@ class ReservationServiceIntegrationTest {
         Long userIdInexistant = 999L;
 
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> reservationService.getReservationsByUser(userIdInexistant));
+                () -> reservationService.getReservationsByUser(userIdInexistant, null, null));
 
         assertEquals("Utilisateur non trouvé", exception.getMessage());
     }
+
+    @Test
+    @Transactional
+    void CreerReservationsPersisteLeLotEtRefuseLesConflits() {
+        Reservation existante = new Reservation();
+        existante.setSalle(salle);
+        existante.setUtilisateur(utilisateur);
+        existante.setDateDebut(LocalDateTime.of(2026, 1, 15, 14, 0));
+        existante.setDateFin(LocalDateTime.of(2026, 1, 15, 15, 0));
+        reservationRepository.save(existante);
+
+        List<ResultatReservationDTO> resultats = reservationService.creerReservations(utilisateur.getId(), List.of(
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2026, 1, 15, 9, 0), LocalDateTime.of(2026, 1, 15, 10, 0)),
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0)),
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2026, 1, 15, 10, 30), LocalDateTime.of(2026, 1, 15, 11, 30)),
+                new ReservationDTO(salle.getId(), LocalDateTime.of(2026, 1, 15, 14, 30), LocalDateTime.of(2026, 1, 15, 15, 30))
+        ));
+
+        assertTrue(resultats.get(0).succes());
+        assertTrue(resultats.get(1).succes());
+        assertFalse(resultats.get(2).succes());
+        assertFalse(resultats.get(3).succes());
+        assertNotNull(resultats.get(0).reservationId());
+        assertEquals(3, reservationRepository.findBySalleId(salle.getId()).size());
+    }
+
+    @Test
+    @Transactional
+    void SupprimerSerieSupprimeToutesSesOccurrences() {
+        SerieCreeeDTO serie = reservationService.creerSerie(utilisateur.getId(), new ReservationSerieDTO(salle.getId(),
+                LocalDateTime.of(2026, 1, 5, 10, 0), LocalDateTime.of(2026, 1, 5, 12, 0),
+                ReservationSerie.Frequence.HEBDOMADAIRE, LocalDate.of(2026, 6, 29)));
+        Reservation ponctuelle = reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2026, 1, 5, 14, 0), LocalDateTime.of(2026, 1, 5, 15, 0));
+
+        assertEquals(26, serie.nombreOccurrences());
+        assertEquals(27, reservationRepository.findBySalleId(salle.getId()).size());
+        assertThrows(RuntimeException.class, () -> reservationService.creerReservation(salle.getId(),
+                utilisateur.getId(), LocalDateTime.of(2026, 3, 2, 11, 0), LocalDateTime.of(2026, 3, 2, 11, 30)));
+
+        int supprimees = reservationService.supprimerSeriePourUtilisateur(serie.serieId(), utilisateur.getId());
+
+        assertEquals(26, supprimees);
+        List<Reservation> restantes = reservationRepository.findBySalleId(salle.getId());
+        assertEquals(1, restantes.size());
+        assertEquals(ponctuelle.getId(), restantes.get(0).getId());
+        assertNotNull(reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2026, 3, 2, 11, 0), LocalDateTime.of(2026, 3, 2, 11, 30)));
+    }
+
+    @Test
+    @Transactional
+    void GetReservationsBySalleAndDateRetourneReservationCouvrantToutLaJournee() {
+        Reservation surTroisJours = reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2026, 1, 14, 10, 0), LocalDateTime.of(2026, 1, 16, 10, 0));
+        reservationService.creerReservation(salle.getId(), utilisateur.getId(),
+                LocalDateTime.of(2026, 1, 17, 10, 0), LocalDateTime.of(2026, 1, 17, 12, 0));
+
+        List<ReservationVueDTO> result = reservationService.getReservationsBySalleAndDate(salle.getId(), LocalDate.of(2026, 1, 15));
+
+        assertEquals(1, result.size());
+        assertEquals(surTroisJours.getId(), result.get(0).id());
+    }
 }
@@ -1,5 +1,6 @@
 package com.efrei.easybooking.Service;
 
+import com.efrei.easybooking.DTO.ReservationVueDTO;
 import com.efrei.easybooking.Entity.Reservation;
 import com.efrei.easybooking.Entity.Salle;
 import com.efrei.easybooking.Entity.Utilisateur;
@@ -11,9 +12,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +29,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("Tests de performance pour ReservationService")
 class ReservationServicePerformanceTest {
 
+    private static final LocalDateTime ORIGINE_MASSE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
     @Autowired
     private ReservationService reservationService;
 
@@ -38,6 +43,9 @@ class ReservationServicePerformanceTest {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Salle salle;
     private Utilisateur utilisateur;
 
@@ -136,7 +144,7 @@ class ReservationServicePerformanceTest {
 
         long startTime = System.currentTimeMillis();
 
-        List<Reservation> reservations = reservationService.getReservationsByUser(utilisateur.getId());
+        List<ReservationVueDTO> reservations = reservationService.getReservationsByUser(utilisateur.getId(), null, null).elements();
 
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
@@ -266,7 +274,7 @@ class ReservationServicePerformanceTest {
         long startTime = System.currentTimeMillis();
 
         // Récupérer les réservations du premier jour créé
-        List<Reservation> reservations = reservationService.getReservationsBySalleAndDate(
+        List<ReservationVueDTO> reservations = reservationService.getReservationsBySalleAndDate(
                 salle.getId(),
                 LocalDateTime.now().plusDays(1).toLocalDate()
         );
@@ -310,4 +318,88 @@ class ReservationServicePerformanceTest {
         assertTrue(duration < 500,
                 "Créer une réservation avec vérification de 10 réservations existantes doit prendre moins de 500ms, mais a pris " + duration + "ms");
     }
+
+    @Test
+    @DisplayName("La vérification de conflits doit rester constante avec plus de 100 000 réservations")
+    void creerReservationDoitResterConstanteAvecCentMilleReservations() {
+        Salle petiteSalle = creerSalle("Salle peu réservée");
+        Salle grandeSalle = creerSalle("Salle très réservée");
+
+        insererReservationsEnMasse(petiteSalle, 1_000);
+        insererReservationsEnMasse(grandeSalle, 100_000);
+        assertTrue(reservationRepository.count() > 100_000);
+
+        // après toutes les réservations existantes, puis dans les trous au milieu de la plage remplie : la
+        // vérification de conflits ne doit pas dépendre du nombre de réservations qui se terminent après le créneau
+        verifierLatenceStable("après les réservations existantes",
+                mesurerTempsMoyenCreationMs(petiteSalle, LocalDateTime.of(2100, 1, 1, 0, 0), 50),
+                mesurerTempsMoyenCreationMs(grandeSalle, LocalDateTime.of(2100, 1, 1, 0, 0), 50));
+        verifierLatenceStable("au milieu des réservations existantes",
+                mesurerTempsMoyenCreationMs(petiteSalle, trouAuMilieu(1_000), 50),
+                mesurerTempsMoyenCreationMs(grandeSalle, trouAuMilieu(100_000), 50));
+
+        // un créneau à cheval sur une réservation existante du milieu de la plage reste refusé
+        LocalDateTime aCheval = trouAuMilieu(100_000).minusMinutes(30);
+        assertThrows(RuntimeException.class, () -> reservationService.creerReservation(
+                grandeSalle.getId(), utilisateur.getId(), aCheval, aCheval.plusMinutes(20)));
+    }
+
+    private static void verifierLatenceStable(String position, double tempsMoyenPetiteTable, double tempsMoyenGrandeTable) {
+        assertTrue(tempsMoyenGrandeTable < 20,
+                "Avec 100 000 réservations, la création " + position + " doit prendre moins de 20ms en moyenne, mais a pris "
+                        + tempsMoyenGrandeTable + "ms");
+        assertTrue(tempsMoyenGrandeTable < tempsMoyenPetiteTable * 5 + 5,
+                "La latence " + position + " doit rester stable : " + tempsMoyenPetiteTable
+                        + "ms avec 1 000 réservations contre " + tempsMoyenGrandeTable + "ms avec 100 000");
+    }
+
+    private Salle creerSalle(String nom) {
+        Salle s = new Salle();
+        s.setNom(nom);
+        s.setLocation("Bâtiment B");
+        return salleRepository.save(s);
+    }
+
+    /**
+     * Insère directement en JDBC des réservations d'une heure, une toutes les deux heures à partir de
+     * {@link #ORIGINE_MASSE} (l'heure suivante reste libre), beaucoup plus rapide que de passer par le
+     * service pour préparer un gros volume.
+     */
+    private void insererReservationsEnMasse(Salle s, int nombre) {
+        List<Object[]> lignes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            LocalDateTime debut = ORIGINE_MASSE.plusHours(2L * i);
+            lignes.add(new Object[]{
+                    s.getId(), utilisateur.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                        + " values (next value for reservation_seq, ?, ?, ?, ?)",
+                lignes);
+    }
+
+    /**
+     * Première heure libre au milieu des {@code nombre} réservations insérées par {@link #insererReservationsEnMasse}.
+     */
+    private static LocalDateTime trouAuMilieu(int nombre) {
+        return ORIGINE_MASSE.plusHours(2L * (nombre / 2) + 1);
+    }
+
+    /**
+     * Crée des réservations d'une heure sans conflit, une toutes les deux heures à partir de {@code origine},
+     * et retourne le temps moyen. Une première création sert d'échauffement et n'est pas mesurée.
+     */
+    private double mesurerTempsMoyenCreationMs(Salle s, LocalDateTime origine, int nombre) {
+        reservationService.creerReservation(s.getId(), utilisateur.getId(), origine, origine.plusHours(1));
+
+        long startTime = System.nanoTime();
+        for (int i = 1; i <= nombre; i++) {
+            LocalDateTime debut = origine.plusHours(2L * i);
+            reservationService.creerReservation(s.getId(), utilisateur.getId(), debut, debut.plusHours(1));
+        }
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / 1_000_000.0 / nombre;
+    }
 }
@@ -1,26 +1,45 @@
 package com.efrei.easybooking.Service;
 
+import com.efrei.easybooking.DTO.ReservationDTO;
+import com.efrei.easybooking.DTO.ReservationSerieDTO;
+import com.efrei.easybooking.DTO.ReservationVueDTO;
+import com.efrei.easybooking.DTO.ResultatReservationDTO;
+import com.efrei.easybooking.DTO.SerieCreeeDTO;
 import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.ReservationSerie;
 import com.efrei.easybooking.Entity.Salle;
 import com.efrei.easybooking.Entity.Utilisateur;
 import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.ReservationSerieRepository;
 import com.efrei.easybooking.Repository.SalleRepository;
 import com.efrei.easybooking.Repository.UtilisateurRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,18 +48,39 @@ class ReservationServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private SalleRepository salleRepository;
 
     @Mock
     private UtilisateurRepository utilisateurRepository;
 
-    @InjectMocks
+    @Mock
+    private ReservationSerieRepository reservationSerieRepository;
+
+    @Mock
+    private EvenementsSalles evenementsSalles;
+
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private VersionsSalles versionsSalles;
+
     private ReservationService reservationService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // index réel, chargé à la demande depuis le repository mocké
+        meterRegistry = new SimpleMeterRegistry();
+        disponibiliteIndex = new DisponibiliteIndex(reservationRepository, transactionManager, true, Duration.ofMinutes(10));
+        versionsSalles = new VersionsSalles(Duration.ofMinutes(10));
+        reservationService = new ReservationService(reservationRepository, salleRepository,
+                utilisateurRepository, reservationSerieRepository, disponibiliteIndex, new CatalogueSalles(salleRepository, versionsSalles), versionsSalles,
+                evenementsSalles, meterRegistry);
     }
 
     @Test
@@ -58,11 +98,11 @@ class ReservationServiceTest {
         utilisateur.setId(userId);
         utilisateur.setEmail("test@test.com");
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findAll())
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
                 .thenReturn(new ArrayList<>());
 
         Reservation reservationSauvegardee = new Reservation();
@@ -71,19 +111,25 @@ class ReservationServiceTest {
         reservationSauvegardee.setDateDebut(dateDebut);
         reservationSauvegardee.setDateFin(dateFin);
 
-        when(reservationRepository.save(any(Reservation.class)))
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
                 .thenReturn(reservationSauvegardee);
 
+        String etagAvant = versionsSalles.etagSalle(salleId);
+
         Reservation result = reservationService.creerReservation(salleId, userId, dateDebut, dateFin);
 
+        assertNotEquals(etagAvant, versionsSalles.etagSalle(salleId));
         assertEquals(salle, result.getSalle());
         assertEquals(utilisateur, result.getUtilisateur());
         assertEquals(dateDebut, result.getDateDebut());
         assertEquals(dateFin, result.getDateFin());
-        verify(salleRepository).findById(salleId);
-        verify(utilisateurRepository).findById(userId);
-        verify(reservationRepository).findAll();
-        verify(reservationRepository).save(any(Reservation.class));
+        verify(salleRepository).findForUpdateById(salleId);
+        verify(utilisateurRepository, never()).findById(any());
+        // planning pas en mémoire : il n'est pas chargé sous le verrou de la salle
+        verify(reservationRepository, never()).findBySalleId(any());
+        verify(reservationRepository).chevauche(salleId, dateDebut, dateFin);
+        verify(reservationRepository).saveAndFlush(any(Reservation.class));
+        verify(evenementsSalles).reservationsCreees(eq(salleId), any());
     }
 
     @Test
@@ -93,13 +139,13 @@ class ReservationServiceTest {
         LocalDateTime dateDebut = LocalDateTime.of(2026, 1, 15, 10, 0);
         LocalDateTime dateFin = LocalDateTime.of(2026, 1, 15, 12, 0);
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class,
                 () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin),
                 "Salle non trouvée");
-        verify(salleRepository).findById(salleId);
+        verify(salleRepository).findForUpdateById(salleId);
     }
 
     @Test
@@ -113,16 +159,42 @@ class ReservationServiceTest {
         salle.setId(salleId);
         salle.setNom("Salle A");
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.empty());
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(new Utilisateur());
+        // la clé étrangère utilisateur_id refuse l'INSERT
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenThrow(violation(ConstraintViolationException.ConstraintKind.FOREIGN_KEY));
 
-        assertThrows(RuntimeException.class,
-                () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin),
-                "Utilisateur non trouvé");
-        verify(salleRepository).findById(salleId);
-        verify(utilisateurRepository).findById(userId);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin));
+        assertEquals("Utilisateur non trouvé", exception.getMessage());
+        verify(salleRepository).findForUpdateById(salleId);
+        verify(utilisateurRepository, never()).findById(any());
+        assertFalse(disponibiliteIndex.chevauche(salleId, dateDebut, dateFin));
+    }
+
+    @Test
+    void CreerReservationRemonteLesViolationsQuiNeSontPasUneCleEtrangere() {
+        Salle salle = new Salle();
+        salle.setId(1L);
+
+        when(salleRepository.findForUpdateById(eq(1L))).thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(1L))).thenReturn(new Utilisateur());
+        // clé primaire déjà prise : ce n'est pas un utilisateur inconnu
+        DataIntegrityViolationException violation = violation(ConstraintViolationException.ConstraintKind.UNIQUE);
+        when(reservationRepository.saveAndFlush(any(Reservation.class))).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> reservationService.creerReservation(1L, 1L,
+                        LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0)));
+        assertEquals(violation, exception);
+    }
+
+    private static DataIntegrityViolationException violation(ConstraintViolationException.ConstraintKind type) {
+        return new DataIntegrityViolationException("insert into reservation",
+                new ConstraintViolationException("insert into reservation", new SQLException(), type, "contrainte"));
     }
 
     @Test
@@ -141,23 +213,26 @@ class ReservationServiceTest {
         utilisateur.setEmail("test@test.com");
 
         Reservation reservationExistante = new Reservation();
+        reservationExistante.setId(10L);
         reservationExistante.setSalle(salle);
         reservationExistante.setDateDebut(LocalDateTime.of(2026, 1, 15, 11, 0));
         reservationExistante.setDateFin(LocalDateTime.of(2026, 1, 15, 13, 0));
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findAll())
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
                 .thenReturn(List.of(reservationExistante));
+        when(reservationRepository.chevauche(salleId, dateDebut, dateFin))
+                .thenReturn(true);
 
         assertThrows(RuntimeException.class,
                 () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin),
                 "La salle est déjà réservée sur ce créneau");
-        verify(salleRepository).findById(salleId);
-        verify(utilisateurRepository).findById(userId);
-        verify(reservationRepository).findAll();
+        verify(salleRepository).findForUpdateById(salleId);
+        verify(utilisateurRepository, never()).findById(any());
+        verify(reservationRepository, never()).findBySalleId(any());
     }
 
     @Test
@@ -176,16 +251,19 @@ class ReservationServiceTest {
         utilisateur.setEmail("test@test.com");
 
         Reservation reservationExistante = new Reservation();
+        reservationExistante.setId(10L);
         reservationExistante.setSalle(salle);
         reservationExistante.setDateDebut(LocalDateTime.of(2026, 1, 15, 10, 0));
         reservationExistante.setDateFin(LocalDateTime.of(2026, 1, 15, 12, 0));
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findAll())
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
                 .thenReturn(List.of(reservationExistante));
+        when(reservationRepository.chevauche(salleId, dateDebut, dateFin))
+                .thenReturn(true);
 
         assertThrows(RuntimeException.class,
                 () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin),
@@ -208,22 +286,105 @@ class ReservationServiceTest {
         utilisateur.setEmail("test@test.com");
 
         Reservation reservationExistante = new Reservation();
+        reservationExistante.setId(10L);
         reservationExistante.setSalle(salle);
         reservationExistante.setDateDebut(LocalDateTime.of(2026, 1, 15, 10, 0));
         reservationExistante.setDateFin(LocalDateTime.of(2026, 1, 15, 12, 0));
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findAll())
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
                 .thenReturn(List.of(reservationExistante));
+        when(reservationRepository.chevauche(salleId, dateDebut, dateFin))
+                .thenReturn(true);
 
         assertThrows(RuntimeException.class,
                 () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin),
                 "La salle est déjà réservée sur ce créneau");
     }
 
+    @Test
+    void CreerReservationLanceExceptionQuandBaseSignaleChevauchementInconnuDeLIndex() {
+        Long salleId = 1L;
+        Long userId = 1L;
+        LocalDateTime dateDebut = LocalDateTime.of(2026, 1, 15, 10, 0);
+        LocalDateTime dateFin = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+        Salle salle = new Salle();
+        salle.setId(salleId);
+        salle.setNom("Salle A");
+
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+        utilisateur.setEmail("test@test.com");
+
+        when(salleRepository.findForUpdateById(eq(salleId)))
+                .thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
+                .thenReturn(new ArrayList<>());
+        // réservation écrite par une autre instance, absente de l'index local
+        when(reservationRepository.chevauche(salleId, dateDebut, dateFin))
+                .thenReturn(true);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reservationService.creerReservation(salleId, userId, dateDebut, dateFin));
+
+        assertEquals("La salle est déjà réservée sur ce créneau", exception.getMessage());
+        verify(reservationRepository, never()).saveAndFlush(any(Reservation.class));
+    }
+
+    @Test
+    void CreerReservationReussitQuandIndexPerimeSignaleUnConflitAbsentDeLaBase() {
+        Long salleId = 1L;
+        Long userId = 1L;
+        LocalDateTime dateDebut = LocalDateTime.of(2026, 1, 15, 10, 0);
+        LocalDateTime dateFin = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+        Salle salle = new Salle();
+        salle.setId(salleId);
+        salle.setNom("Salle A");
+
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+        utilisateur.setEmail("test@test.com");
+
+        // réservation supprimée par une autre instance, encore présente dans l'index local
+        Reservation reservationSupprimeeAilleurs = new Reservation();
+        reservationSupprimeeAilleurs.setId(10L);
+        reservationSupprimeeAilleurs.setSalle(salle);
+        reservationSupprimeeAilleurs.setDateDebut(LocalDateTime.of(2026, 1, 15, 11, 0));
+        reservationSupprimeeAilleurs.setDateFin(LocalDateTime.of(2026, 1, 15, 13, 0));
+
+        when(salleRepository.findForUpdateById(eq(salleId)))
+                .thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(salleId)))
+                .thenReturn(List.of(reservationSupprimeeAilleurs))
+                .thenReturn(new ArrayList<>());
+        when(reservationRepository.chevauche(salleId, dateDebut, dateFin))
+                .thenReturn(false);
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenAnswer(invocation -> {
+                    Reservation r = invocation.getArgument(0);
+                    r.setId(11L);
+                    return r;
+                });
+        // planning chargé par une lecture antérieure
+        disponibiliteIndex.chevauche(salleId, dateDebut, dateFin);
+
+        Reservation resultat = reservationService.creerReservation(salleId, userId, dateDebut, dateFin);
+
+        assertEquals(11L, resultat.getId());
+        // le planning contredit par la base a été écarté puis relu
+        assertFalse(disponibiliteIndex.chevauche(salleId, LocalDateTime.of(2026, 1, 15, 12, 0), LocalDateTime.of(2026, 1, 15, 13, 0)));
+        verify(reservationRepository, times(2)).findBySalleId(salleId);
+    }
+
     @Test
     void CreerReservationLanceExceptionQuandDateDebutApresDateFin() {
         Long salleId = 1L;
@@ -249,25 +410,30 @@ class ReservationServiceTest {
         salle.setId(salleId);
         salle.setNom("Salle A");
 
-        Salle autreSalle = new Salle();
-        autreSalle.setId(autreSalleId);
-        autreSalle.setNom("Salle B");
-
         Utilisateur utilisateur = new Utilisateur();
         utilisateur.setId(userId);
         utilisateur.setEmail("test@test.com");
 
+        Salle autreSalle = new Salle();
+        autreSalle.setId(autreSalleId);
+        autreSalle.setNom("Salle B");
+
         Reservation reservationAutreSalle = new Reservation();
+        reservationAutreSalle.setId(10L);
         reservationAutreSalle.setSalle(autreSalle);
-        reservationAutreSalle.setDateDebut(LocalDateTime.of(2026, 1, 15, 10, 0));
-        reservationAutreSalle.setDateFin(LocalDateTime.of(2026, 1, 15, 12, 0));
+        reservationAutreSalle.setDateDebut(dateDebut);
+        reservationAutreSalle.setDateFin(dateFin);
 
-        when(salleRepository.findById(eq(salleId)))
+        when(salleRepository.findForUpdateById(eq(salleId)))
                 .thenReturn(Optional.of(salle));
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findAll())
+        when(utilisateurRepository.getReferenceById(eq(userId)))
+                .thenReturn(utilisateur);
+
+        // le créneau est déjà pris dans l'autre salle, mais pas dans celle demandée
+        when(reservationRepository.findBySalleId(eq(autreSalleId)))
                 .thenReturn(List.of(reservationAutreSalle));
+        when(reservationRepository.findBySalleId(eq(salleId)))
+                .thenReturn(new ArrayList<>());
 
         Reservation reservationSauvegardee = new Reservation();
         reservationSauvegardee.setSalle(salle);
@@ -275,76 +441,271 @@ class ReservationServiceTest {
         reservationSauvegardee.setDateDebut(dateDebut);
         reservationSauvegardee.setDateFin(dateFin);
 
-        when(reservationRepository.save(any(Reservation.class)))
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
                 .thenReturn(reservationSauvegardee);
 
         Reservation result = reservationService.creerReservation(salleId, userId, dateDebut, dateFin);
 
         assertEquals(salle, result.getSalle());
-        verify(reservationRepository).save(any(Reservation.class));
+        verify(reservationRepository).saveAndFlush(any(Reservation.class));
     }
 
     @Test
     void GetReservationsByUserRetourneListeReservationsQuandUtilisateurExiste() {
         Long userId = 1L;
 
-        Utilisateur utilisateur = new Utilisateur();
-        utilisateur.setId(userId);
-        utilisateur.setEmail("test@test.com");
-
-        Reservation reservation1 = new Reservation();
-        reservation1.setId(1L);
-        reservation1.setUtilisateur(utilisateur);
-
-        Reservation reservation2 = new Reservation();
-        reservation2.setId(2L);
-        reservation2.setUtilisateur(utilisateur);
+        List<ReservationVueDTO> reservations = List.of(
+                new ReservationVueDTO(1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0), 1L, "Salle A"),
+                new ReservationVueDTO(2L, LocalDateTime.of(2026, 1, 16, 10, 0), LocalDateTime.of(2026, 1, 16, 12, 0), 1L, "Salle A"));
 
-        List<Reservation> reservations = List.of(reservation1, reservation2);
-
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findByUtilisateur(eq(utilisateur)))
+        when(reservationRepository.findVuesByUtilisateurId(eq(userId), any(Limit.class)))
                 .thenReturn(reservations);
 
-        List<Reservation> result = reservationService.getReservationsByUser(userId);
+        List<ReservationVueDTO> result = reservationService.getReservationsByUser(userId, null, null).elements();
 
         assertEquals(2, result.size());
         assertEquals(reservations, result);
-        verify(utilisateurRepository).findById(userId);
-        verify(reservationRepository).findByUtilisateur(utilisateur);
+        verify(reservationRepository).findVuesByUtilisateurId(userId, Limit.of(Pagination.LIMITE_DEFAUT + 1));
+        // une seule requête : ni findById ni existsById quand l'utilisateur a des réservations
+        verify(utilisateurRepository, never()).findById(any());
+        verify(utilisateurRepository, never()).existsById(any());
     }
 
     @Test
     void GetReservationsByUserRetourneListeVideQuandAucuneReservation() {
         Long userId = 1L;
 
-        Utilisateur utilisateur = new Utilisateur();
-        utilisateur.setId(userId);
-        utilisateur.setEmail("test@test.com");
-
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.of(utilisateur));
-        when(reservationRepository.findByUtilisateur(eq(utilisateur)))
+        when(reservationRepository.findVuesByUtilisateurId(eq(userId), any(Limit.class)))
                 .thenReturn(new ArrayList<>());
+        when(utilisateurRepository.existsById(eq(userId)))
+                .thenReturn(true);
 
-        List<Reservation> result = reservationService.getReservationsByUser(userId);
+        List<ReservationVueDTO> result = reservationService.getReservationsByUser(userId, null, null).elements();
 
         assertEquals(0, result.size());
-        verify(utilisateurRepository).findById(userId);
-        verify(reservationRepository).findByUtilisateur(utilisateur);
+        verify(reservationRepository).findVuesByUtilisateurId(userId, Limit.of(Pagination.LIMITE_DEFAUT + 1));
+        verify(utilisateurRepository).existsById(userId);
     }
 
     @Test
     void GetReservationsByUserLanceExceptionQuandUtilisateurNonTrouve() {
         Long userId = 999L;
 
-        when(utilisateurRepository.findById(eq(userId)))
-                .thenReturn(Optional.empty());
+        when(utilisateurRepository.existsById(eq(userId)))
+                .thenReturn(false);
 
-        assertThrows(RuntimeException.class,
-                () -> reservationService.getReservationsByUser(userId),
-                "Utilisateur non trouvé");
-        verify(utilisateurRepository).findById(userId);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reservationService.getReservationsByUser(userId, null, null));
+        assertEquals("Utilisateur non trouvé", exception.getMessage());
+        verify(utilisateurRepository).existsById(userId);
+    }
+
+    @Test
+    void CreerReservationsSignaleChaqueEchecEtEnregistreLesDemandesValides() {
+        Long userId = 1L;
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+
+        Reservation existante = new Reservation();
+        existante.setId(10L);
+        existante.setSalle(salle);
+        existante.setDateDebut(LocalDateTime.of(2026, 1, 15, 14, 0));
+        existante.setDateFin(LocalDateTime.of(2026, 1, 15, 15, 0));
+
+        when(utilisateurRepository.getReferenceById(eq(userId))).thenReturn(utilisateur);
+        when(salleRepository.findForUpdateByIdInOrderByIdAsc(any())).thenReturn(List.of(salle));
+        when(reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(1L), any(), any()))
+                .thenReturn(List.of(existante));
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Reservation> aEnregistrer = invocation.getArgument(0);
+            long id = 100L;
+            for (Reservation r : aEnregistrer) {
+                r.setId(id++);
+            }
+            return aEnregistrer;
+        });
+
+        List<ResultatReservationDTO> resultats = reservationService.creerReservations(userId, List.of(
+                new ReservationDTO(1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0)),
+                new ReservationDTO(1L, LocalDateTime.of(2026, 1, 15, 10, 30), LocalDateTime.of(2026, 1, 15, 11, 30)),
+                new ReservationDTO(1L, LocalDateTime.of(2026, 1, 15, 14, 30), LocalDateTime.of(2026, 1, 15, 16, 0)),
+                new ReservationDTO(1L, LocalDateTime.of(2026, 1, 15, 18, 0), LocalDateTime.of(2026, 1, 15, 17, 0))
+        ));
+
+        assertEquals(4, resultats.size());
+        assertTrue(resultats.get(0).succes());
+        assertEquals(100L, resultats.get(0).reservationId());
+        assertEquals("La salle est déjà réservée sur ce créneau", resultats.get(1).message());
+        assertEquals("La salle est déjà réservée sur ce créneau", resultats.get(2).message());
+        assertEquals("La date de début doit être avant la date de fin", resultats.get(3).message());
+        verify(salleRepository).findForUpdateByIdInOrderByIdAsc(any());
+        verify(reservationRepository).findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(1L), any(), any());
+    }
+
+    @Test
+    void CreerReservationsSignaleSalleNonTrouveePourSesSeulesDemandes() {
+        Long userId = 1L;
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+
+        when(utilisateurRepository.getReferenceById(eq(userId))).thenReturn(utilisateur);
+        when(salleRepository.findForUpdateByIdInOrderByIdAsc(any())).thenReturn(List.of(salle));
+        when(reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(1L), any(), any()))
+                .thenReturn(List.of());
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ResultatReservationDTO> resultats = reservationService.creerReservations(userId, List.of(
+                new ReservationDTO(999L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0)),
+                new ReservationDTO(1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 11, 0))
+        ));
+
+        assertFalse(resultats.get(0).succes());
+        assertEquals("Salle non trouvée", resultats.get(0).message());
+        assertTrue(resultats.get(1).succes());
+        verify(reservationRepository, never()).findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(999L), any(), any());
+    }
+
+    @Test
+    void CreerSerieEtendLesOccurrencesAvecUneSeuleRequeteDeConflits() {
+        Long userId = 1L;
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+
+        when(salleRepository.findForUpdateById(eq(1L))).thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(userId))).thenReturn(utilisateur);
+        when(reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(1L), any(), any()))
+                .thenReturn(List.of());
+        when(reservationSerieRepository.save(any(ReservationSerie.class))).thenAnswer(invocation -> {
+            ReservationSerie serie = invocation.getArgument(0);
+            serie.setId(5L);
+            return serie;
+        });
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // tous les lundis de 10h à 12h, du 5 janvier au 29 juin 2026
+        SerieCreeeDTO resultat = reservationService.creerSerie(userId, new ReservationSerieDTO(1L,
+                LocalDateTime.of(2026, 1, 5, 10, 0), LocalDateTime.of(2026, 1, 5, 12, 0),
+                ReservationSerie.Frequence.HEBDOMADAIRE, LocalDate.of(2026, 6, 29)));
+
+        assertEquals(5L, resultat.serieId());
+        assertEquals(26, resultat.nombreOccurrences());
+        verify(reservationRepository).findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(
+                1L, LocalDateTime.of(2026, 6, 29, 12, 0), LocalDateTime.of(2026, 1, 5, 10, 0));
+        verify(reservationRepository, never()).chevauche(any(), any(), any());
+    }
+
+    @Test
+    void CreerSerieLanceExceptionQuandUneOccurrenceEstDejaReservee() {
+        Long userId = 1L;
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(userId);
+
+        Reservation existante = new Reservation();
+        existante.setId(10L);
+        existante.setSalle(salle);
+        existante.setDateDebut(LocalDateTime.of(2026, 2, 2, 11, 0));
+        existante.setDateFin(LocalDateTime.of(2026, 2, 2, 13, 0));
+
+        when(salleRepository.findForUpdateById(eq(1L))).thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(userId))).thenReturn(utilisateur);
+        when(reservationRepository.findBySalleIdAndDateDebutBeforeAndDateFinAfterOrderByDateDebutAsc(eq(1L), any(), any()))
+                .thenReturn(List.of(existante));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reservationService.creerSerie(userId, new ReservationSerieDTO(1L,
+                        LocalDateTime.of(2026, 1, 5, 10, 0), LocalDateTime.of(2026, 1, 5, 12, 0),
+                        ReservationSerie.Frequence.HEBDOMADAIRE, LocalDate.of(2026, 6, 29))));
+
+        assertEquals("La salle est déjà réservée sur ce créneau (2026-02-02T10:00)", exception.getMessage());
+        verify(reservationSerieRepository, never()).save(any());
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void GetReservationsBySalleAndDateRetourneReservationCouvrantToutLaJournee() {
+        Salle salle = new Salle();
+        salle.setId(1L);
+        salle.setNom("Salle A");
+
+        Reservation surTroisJours = new Reservation();
+        surTroisJours.setId(10L);
+        surTroisJours.setSalle(salle);
+        surTroisJours.setDateDebut(LocalDateTime.of(2026, 1, 14, 10, 0));
+        surTroisJours.setDateFin(LocalDateTime.of(2026, 1, 16, 10, 0));
+
+        Reservation finitAMinuit = new Reservation();
+        finitAMinuit.setId(11L);
+        finitAMinuit.setSalle(salle);
+        finitAMinuit.setDateDebut(LocalDateTime.of(2026, 1, 14, 22, 0));
+        finitAMinuit.setDateFin(LocalDateTime.of(2026, 1, 15, 0, 0));
+
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of(surTroisJours, finitAMinuit));
+        disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 1, 8, 0), LocalDateTime.of(2026, 1, 1, 9, 0));
+
+        List<ReservationVueDTO> result = reservationService.getReservationsBySalleAndDate(1L, LocalDate.of(2026, 1, 15));
+
+        assertEquals(List.of(new ReservationVueDTO(10L, LocalDateTime.of(2026, 1, 14, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 0), 1L, "Salle A")), result);
+        verify(reservationRepository, never()).findVuesBySalleIdSurPeriode(any(), any(), any());
+    }
+
+    @Test
+    void GetReservationsBySalleAndDateInterrogeLaBaseSurLeSeulJourQuandSalleNonChargee() {
+        ReservationVueDTO reservation = new ReservationVueDTO(10L, LocalDateTime.of(2026, 1, 15, 10, 0),
+                LocalDateTime.of(2026, 1, 15, 12, 0), 1L, "Salle A");
+
+        when(salleRepository.findById(eq(1L))).thenReturn(Optional.of(new Salle()));
+        when(reservationRepository.findVuesBySalleIdSurPeriode(eq(1L), any(), any()))
+                .thenReturn(List.of(reservation));
+
+        List<ReservationVueDTO> result = reservationService.getReservationsBySalleAndDate(1L, LocalDate.of(2026, 1, 15));
+
+        assertEquals(List.of(reservation), result);
+        verify(reservationRepository).findVuesBySalleIdSurPeriode(
+                1L, LocalDateTime.of(2026, 1, 15, 0, 0), LocalDateTime.of(2026, 1, 16, 0, 0));
+        verify(reservationRepository, never()).findBySalleId(any());
+    }
+
+    @Test
+    void CreerReservationCompteLesConflitsEtChronometreChaqueResultat() {
+        Salle salle = new Salle();
+        salle.setId(1L);
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setId(1L);
+
+        Reservation reservationExistante = new Reservation();
+        reservationExistante.setId(10L);
+        reservationExistante.setSalle(salle);
+        reservationExistante.setDateDebut(LocalDateTime.of(2026, 1, 15, 11, 0));
+        reservationExistante.setDateFin(LocalDateTime.of(2026, 1, 15, 13, 0));
+
+        when(salleRepository.findForUpdateById(eq(1L))).thenReturn(Optional.of(salle));
+        when(utilisateurRepository.getReferenceById(eq(1L))).thenReturn(utilisateur);
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of(reservationExistante));
+        when(reservationRepository.chevauche(
+                1L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0))).thenReturn(true);
+        when(reservationRepository.saveAndFlush(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // planning chargé par une lecture antérieure : le conflit est aussi connu de l'index
+        disponibiliteIndex.chevauche(1L, LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 9, 0));
+
+        assertThrows(RuntimeException.class, () -> reservationService.creerReservation(1L, 1L,
+                LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0)));
+        reservationService.creerReservation(1L, 1L,
+                LocalDateTime.of(2026, 1, 15, 14, 0), LocalDateTime.of(2026, 1, 15, 15, 0));
+
+        assertEquals(1.0, meterRegistry.get("easybooking.reservations.conflits")
+                .tag("verification", "index").counter().count());
+        assertEquals(1, meterRegistry.get("easybooking.reservations.creation")
+                .tag("resultat", "conflit").timer().count());
+        assertEquals(1, meterRegistry.get("easybooking.reservations.creation")
+                .tag("resultat", "succes").timer().count());
     }
 }
@@ -0,0 +1,158 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.CreneauLibreDTO;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Entity.Utilisateur;
+import com.efrei.easybooking.Repository.SalleRepository;
+import com.efrei.easybooking.Repository.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pas de @Transactional : l'index relit les plannings dans sa propre transaction, les données
+ * doivent donc être validées en base. Elles sont nettoyées après le test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Tests de performance pour SalleService")
+class SalleServicePerformanceTest {
+
+    private static final int NOMBRE_SALLES = 300;
+    private static final int RESERVATIONS_PAR_SALLE = 20;
+
+    @Autowired
+    private SalleService salleService;
+
+    @Autowired
+    private SalleRepository salleRepository;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private DisponibiliteIndex disponibiliteIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Salle> salles = new ArrayList<>();
+    private Utilisateur utilisateur;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NOMBRE_SALLES; i++) {
+            Salle salle = new Salle();
+            salle.setNom("Salle recherche " + i);
+            salle.setLocation("Bâtiment C");
+            salles.add(salle);
+        }
+        salles.replaceAll(salleRepository::save);
+
+        utilisateur = new Utilisateur();
+        utilisateur.setEmail("recherche@test.com");
+        utilisateur.setPassword("password");
+        utilisateur = utilisateurRepository.save(utilisateur);
+
+        // journées de 8h à 18h entièrement réservées par créneaux d'une heure, sauf dans la dernière salle
+        LocalDateTime origine = LocalDateTime.of(2028, 5, 1, 8, 0);
+        List<Object[]> lignes = new ArrayList<>();
+        for (Salle salle : salles.subList(0, NOMBRE_SALLES - 1)) {
+            for (int i = 0; i < RESERVATIONS_PAR_SALLE; i++) {
+                LocalDateTime debut = origine.plusDays(i / 10).plusHours(i % 10);
+                lignes.add(new Object[]{
+                        salle.getId(), utilisateur.getId(), Timestamp.valueOf(debut), Timestamp.valueOf(debut.plusHours(1))
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into reservation (id, salle_id, utilisateur_id, date_debut, date_fin)"
+                        + " values (next value for reservation_seq, ?, ?, ?, ?)",
+                lignes);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Salle salle : salles) {
+            jdbcTemplate.update("delete from reservation where salle_id = ?", salle.getId());
+            disponibiliteIndex.invalider(salle.getId());
+        }
+        salleRepository.deleteAll(salles);
+        utilisateurRepository.delete(utilisateur);
+    }
+
+    @Test
+    @DisplayName("Chercher une salle libre parmi 300 doit prendre quelques millisecondes")
+    void rechercheDeSalleLibreDoitEtreRapideAvecTroisCentsSalles() {
+        LocalDateTime debut = LocalDateTime.of(2028, 5, 1, 10, 0);
+        LocalDateTime fin = LocalDateTime.of(2028, 5, 1, 11, 0);
+        LocalDateTime finFenetre = LocalDateTime.of(2028, 5, 1, 18, 0);
+
+        // plannings chargés par les lectures de créneaux ; échauffement de la JVM
+        for (Salle salle : salles) {
+            disponibiliteIndex.chevauche(salle.getId(), debut, fin);
+        }
+        double tempsMoyenMs = mesurer(debut, fin, finFenetre);
+
+        assertTrue(tempsMoyenMs < 10,
+                "Les deux recherches sur 300 salles doivent prendre moins de 10ms en moyenne, mais ont pris "
+                        + tempsMoyenMs + "ms");
+    }
+
+    @Test
+    @DisplayName("Chercher une salle libre parmi 300 salles non chargées ne doit pas charger leurs plannings")
+    void rechercheDeSalleLibreSansPlanningChargeFaitUneRequeteBornee() {
+        LocalDateTime debut = LocalDateTime.of(2028, 5, 1, 10, 0);
+        LocalDateTime fin = LocalDateTime.of(2028, 5, 1, 11, 0);
+        LocalDateTime finFenetre = LocalDateTime.of(2028, 5, 1, 18, 0);
+
+        double tempsMoyenMs = mesurer(debut, fin, finFenetre);
+
+        assertTrue(salles.stream().noneMatch(salle -> disponibiliteIndex.contientSalle(salle.getId())),
+                "Une recherche ne doit pas charger l'historique des salles");
+        assertTrue(tempsMoyenMs < 100,
+                "Les deux recherches sur 300 salles non chargées doivent prendre moins de 100ms en moyenne, mais ont pris "
+                        + tempsMoyenMs + "ms");
+    }
+
+    /**
+     * Vérifie le résultat des deux recherches et retourne leur durée moyenne cumulée, après échauffement.
+     */
+    private double mesurer(LocalDateTime debut, LocalDateTime fin, LocalDateTime finFenetre) {
+        for (int i = 0; i < 100; i++) {
+            salleService.findDisponibles(debut, fin);
+            salleService.findPremiersCreneauxLibres(debut, finFenetre, Duration.ofHours(2));
+        }
+
+        int iterations = 50;
+        List<Salle> libres = List.of();
+        List<CreneauLibreDTO> creneaux = List.of();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            libres = salleService.findDisponibles(debut, fin);
+            creneaux = salleService.findPremiersCreneauxLibres(debut, finFenetre, Duration.ofHours(2));
+        }
+        double tempsMoyenMs = (System.nanoTime() - startTime) / 1_000_000.0 / iterations;
+
+        Long salleLibre = salles.get(NOMBRE_SALLES - 1).getId();
+        assertTrue(libres.stream().anyMatch(s -> s.getId().equals(salleLibre)));
+        assertTrue(libres.stream().noneMatch(s -> s.getId().equals(salles.get(0).getId())));
+        assertTrue(creneaux.contains(new CreneauLibreDTO(salleLibre, "Salle recherche " + (NOMBRE_SALLES - 1),
+                debut, debut.plusHours(2))));
+        assertTrue(creneaux.stream().noneMatch(c -> c.salleId().equals(salles.get(0).getId())));
+        return tempsMoyenMs;
+    }
+}
@@ -0,0 +1,148 @@
+package com.efrei.easybooking.Service;
+
+import com.efrei.easybooking.DTO.CreneauLibreDTO;
+import com.efrei.easybooking.Entity.Reservation;
+import com.efrei.easybooking.Entity.Salle;
+import com.efrei.easybooking.Repository.ReservationRepository;
+import com.efrei.easybooking.Repository.SalleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SalleServiceTest {
+
+    @Mock
+    private SalleRepository salleRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DisponibiliteIndex disponibiliteIndex;
+
+    private SalleService salleService;
+
+    private Salle salleA;
+    private Salle salleB;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        disponibiliteIndex = new DisponibiliteIndex(reservationRepository, transactionManager, true, Duration.ofMinutes(10));
+        salleService = new SalleService(new CatalogueSalles(salleRepository, new VersionsSalles(Duration.ofMinutes(10))), disponibiliteIndex, reservationRepository);
+
+        salleA = salle(1L, "Salle A");
+        salleB = salle(2L, "Salle B");
+        when(salleRepository.findAll(any(Sort.class))).thenReturn(List.of(salleA, salleB));
+
+        // salle A : occupée de 9h à 10h puis de 10h30 à 12h ; salle B : occupée de 8h à 11h
+        when(reservationRepository.findBySalleId(eq(1L))).thenReturn(List.of(
+                reservation(10L, salleA, LocalDateTime.of(2026, 1, 15, 9, 0), LocalDateTime.of(2026, 1, 15, 10, 0)),
+                reservation(11L, salleA, LocalDateTime.of(2026, 1, 15, 10, 30), LocalDateTime.of(2026, 1, 15, 12, 0))));
+        when(reservationRepository.findBySalleId(eq(2L))).thenReturn(List.of(
+                reservation(20L, salleB, LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 11, 0))));
+    }
+
+    private void chargerPlannings() {
+        for (long salleId = 1; salleId <= 2; salleId++) {
+            disponibiliteIndex.chevauche(salleId, LocalDateTime.of(2026, 1, 15, 0, 0), LocalDateTime.of(2026, 1, 15, 1, 0));
+        }
+    }
+
+    @Test
+    void FindDisponiblesExclutLesSallesOccupeesSurLeCreneau() {
+        chargerPlannings();
+        List<Salle> libresA11h = salleService.findDisponibles(
+                LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 10, 30));
+        List<Salle> libresA12h = salleService.findDisponibles(
+                LocalDateTime.of(2026, 1, 15, 12, 0), LocalDateTime.of(2026, 1, 15, 13, 0));
+
+        assertEquals(List.of(salleA), libresA11h);
+        assertEquals(List.of(salleA, salleB), libresA12h);
+    }
+
+    @Test
+    void FindPremiersCreneauxLibresRetourneLePremierTrouAssezLongDeChaqueSalle() {
+        chargerPlannings();
+        List<CreneauLibreDTO> creneaux = salleService.findPremiersCreneauxLibres(
+                LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 18, 0), Duration.ofHours(1));
+
+        // le trou de 30 minutes de la salle A à 10h est trop court
+        assertEquals(List.of(
+                new CreneauLibreDTO(1L, "Salle A", LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 9, 0)),
+                new CreneauLibreDTO(2L, "Salle B", LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 12, 0))),
+                creneaux);
+
+        List<CreneauLibreDTO> apresNeufHeures = salleService.findPremiersCreneauxLibres(
+                LocalDateTime.of(2026, 1, 15, 9, 0), LocalDateTime.of(2026, 1, 15, 12, 30), Duration.ofHours(1));
+        assertEquals(1, apresNeufHeures.size());
+        assertEquals(LocalDateTime.of(2026, 1, 15, 11, 0), apresNeufHeures.get(0).dateDebut());
+        assertEquals(2L, apresNeufHeures.get(0).salleId());
+    }
+
+    @Test
+    void RecherchesSurSallesNonChargeesFontUneSeuleRequeteSansChargerLesPlannings() {
+        LocalDateTime debut = LocalDateTime.of(2026, 1, 15, 8, 0);
+        LocalDateTime fin = LocalDateTime.of(2026, 1, 15, 18, 0);
+        // seule la salle A est en mémoire ; la salle B est lue avec les autres salles non chargées
+        disponibiliteIndex.chevauche(1L, debut, fin);
+        when(reservationRepository.findSalleIdsOccupees(List.of(2L), debut, fin)).thenReturn(List.of(2L));
+        when(reservationRepository.findBySalleIdInSurPeriode(List.of(2L), debut, fin)).thenReturn(List.of(
+                reservation(20L, salleB, LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 11, 0))));
+
+        assertEquals(List.of(), salleService.findDisponibles(debut, fin));
+        assertEquals(List.of(
+                new CreneauLibreDTO(1L, "Salle A", LocalDateTime.of(2026, 1, 15, 8, 0), LocalDateTime.of(2026, 1, 15, 9, 0)),
+                new CreneauLibreDTO(2L, "Salle B", LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 12, 0))),
+                salleService.findPremiersCreneauxLibres(debut, fin, Duration.ofHours(1)));
+
+        verify(reservationRepository, never()).findBySalleId(2L);
+        verify(reservationRepository).findSalleIdsOccupees(List.of(2L), debut, fin);
+        verify(reservationRepository).findBySalleIdInSurPeriode(List.of(2L), debut, fin);
+        assertFalse(disponibiliteIndex.contientSalle(2L));
+    }
+
+    @Test
+    void FindPremiersCreneauxLibresLanceExceptionQuandDureePlusLongueQueLaFenetre() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> salleService.findPremiersCreneauxLibres(LocalDateTime.of(2026, 1, 15, 8, 0),
+                        LocalDateTime.of(2026, 1, 15, 9, 0), Duration.ofHours(2)));
+
+        assertTrue(exception.getMessage().contains("durée"));
+    }
+
+    private static Salle salle(Long id, String nom) {
+        Salle salle = new Salle();
+        salle.setId(id);
+        salle.setNom(nom);
+        return salle;
+    }
+
+    private static Reservation reservation(Long id, Salle salle, LocalDateTime debut, LocalDateTime fin) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setSalle(salle);
+        reservation.setDateDebut(debut);
+        reservation.setDateFin(fin);
+        return reservation;
+    }
+}
@@ -0,0 +1,86 @@
+package com.efrei.easybooking.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionsSallesTest {
+
+    @AfterEach
+    void nettoyer() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void ModificationDUneSalleNeChangeQueSonEtag() {
+        VersionsSalles versions = new VersionsSalles(Duration.ofMinutes(10));
+        String salle1 = versions.etagSalle(1L);
+        String salle2 = versions.etagSalle(2L);
+        String catalogue = versions.etagCatalogue();
+
+        versions.salleModifiee(1L);
+
+        assertNotEquals(salle1, versions.etagSalle(1L));
+        assertEquals(salle2, versions.etagSalle(2L));
+        assertEquals(catalogue, versions.etagCatalogue());
+        assertTrue(versions.etagSalle(1L).startsWith("\"") && versions.etagSalle(1L).endsWith("\""),
+                "Un ETag fort est une chaîne entre guillemets, sans préfixe W/");
+    }
+
+    @Test
+    void VersionChangeSeulementALaFinDeLaTransaction() {
+        VersionsSalles versions = new VersionsSalles(Duration.ofMinutes(10));
+        String avant = versions.etagSalle(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.salleModifiee(1L);
+        versions.catalogueModifie();
+
+        // pendant la transaction, une lecture porte encore l'ancienne version
+        assertEquals(avant, versions.etagSalle(1L));
+        for (TransactionSynchronization synchronisation : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronisation.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertNotEquals(avant, versions.etagSalle(1L));
+    }
+
+    @Test
+    void DeuxInstancesNeProduisentPasLeMemeEtag() {
+        assertNotEquals(new VersionsSalles(Duration.ofMinutes(10)).etagCatalogue(), new VersionsSalles(Duration.ofMinutes(10)).etagCatalogue());
+    }
+
+    @Test
+    void EtagDesSallesChangeAChaquePeriodeMaisPasCeluiDuCatalogue() throws InterruptedException {
+        // une modification faite sur une autre instance n'est pas vue : l'ETag d'une salle expire quand même
+        VersionsSalles versions = new VersionsSalles(Duration.ofMillis(20));
+        String etagSalle = versions.etagSalle(1L);
+        String etagCatalogue = versions.etagCatalogue();
+
+        Thread.sleep(50);
+
+        assertNotEquals(etagSalle, versions.etagSalle(1L));
+        assertEquals(etagCatalogue, versions.etagCatalogue(), "Le catalogue doit garder ses 304 tant qu'il ne change pas");
+    }
+
+    @Test
+    void RelectureDuCatalogueChangeSonEtagSansAttendreLaTransaction() {
+        VersionsSalles versions = new VersionsSalles(Duration.ofMinutes(10));
+        String catalogue = versions.etagCatalogue();
+        String salle = versions.etagSalle(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.catalogueRelu();
+
+        assertNotEquals(catalogue, versions.etagCatalogue());
+        assertEquals(salle, versions.etagSalle(1L));
+    }
+}
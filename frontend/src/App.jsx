@@ -290,6 +290,23 @@ function App() {
     }
   }, [view, activeTab, selectedSalleId, reservationDate]);
 
+  // planning du jour affiché tenu à jour par le flux d'événements de la salle, sans relire à intervalle
+  useEffect(() => {
+    if (view !== "app" || activeTab !== "reservation" || !selectedSalleId || !reservationDate) {
+      return undefined;
+    }
+    return api.subscribeSalleEvents(Number(selectedSalleId), (type, data) => {
+      const toucheLeJour =
+        type === "planning-modifie" ||
+        data.some(
+          (r) => r.dateDebut.slice(0, 10) <= reservationDate && r.dateFin.slice(0, 10) >= reservationDate
+        );
+      if (toucheLeJour) {
+        loadSlots();
+      }
+    });
+  }, [view, activeTab, selectedSalleId, reservationDate]);
+
   const renderAuth = () => (
     <main className="content">
       {message && <div className="alert success">{message}</div>}
@@ -614,11 +631,8 @@ function App() {
                   <div key={r.id} className="list-item">
                     <div>
                       <h3>Réservation #{r.id}</h3>
-                      {r.salle && (
-                        <p>
-                          Salle: {r.salle.nom || `#${r.salle.id}`}{" "}
-                          {r.salle.capacite && `(capacité ${r.salle.capacite})`}
-                        </p>
+                      {r.salleId && (
+                        <p>Salle: {r.salleNom || `#${r.salleId}`}</p>
                       )}
                       <p>
                         Début:{" "}
@@ -1,4 +1,6 @@
 const API_BASE_URL = "http://localhost:8080";
+// même délai que le champ "retry" envoyé par le serveur (EvenementsSalles.RECONNEXION_MS)
+const SSE_RECONNEXION_MS = 5000;
 
 async function request(path, options = {}) {
   const response = await fetch(`${API_BASE_URL}${path}`, {
@@ -26,6 +28,19 @@ async function request(path, options = {}) {
   return data;
 }
 
+// les listes sont paginées ({ elements, next }) : on suit le curseur "next" jusqu'à la dernière page
+async function requestAllPages(path) {
+  const elements = [];
+  let next = null;
+  do {
+    const separator = path.includes("?") ? "&" : "?";
+    const page = await request(next ? `${path}${separator}next=${encodeURIComponent(next)}` : path);
+    elements.push(...(page?.elements || []));
+    next = page?.next;
+  } while (next);
+  return elements;
+}
+
 export const api = {
   register: (email, password) =>
     request("/register", {
@@ -44,7 +59,7 @@ export const api = {
       method: "POST"
     }),
 
-  getSalles: () => request("/salles"),
+  getSalles: () => requestAllPages("/salles"),
 
   createReservation: (salleId, dateDebut, dateFin) =>
     request("/reservations", {
@@ -52,7 +67,7 @@ export const api = {
       body: JSON.stringify({ salleId, dateDebut, dateFin })
     }),
 
-  getMesReservations: () => request("/reservations"),
+  getMesReservations: () => requestAllPages("/reservations"),
 
   deleteReservation: (id) =>
     request(`/reservations/${id}`, {
@@ -60,6 +75,40 @@ export const api = {
     }),
 
   getReservationsForSalleAndDate: (salleId, date) =>
-    request(`/reservations/salle/${salleId}?date=${encodeURIComponent(date)}`)
+    request(`/reservations/salle/${salleId}?date=${encodeURIComponent(date)}`),
+
+  // flux SSE des réservations créées / supprimées dans la salle ; EventSource se reconnecte seul.
+  // Les événements émis pendant une coupure sont perdus : chaque reconnexion est signalée comme un
+  // "planning-modifie" pour que le planning soit relu. Retourne la fonction qui ferme le flux.
+  subscribeSalleEvents: (salleId, onEvent) => {
+    let source;
+    let relance;
+    let ouvertures = 0;
+    const ouvrir = () => {
+      source = new EventSource(`${API_BASE_URL}/salles/${salleId}/events`, {
+        withCredentials: true
+      });
+      ["reservations-creees", "reservations-supprimees", "planning-modifie"].forEach((type) =>
+        source.addEventListener(type, (event) => onEvent(type, JSON.parse(event.data)))
+      );
+      source.addEventListener("open", () => {
+        if (ouvertures++ > 0) {
+          onEvent("planning-modifie", null);
+        }
+      });
+      // flux refusé ou fermé pour de bon (503, session expirée) : EventSource ne réessaie plus de lui-même
+      source.addEventListener("error", () => {
+        if (source.readyState === EventSource.CLOSED) {
+          source.close();
+          relance = setTimeout(ouvrir, SSE_RECONNEXION_MS);
+        }
+      });
+    };
+    ouvrir();
+    return () => {
+      clearTimeout(relance);
+      source.close();
+    };
+  }
 };
 